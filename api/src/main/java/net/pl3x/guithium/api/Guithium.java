@@ -25,6 +25,14 @@ public interface Guithium {
      */
     int PROTOCOL = 1;
 
+    /**
+     * The oldest protocol version this version can still talk to.
+     * <p>
+     * Optional features are negotiated with {@link net.pl3x.guithium.api.network.Capabilities} instead
+     * of bumping the protocol, so a different but compatible version is not turned away.
+     */
+    int MIN_PROTOCOL = 1;
+
     /**
      * bStats ID number for Guithium.
      */
@@ -15,5 +15,14 @@ public interface ActionListener {
     @Target(ElementType.METHOD)
     @Retention(RetentionPolicy.RUNTIME)
     @interface ActionHandler {
+        /**
+         * Whether this handler is safe to call off the server's main thread.
+         * <p>
+         * Async handlers are called after all other handlers, so they see the final
+         * state of the action but cannot cancel or change it.
+         *
+         * @return {@code true} to call this handler asynchronously
+         */
+        boolean async() default false;
     }
 }
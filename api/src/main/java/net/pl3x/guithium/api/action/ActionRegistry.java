@@ -2,7 +2,9 @@ package net.pl3x.guithium.api.action;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 import net.pl3x.guithium.api.Guithium;
 import net.pl3x.guithium.api.action.actions.Action;
 import org.jetbrains.annotations.NotNull;
@@ -11,6 +13,8 @@ import org.jetbrains.annotations.NotNull;
  * The action registry.
  */
 public class ActionRegistry {
+    private Executor asyncExecutor = Runnable::run;
+
     /**
      * Create a new action registry
      */
@@ -18,18 +22,52 @@ public class ActionRegistry {
         // Empty constructor to pacify javadoc lint
     }
 
+    /**
+     * Set the executor async action handlers are called on.
+     * <p>
+     * By default, async handlers are called on the same thread as the action.
+     *
+     * @param executor Executor for async handlers
+     */
+    public void setAsyncExecutor(@NotNull Executor executor) {
+        this.asyncExecutor = executor;
+    }
+
     /**
      * Call an action for plugins to listen to.
+     * <p>
+     * Handlers marked {@link ActionListener.ActionHandler#async() async} are called
+     * afterward, on the {@link #setAsyncExecutor(Executor) async executor}.
      *
      * @param action The action to call
      */
     public void callAction(@NotNull Action action) {
+        List<RegisteredHandler> async = null;
         for (RegisteredHandler handler : action.getHandlers()) {
-            try {
-                handler.execute(action);
-            } catch (Throwable t) {
-                Guithium.logger.error(t.getMessage(), t);
+            if (handler.isAsync()) {
+                if (async == null) {
+                    async = new ArrayList<>();
+                }
+                async.add(handler);
+                continue;
             }
+            execute(handler, action);
+        }
+        if (async != null) {
+            List<RegisteredHandler> handlers = async;
+            this.asyncExecutor.execute(() -> {
+                for (RegisteredHandler handler : handlers) {
+                    execute(handler, action);
+                }
+            });
+        }
+    }
+
+    private void execute(@NotNull RegisteredHandler handler, @NotNull Action action) {
+        try {
+            handler.execute(action);
+        } catch (Throwable t) {
+            Guithium.logger.error(t.getMessage(), t);
         }
     }
 
@@ -11,6 +11,7 @@ import org.jetbrains.annotations.NotNull;
 public class RegisteredHandler {
     private final ActionListener listener;
     private Method method;
+    private boolean async;
 
     /**
      * Create a new registered action handler.
@@ -46,6 +47,17 @@ public class RegisteredHandler {
     private void setMethod(@NotNull Method method) {
         method.setAccessible(true);
         this.method = method;
+        ActionListener.ActionHandler annotation = method.getDeclaredAnnotation(ActionListener.ActionHandler.class);
+        this.async = annotation != null && annotation.async();
+    }
+
+    /**
+     * Whether this handler is safe to call off the server's main thread.
+     *
+     * @return {@code true} if handler is called asynchronously, otherwise {@code false}
+     */
+    public boolean isAsync() {
+        return this.async;
     }
 
     /**
@@ -2,19 +2,39 @@ package net.pl3x.guithium.api.gui;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import net.pl3x.guithium.api.Guithium;
 import net.pl3x.guithium.api.gui.element.Element;
+import net.pl3x.guithium.api.gui.element.Image;
+import net.pl3x.guithium.api.gui.texture.Texture;
+import net.pl3x.guithium.api.json.Gson;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
 import net.pl3x.guithium.api.key.Keyed;
+import net.pl3x.guithium.api.network.Capabilities;
+import net.pl3x.guithium.api.network.Connection;
+import net.pl3x.guithium.api.network.codec.Binary;
+import net.pl3x.guithium.api.network.codec.BinarySerializable;
+import net.pl3x.guithium.api.network.codec.BufferOutput;
+import net.pl3x.guithium.api.network.codec.BufferPool;
+import net.pl3x.guithium.api.network.codec.Codec;
 import net.pl3x.guithium.api.network.packet.CloseScreenPacket;
+import net.pl3x.guithium.api.network.packet.OpenCachedScreenPacket;
 import net.pl3x.guithium.api.network.packet.OpenScreenPacket;
+import net.pl3x.guithium.api.network.packet.PrefetchTexturesPacket;
 import net.pl3x.guithium.api.player.WrappedPlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -22,10 +42,16 @@ import org.jetbrains.annotations.Nullable;
 /**
  * Represents a screen of gui elements.
  */
-public class Screen extends Keyed {
+public class Screen extends Keyed implements BinarySerializable {
+    // smaller screens are cheaper to just send than to look up in the client's cache
+    private static final int CACHE_THRESHOLD = 1024;
+
     private final boolean hud;
     private final boolean preRender;
     private final List<Element> elements = new ArrayList<>();
+    private final Map<Codec, Encoded> encoded = new EnumMap<>(Codec.class);
+
+    private int modCount;
 
     /**
      * Create a new screen.
@@ -153,6 +179,7 @@ public class Screen extends Keyed {
     public boolean addElement(@NotNull Element element) {
         Preconditions.checkNotNull(element, "Cannot add null element to screen");
         Preconditions.checkArgument(!hasElement(element), "Screen already has element with key '%s'", element.getKey());
+        this.modCount++;
         return this.elements.add(element);
     }
 
@@ -183,7 +210,11 @@ public class Screen extends Keyed {
      * @return {@code true} if element with specified key was removed, otherwise {@code false}
      */
     public boolean removeElement(@NotNull Key key) {
-        return this.elements.removeIf(element -> key.equals(element.getKey()));
+        if (!this.elements.removeIf(element -> key.equals(element.getKey()))) {
+            return false;
+        }
+        this.modCount++;
+        return true;
     }
 
     /**
@@ -233,7 +264,16 @@ public class Screen extends Keyed {
      */
     public void open(@NotNull WrappedPlayer player) {
         player.setCurrentScreen(this);
-        player.getConnection().send(new OpenScreenPacket(this));
+        Connection connection = player.getConnection();
+        if (isCacheable(connection)) {
+            connection.getElementTracker().track(this);
+            connection.send(new OpenCachedScreenPacket(this));
+        } else {
+            connection.send(new OpenScreenPacket(this));
+        }
+        for (Element element : this.elements) {
+            connection.getElementTracker().track(element);
+        }
     }
 
     /**
@@ -256,6 +296,75 @@ public class Screen extends Keyed {
         open(Guithium.api().getPlayerManager().get(player));
     }
 
+    /**
+     * Open this screen on many players' clients at once.
+     * <p>
+     * This works the same as {@link #open(WrappedPlayer)} for each player, except the
+     * screen is only encoded once for all players that negotiated the same settings.
+     *
+     * @param players Players to open screen for
+     */
+    public void open(@NotNull Collection<WrappedPlayer> players) {
+        OpenScreenPacket packet = new OpenScreenPacket(this);
+        Map<List<Object>, byte[]> encoded = new HashMap<>();
+        for (WrappedPlayer player : players) {
+            player.setCurrentScreen(this);
+            Connection connection = player.getConnection();
+            // these are the only settings that change how a packet is encoded
+            List<Object> settings = List.of(
+                    connection.getCodec(),
+                    connection.isCompressionEnabled(),
+                    connection.getPacketId(packet.getKey())
+            );
+            if (isCacheable(connection)) {
+                connection.getElementTracker().track(this);
+                connection.send(new OpenCachedScreenPacket(this));
+            } else {
+                connection.sendEncoded(encoded.computeIfAbsent(settings, k -> connection.encode(packet)));
+            }
+            for (Element element : this.elements) {
+                connection.getElementTracker().track(element);
+            }
+        }
+    }
+
+    /**
+     * Tell the player's client this screen is likely to be opened next.
+     * <p>
+     * The client starts loading the textures of this screen's images ahead of other
+     * preloaded textures, so they are ready when the screen is opened.
+     *
+     * @param player Player to prefetch for
+     */
+    public void prefetch(@NotNull WrappedPlayer player) {
+        Connection connection = player.getConnection();
+        if (!connection.getCapabilities().hasFeature(Capabilities.TEXTURE_PREFETCH)) {
+            return;
+        }
+        Set<Texture> textures = new LinkedHashSet<>();
+        for (Element element : this.elements) {
+            if (element instanceof Image image) {
+                textures.add(image.getTexture());
+            }
+        }
+        if (!textures.isEmpty()) {
+            connection.send(new PrefetchTexturesPacket(textures));
+        }
+    }
+
+    /**
+     * Tell the player's client this screen is likely to be opened next.
+     * <p>
+     * The client starts loading the textures of this screen's images ahead of other
+     * preloaded textures, so they are ready when the screen is opened.
+     *
+     * @param player Player to prefetch for
+     * @param <T>    Native player type
+     */
+    public <T> void prefetch(@NotNull T player) {
+        prefetch(Guithium.api().getPlayerManager().get(player));
+    }
+
     /**
      * Close this screen on player's client.
      * <p>
@@ -266,6 +375,7 @@ public class Screen extends Keyed {
      */
     public void close(@NotNull WrappedPlayer player) {
         player.setCurrentScreen(null);
+        player.getConnection().getElementTracker().untrack(getKey());
         player.getConnection().send(new CloseScreenPacket(getKey()));
     }
 
@@ -338,4 +448,89 @@ public class Screen extends Keyed {
         }
         return screen;
     }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out) {
+        Binary.writeKey(out, getKey());
+        out.writeByte((isHud() ? 1 : 0) | (isPreRender() ? 2 : 0));
+        Binary.writeVarInt(out, this.elements.size());
+        for (Element element : this.elements) {
+            element.write(out);
+        }
+    }
+
+    /**
+     * Get this screen encoded with a codec, as written in an {@link OpenScreenPacket}.
+     * <p>
+     * The result is cached until an element is added, removed or changed.
+     *
+     * @param codec Codec to encode with
+     * @return Encoded screen
+     */
+    public synchronized byte[] encode(@NotNull Codec codec) {
+        long versions = 0;
+        for (Element element : this.elements) {
+            versions += element.getVersion();
+        }
+        Encoded encoded = this.encoded.get(codec);
+        if (encoded != null && encoded.modCount() == this.modCount && encoded.versions() == versions) {
+            return encoded.data();
+        }
+        BufferOutput out = BufferPool.acquire();
+        if (codec == Codec.BINARY) {
+            write(out);
+        } else {
+            out.writeUTF(Gson.toJson(this));
+        }
+        byte[] data = out.toByteArray();
+        BufferPool.release(out);
+        this.encoded.put(codec, new Encoded(this.modCount, versions, data, null));
+        return data;
+    }
+
+    /**
+     * Get the content hash of this screen.
+     * <p>
+     * Clients that keep screens cached use this to tell if they already have this exact screen.
+     * The result is cached until an element is added, removed or changed.
+     *
+     * @return Hex encoded content hash
+     */
+    @NotNull
+    public synchronized String getHash() {
+        byte[] data = encode(Codec.BINARY);
+        Encoded encoded = this.encoded.get(Codec.BINARY);
+        if (encoded.hash() == null) {
+            encoded = new Encoded(encoded.modCount(), encoded.versions(), data, Hashing.sha256().hashBytes(data).toString());
+            this.encoded.put(Codec.BINARY, encoded);
+        }
+        return encoded.hash();
+    }
+
+    private boolean isCacheable(@NotNull Connection connection) {
+        return connection.getCodec() == Codec.BINARY
+                && connection.getCapabilities().hasFeature(Capabilities.SCREEN_CACHE)
+                && encode(Codec.BINARY).length >= CACHE_THRESHOLD;
+    }
+
+    /**
+     * Create a new screen from binary.
+     *
+     * @param in Binary representation of a screen
+     * @return A new screen
+     */
+    @NotNull
+    public static Screen read(@NotNull ByteArrayDataInput in) {
+        Key key = Binary.readKey(in);
+        int flags = in.readUnsignedByte();
+        Screen screen = new Screen(key, Binary.has(flags, 0), Binary.has(flags, 1));
+        int count = Binary.readVarInt(in);
+        for (int i = 0; i < count; i++) {
+            screen.addElement(Element.read(in));
+        }
+        return screen;
+    }
+
+    private record Encoded(int modCount, long versions, byte[] data, @Nullable String hash) {
+    }
 }
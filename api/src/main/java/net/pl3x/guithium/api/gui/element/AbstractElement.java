@@ -1,5 +1,7 @@
 package net.pl3x.guithium.api.gui.element;
 
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.util.Objects;
@@ -8,6 +10,7 @@ import net.pl3x.guithium.api.gui.Vec2;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
 import net.pl3x.guithium.api.key.Keyed;
+import net.pl3x.guithium.api.network.codec.Binary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -23,6 +26,9 @@ public abstract class AbstractElement<T extends AbstractElement<T>> extends Keye
     private Float rotation;
     private Float scale;
 
+    private final int[] changes = new int[5];
+    private int version;
+
     /**
      * Create a new keyed element.
      *
@@ -48,6 +54,7 @@ public abstract class AbstractElement<T extends AbstractElement<T>> extends Keye
     @NotNull
     public T setPos(@Nullable Vec2 pos) {
         this.pos = pos == Vec2.ZERO ? null : pos;
+        changed(this.changes, 0);
         return Unsafe.cast(this);
     }
 
@@ -67,6 +74,7 @@ public abstract class AbstractElement<T extends AbstractElement<T>> extends Keye
     @NotNull
     public T setAnchor(@Nullable Vec2 anchor) {
         this.anchor = anchor == Vec2.ZERO ? null : anchor;
+        changed(this.changes, 1);
         return Unsafe.cast(this);
     }
 
@@ -86,6 +94,7 @@ public abstract class AbstractElement<T extends AbstractElement<T>> extends Keye
     @NotNull
     public T setOffset(@Nullable Vec2 offset) {
         this.offset = offset == Vec2.ZERO ? null : offset;
+        changed(this.changes, 2);
         return Unsafe.cast(this);
     }
 
@@ -99,6 +108,7 @@ public abstract class AbstractElement<T extends AbstractElement<T>> extends Keye
     @NotNull
     public T setRotation(@Nullable Float degrees) {
         this.rotation = degrees;
+        changed(this.changes, 3);
         return Unsafe.cast(this);
     }
 
@@ -112,9 +122,25 @@ public abstract class AbstractElement<T extends AbstractElement<T>> extends Keye
     @NotNull
     public T setScale(@Nullable Float scale) {
         this.scale = scale;
+        changed(this.changes, 4);
         return Unsafe.cast(this);
     }
 
+    @Override
+    public int getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Mark a property as changed, so it gets included in the next patch.
+     *
+     * @param changes Change stamps of the properties
+     * @param field   Index of the changed property
+     */
+    protected void changed(int[] changes, int field) {
+        changes[field] = ++this.version;
+    }
+
     @Override
     public boolean equals(@Nullable Object obj) {
         if (!super.equals(obj)) {
@@ -166,4 +192,63 @@ public abstract class AbstractElement<T extends AbstractElement<T>> extends Keye
         element.setRotation(!json.has("rotation") ? null : json.get("rotation").getAsFloat());
         element.setScale(!json.has("scale") ? null : json.get("scale").getAsFloat());
     }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out) {
+        out.writeByte(Element.getType(this));
+        Binary.writeKey(out, getKey());
+        write(out, -1);
+    }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out, int since) {
+        int changed = Binary.changed(this.changes, since);
+        int present = Binary.mask(this.pos, this.anchor, this.offset, this.rotation, this.scale) & changed;
+        out.writeByte(changed);
+        out.writeByte(present);
+        if (Binary.has(present, 0)) {
+            Binary.writeVec2(out, this.pos);
+        }
+        if (Binary.has(present, 1)) {
+            Binary.writeVec2(out, this.anchor);
+        }
+        if (Binary.has(present, 2)) {
+            Binary.writeVec2(out, this.offset);
+        }
+        if (Binary.has(present, 3)) {
+            Binary.writeFloat(out, this.rotation);
+        }
+        if (Binary.has(present, 4)) {
+            Binary.writeFloat(out, this.scale);
+        }
+    }
+
+    /**
+     * Populate an abstract element from binary.
+     * <p>
+     * The type tag and key are expected to already be read. Only the properties
+     * marked as changed are touched, so this also applies patches.
+     *
+     * @param element An abstract element to populate
+     * @param in      Binary representation of an abstract element
+     */
+    public static void read(@NotNull AbstractElement<?> element, @NotNull ByteArrayDataInput in) {
+        int changed = in.readUnsignedByte();
+        int present = in.readUnsignedByte();
+        if (Binary.has(changed, 0)) {
+            element.setPos(!Binary.has(present, 0) ? null : Binary.readVec2(in));
+        }
+        if (Binary.has(changed, 1)) {
+            element.setAnchor(!Binary.has(present, 1) ? null : Binary.readVec2(in));
+        }
+        if (Binary.has(changed, 2)) {
+            element.setOffset(!Binary.has(present, 2) ? null : Binary.readVec2(in));
+        }
+        if (Binary.has(changed, 3)) {
+            element.setRotation(!Binary.has(present, 3) ? null : Binary.readFloat(in));
+        }
+        if (Binary.has(changed, 4)) {
+            element.setScale(!Binary.has(present, 4) ? null : Binary.readFloat(in));
+        }
+    }
 }
@@ -1,11 +1,13 @@
 package net.pl3x.guithium.api.gui.element;
 
 import com.google.common.base.Preconditions;
+import com.google.common.io.ByteArrayDataInput;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.util.Objects;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Binary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -103,4 +105,22 @@ public class Button extends LabeledRect<Button> implements ClickableElement<Butt
         LabeledRect.fromJson(button, json);
         return button;
     }
+
+    @Override
+    public void patch(@NotNull ByteArrayDataInput in) {
+        LabeledRect.read(this, in);
+    }
+
+    /**
+     * Create a new button from binary.
+     *
+     * @param in Binary representation of a button
+     * @return A new button
+     */
+    @NotNull
+    public static Button read(@NotNull ByteArrayDataInput in) {
+        Button button = new Button(Binary.readKey(in));
+        LabeledRect.read(button, in);
+        return button;
+    }
 }
@@ -1,11 +1,14 @@
 package net.pl3x.guithium.api.gui.element;
 
 import com.google.common.base.Preconditions;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.util.Objects;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Binary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -15,6 +18,8 @@ import org.jetbrains.annotations.Nullable;
 public class Checkbox extends LabeledRect<Checkbox> implements ValueElement<Checkbox, Boolean> {
     private Boolean value;
 
+    private final int[] changes = new int[1];
+
     private OnChange<Checkbox, Boolean> onChange = (screen, checkbox, player, value) -> {
     };
 
@@ -68,6 +73,7 @@ public class Checkbox extends LabeledRect<Checkbox> implements ValueElement<Chec
     @NotNull
     public Checkbox setValue(@NotNull Boolean value) {
         this.value = value;
+        changed(this.changes, 0);
         return this;
     }
 
@@ -127,4 +133,49 @@ public class Checkbox extends LabeledRect<Checkbox> implements ValueElement<Chec
         checkbox.setValue(json.has("value") && json.get("value").getAsBoolean());
         return checkbox;
     }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out, int since) {
+        super.write(out, since);
+        int changed = Binary.changed(this.changes, since);
+        int present = Binary.mask(this.value) & changed;
+        out.writeByte(changed);
+        out.writeByte(present);
+        if (Binary.has(present, 0)) {
+            out.writeBoolean(this.value);
+        }
+    }
+
+    @Override
+    public void patch(@NotNull ByteArrayDataInput in) {
+        read(this, in);
+    }
+
+    /**
+     * Create a new checkbox from binary.
+     *
+     * @param in Binary representation of a checkbox
+     * @return A new checkbox
+     */
+    @NotNull
+    public static Checkbox read(@NotNull ByteArrayDataInput in) {
+        Checkbox checkbox = new Checkbox(Binary.readKey(in));
+        read(checkbox, in);
+        return checkbox;
+    }
+
+    /**
+     * Populate a checkbox from binary.
+     *
+     * @param checkbox A checkbox to populate
+     * @param in       Binary representation of a checkbox
+     */
+    public static void read(@NotNull Checkbox checkbox, @NotNull ByteArrayDataInput in) {
+        LabeledRect.read(checkbox, in);
+        int changed = in.readUnsignedByte();
+        int present = in.readUnsignedByte();
+        if (Binary.has(changed, 0)) {
+            checkbox.setValue(Binary.has(present, 0) && in.readBoolean());
+        }
+    }
 }
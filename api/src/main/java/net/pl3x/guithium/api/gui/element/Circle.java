@@ -1,10 +1,13 @@
 package net.pl3x.guithium.api.gui.element;
 
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.util.Objects;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Binary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -17,6 +20,8 @@ public class Circle extends AbstractElement<Circle> {
     private int innerColor;
     private int outerColor;
 
+    private final int[] changes = new int[4];
+
     /**
      * Create a new circle element.
      *
@@ -80,6 +85,7 @@ public class Circle extends AbstractElement<Circle> {
     @NotNull
     public Circle setRadius(@Nullable Integer radius) {
         this.radius = radius;
+        changed(this.changes, 0);
         return this;
     }
 
@@ -106,6 +112,7 @@ public class Circle extends AbstractElement<Circle> {
     @NotNull
     public Circle setResolution(@Nullable Integer resolution) {
         this.resolution = resolution;
+        changed(this.changes, 1);
         return this;
     }
 
@@ -127,6 +134,7 @@ public class Circle extends AbstractElement<Circle> {
     @NotNull
     public Circle setInnerColor(int color) {
         this.innerColor = color;
+        changed(this.changes, 2);
         return this;
     }
 
@@ -148,6 +156,7 @@ public class Circle extends AbstractElement<Circle> {
     @NotNull
     public Circle setOuterColor(int color) {
         this.outerColor = color;
+        changed(this.changes, 3);
         return this;
     }
 
@@ -216,4 +225,67 @@ public class Circle extends AbstractElement<Circle> {
         circle.setOuterColor(!json.has("outerColor") ? 0 : json.get("outerColor").getAsInt());
         return circle;
     }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out, int since) {
+        super.write(out, since);
+        int changed = Binary.changed(this.changes, since);
+        int present = Binary.mask(this.radius, this.resolution, this.innerColor, this.outerColor) & changed;
+        out.writeByte(changed);
+        out.writeByte(present);
+        if (Binary.has(present, 0)) {
+            Binary.writeVarInt(out, this.radius);
+        }
+        if (Binary.has(present, 1)) {
+            Binary.writeVarInt(out, this.resolution);
+        }
+        if (Binary.has(present, 2)) {
+            Binary.writeColor(out, this.innerColor);
+        }
+        if (Binary.has(present, 3)) {
+            Binary.writeColor(out, this.outerColor);
+        }
+    }
+
+    @Override
+    public void patch(@NotNull ByteArrayDataInput in) {
+        read(this, in);
+    }
+
+    /**
+     * Create a new circle from binary.
+     *
+     * @param in Binary representation of a circle
+     * @return A new circle
+     */
+    @NotNull
+    public static Circle read(@NotNull ByteArrayDataInput in) {
+        Circle circle = new Circle(Binary.readKey(in));
+        read(circle, in);
+        return circle;
+    }
+
+    /**
+     * Populate a circle from binary.
+     *
+     * @param circle A circle to populate
+     * @param in     Binary representation of a circle
+     */
+    public static void read(@NotNull Circle circle, @NotNull ByteArrayDataInput in) {
+        AbstractElement.read(circle, in);
+        int changed = in.readUnsignedByte();
+        int present = in.readUnsignedByte();
+        if (Binary.has(changed, 0)) {
+            circle.setRadius(!Binary.has(present, 0) ? null : Binary.readVarInt(in));
+        }
+        if (Binary.has(changed, 1)) {
+            circle.setResolution(!Binary.has(present, 1) ? null : Binary.readVarInt(in));
+        }
+        if (Binary.has(changed, 2)) {
+            circle.setInnerColor(Binary.readColor(in));
+        }
+        if (Binary.has(changed, 3)) {
+            circle.setOuterColor(Binary.readColor(in));
+        }
+    }
 }
@@ -1,11 +1,17 @@
 package net.pl3x.guithium.api.gui.element;
 
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonObject;
 import net.pl3x.guithium.api.Guithium;
 import net.pl3x.guithium.api.gui.Vec2;
 import net.pl3x.guithium.api.json.JsonSerializable;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.Connection;
+import net.pl3x.guithium.api.network.codec.BinarySerializable;
+import net.pl3x.guithium.api.network.codec.Codec;
 import net.pl3x.guithium.api.network.packet.ElementPacket;
+import net.pl3x.guithium.api.network.packet.ElementPatchPacket;
 import net.pl3x.guithium.api.player.WrappedPlayer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -13,7 +19,7 @@ import org.jetbrains.annotations.Nullable;
 /**
  * Represents an element.
  */
-public interface Element extends JsonSerializable {
+public interface Element extends JsonSerializable, BinarySerializable {
     /**
      * Get identifying key.
      *
@@ -163,15 +169,48 @@ public interface Element extends JsonSerializable {
     @NotNull
     Element setScale(@Nullable Float scale);
 
+    /**
+     * Get the version of this element.
+     * <p>
+     * The version goes up every time a property of this element changes.
+     *
+     * @return Element version
+     */
+    int getVersion();
+
+    /**
+     * Write the properties of this element that changed after a version.
+     *
+     * @param out   Output to write to
+     * @param since Version to compare against, or <code>-1</code> for all properties
+     */
+    void write(@NotNull ByteArrayDataOutput out, int since);
+
+    /**
+     * Apply properties written by {@link #write(ByteArrayDataOutput, int)} to this element.
+     *
+     * @param in Input to read from
+     */
+    void patch(@NotNull ByteArrayDataInput in);
+
     /**
      * Send this element to a player.
      * <p>
      * If the player already has this element, it will be updated on the screen. Otherwise, it will be ignored.
+     * <p>
+     * When the player already received this element, only the properties that changed since are sent.
      *
      * @param player Player to send to
      */
     default void send(@NotNull WrappedPlayer player) {
-        player.getConnection().send(new ElementPacket(this));
+        Connection connection = player.getConnection();
+        int since = connection.getElementTracker().getVersion(this);
+        if (since < 0 || connection.getCodec() != Codec.BINARY) {
+            connection.send(new ElementPacket(this));
+        } else if (since != getVersion()) {
+            connection.send(new ElementPatchPacket(this, since));
+        }
+        connection.getElementTracker().track(this);
     }
 
     /**
@@ -212,4 +251,53 @@ public interface Element extends JsonSerializable {
             default -> throw new IllegalStateException("Unexpected value: " + type);
         };
     }
+
+    /**
+     * Get the binary type tag of an element.
+     *
+     * @param element Element to get type tag of
+     * @return Binary type tag
+     * @throws IllegalStateException if element is not a known type
+     */
+    static int getType(@NotNull Element element) {
+        String type = element.getClass().getSimpleName();
+        return switch (type) {
+            case "Button" -> 0;
+            case "Checkbox" -> 1;
+            case "Circle" -> 2;
+            case "Gradient" -> 3;
+            case "Image" -> 4;
+            case "Line" -> 5;
+            case "Radio" -> 6;
+            case "Slider" -> 7;
+            case "Text" -> 8;
+            case "Textbox" -> 9;
+            default -> throw new IllegalStateException("Unexpected value: " + type);
+        };
+    }
+
+    /**
+     * Create an element object from binary representation.
+     *
+     * @param in Binary representation
+     * @return A new element object
+     * @throws IllegalStateException if invalid type
+     */
+    @NotNull
+    static Element read(@NotNull ByteArrayDataInput in) {
+        int type = in.readUnsignedByte();
+        return switch (type) {
+            case 0 -> Button.read(in);
+            case 1 -> Checkbox.read(in);
+            case 2 -> Circle.read(in);
+            case 3 -> Gradient.read(in);
+            case 4 -> Image.read(in);
+            case 5 -> Line.read(in);
+            case 6 -> Radio.read(in);
+            case 7 -> Slider.read(in);
+            case 8 -> Text.read(in);
+            case 9 -> Textbox.read(in);
+            default -> throw new IllegalStateException("Unexpected value: " + type);
+        };
+    }
 }
@@ -1,5 +1,7 @@
 package net.pl3x.guithium.api.gui.element;
 
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -10,6 +12,7 @@ import net.pl3x.guithium.api.Guithium;
 import net.pl3x.guithium.api.gui.Vec2;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Binary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -26,6 +29,8 @@ public class Gradient extends Rect<Gradient> {
 
     private final int[] color = new int[]{0, 0, 0, 0};
 
+    private final int[] changes = new int[4];
+
     /**
      * Create a new gradient element.
      *
@@ -95,6 +100,7 @@ public class Gradient extends Rect<Gradient> {
     @NotNull
     public Gradient setColorTopLeft(int color) {
         this.color[0] = color;
+        changed(this.changes, 0);
         return this;
     }
 
@@ -116,6 +122,7 @@ public class Gradient extends Rect<Gradient> {
     @NotNull
     public Gradient setColorBottomLeft(int color) {
         this.color[1] = color;
+        changed(this.changes, 1);
         return this;
     }
 
@@ -137,6 +144,7 @@ public class Gradient extends Rect<Gradient> {
     @NotNull
     public Gradient setColorBottomRight(int color) {
         this.color[2] = color;
+        changed(this.changes, 2);
         return this;
     }
 
@@ -158,6 +166,7 @@ public class Gradient extends Rect<Gradient> {
     @NotNull
     public Gradient setColorTopRight(int color) {
         this.color[3] = color;
+        changed(this.changes, 3);
         return this;
     }
 
@@ -274,4 +283,64 @@ public class Gradient extends Rect<Gradient> {
         }
         return gradient;
     }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out, int since) {
+        super.write(out, since);
+        int changed = Binary.changed(this.changes, since);
+        out.writeByte(changed);
+        if (Binary.has(changed, 0)) {
+            Binary.writeColor(out, this.color[0]);
+        }
+        if (Binary.has(changed, 1)) {
+            Binary.writeColor(out, this.color[1]);
+        }
+        if (Binary.has(changed, 2)) {
+            Binary.writeColor(out, this.color[2]);
+        }
+        if (Binary.has(changed, 3)) {
+            Binary.writeColor(out, this.color[3]);
+        }
+    }
+
+    @Override
+    public void patch(@NotNull ByteArrayDataInput in) {
+        read(this, in);
+    }
+
+    /**
+     * Create a new gradient from binary.
+     *
+     * @param in Binary representation of a gradient
+     * @return A new gradient
+     */
+    @NotNull
+    public static Gradient read(@NotNull ByteArrayDataInput in) {
+        Gradient gradient = new Gradient(Binary.readKey(in));
+        read(gradient, in);
+        return gradient;
+    }
+
+    /**
+     * Populate a gradient from binary.
+     *
+     * @param gradient A gradient to populate
+     * @param in       Binary representation of a gradient
+     */
+    public static void read(@NotNull Gradient gradient, @NotNull ByteArrayDataInput in) {
+        Rect.read(gradient, in);
+        int changed = in.readUnsignedByte();
+        if (Binary.has(changed, 0)) {
+            gradient.setColorTopLeft(Binary.readColor(in));
+        }
+        if (Binary.has(changed, 1)) {
+            gradient.setColorBottomLeft(Binary.readColor(in));
+        }
+        if (Binary.has(changed, 2)) {
+            gradient.setColorBottomRight(Binary.readColor(in));
+        }
+        if (Binary.has(changed, 3)) {
+            gradient.setColorTopRight(Binary.readColor(in));
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package net.pl3x.guithium.api.gui.element;
 
 import com.google.common.base.Preconditions;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.util.Objects;
@@ -9,6 +11,7 @@ import net.pl3x.guithium.api.gui.Vec4;
 import net.pl3x.guithium.api.gui.texture.Texture;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Binary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -25,6 +28,8 @@ public class Image extends Rect<Image> {
             .setTileModifier(32.0F);
 
     private Texture texture;
+
+    private final int[] changes = new int[4];
     private Vec4 uv;
     private Integer vertex;
     private Float tile;
@@ -89,6 +94,7 @@ public class Image extends Rect<Image> {
     public Image setTexture(@NotNull Texture texture) {
         Preconditions.checkNotNull(texture, "Texture cannot be null");
         this.texture = texture;
+        changed(this.changes, 0);
         return this;
     }
 
@@ -115,6 +121,7 @@ public class Image extends Rect<Image> {
     @NotNull
     public Image setUV(@Nullable Vec4 uv) {
         this.uv = uv;
+        changed(this.changes, 1);
         return this;
     }
 
@@ -151,6 +158,7 @@ public class Image extends Rect<Image> {
     @NotNull
     public Image setVertexColor(@Nullable Integer color) {
         this.vertex = color;
+        changed(this.changes, 2);
         return this;
     }
 
@@ -189,6 +197,7 @@ public class Image extends Rect<Image> {
     @NotNull
     public Image setTileModifier(@Nullable Float tile) {
         this.tile = tile;
+        changed(this.changes, 3);
         return this;
     }
 
@@ -240,8 +249,72 @@ public class Image extends Rect<Image> {
         Rect.fromJson(image, json);
         image.setTexture(Texture.fromJson(json.get("texture").getAsJsonObject()));
         image.setUV(!json.has("uv") ? null : Vec4.fromJson(json.get("uv").getAsJsonObject()));
-        image.setVertexColor(!json.has("vertex") ? null : json.get("vertex").getAsInt());
-        image.setTileModifier(!json.has("tile") ? null : json.get("tile").getAsFloat());
+        image.setVertexColor(!json.has("vertexColor") ? null : json.get("vertexColor").getAsInt());
+        image.setTileModifier(!json.has("tileMod") ? null : json.get("tileMod").getAsFloat());
+        return image;
+    }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out, int since) {
+        super.write(out, since);
+        int changed = Binary.changed(this.changes, since);
+        int present = Binary.mask(this.texture, this.uv, this.vertex, this.tile) & changed;
+        out.writeByte(changed);
+        out.writeByte(present);
+        if (Binary.has(present, 0)) {
+            this.texture.write(out);
+        }
+        if (Binary.has(present, 1)) {
+            Binary.writeVec4(out, this.uv);
+        }
+        if (Binary.has(present, 2)) {
+            Binary.writeColor(out, this.vertex);
+        }
+        if (Binary.has(present, 3)) {
+            Binary.writeFloat(out, this.tile);
+        }
+    }
+
+    @Override
+    public void patch(@NotNull ByteArrayDataInput in) {
+        read(this, in);
+    }
+
+    /**
+     * Create a new image from binary.
+     *
+     * @param in Binary representation of an image
+     * @return A new image
+     */
+    @NotNull
+    public static Image read(@NotNull ByteArrayDataInput in) {
+        Image image = new Image(Binary.readKey(in));
+        read(image, in);
         return image;
     }
+
+    /**
+     * Populate an image from binary.
+     *
+     * @param image An image to populate
+     * @param in    Binary representation of an image
+     */
+    public static void read(@NotNull Image image, @NotNull ByteArrayDataInput in) {
+        Rect.read(image, in);
+        int changed = in.readUnsignedByte();
+        int present = in.readUnsignedByte();
+        if (Binary.has(changed, 0)) {
+            Preconditions.checkArgument(Binary.has(present, 0), "Texture cannot be null");
+            image.setTexture(Texture.read(in));
+        }
+        if (Binary.has(changed, 1)) {
+            image.setUV(!Binary.has(present, 1) ? null : Binary.readVec4(in));
+        }
+        if (Binary.has(changed, 2)) {
+            image.setVertexColor(!Binary.has(present, 2) ? null : Binary.readColor(in));
+        }
+        if (Binary.has(changed, 3)) {
+            image.setTileModifier(!Binary.has(present, 3) ? null : Binary.readFloat(in));
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package net.pl3x.guithium.api.gui.element;
 
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.util.Objects;
@@ -8,6 +10,7 @@ import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.pl3x.guithium.api.Unsafe;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Binary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -20,6 +23,8 @@ public abstract class LabeledRect<T extends LabeledRect<T>> extends Rect<T> {
     private Component label;
     private Component tooltip;
 
+    private final int[] changes = new int[2];
+
     /**
      * Create a new checkbox element.
      *
@@ -65,6 +70,7 @@ public abstract class LabeledRect<T extends LabeledRect<T>> extends Rect<T> {
     @NotNull
     public T setLabel(@Nullable Component label) {
         this.label = label;
+        changed(this.changes, 0);
         return Unsafe.cast(this);
     }
 
@@ -104,6 +110,7 @@ public abstract class LabeledRect<T extends LabeledRect<T>> extends Rect<T> {
     @NotNull
     public T setTooltip(@Nullable Component tooltip) {
         this.tooltip = tooltip;
+        changed(this.changes, 1);
         return Unsafe.cast(this);
     }
 
@@ -146,4 +153,37 @@ public abstract class LabeledRect<T extends LabeledRect<T>> extends Rect<T> {
         element.setLabel(!json.has("label") ? null : GsonComponentSerializer.gson().deserialize(json.get("label").getAsString()));
         element.setTooltip(!json.has("tooltip") ? null : GsonComponentSerializer.gson().deserialize(json.get("tooltip").getAsString()));
     }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out, int since) {
+        super.write(out, since);
+        int changed = Binary.changed(this.changes, since);
+        int present = Binary.mask(this.label, this.tooltip) & changed;
+        out.writeByte(changed);
+        out.writeByte(present);
+        if (Binary.has(present, 0)) {
+            Binary.writeComponent(out, this.label);
+        }
+        if (Binary.has(present, 1)) {
+            Binary.writeComponent(out, this.tooltip);
+        }
+    }
+
+    /**
+     * Populate a labeled rectangle from binary.
+     *
+     * @param element A labeled rectangle to populate
+     * @param in      Binary representation of a labeled rectangle
+     */
+    public static void read(@NotNull LabeledRect<?> element, @NotNull ByteArrayDataInput in) {
+        Rect.read(element, in);
+        int changed = in.readUnsignedByte();
+        int present = in.readUnsignedByte();
+        if (Binary.has(changed, 0)) {
+            element.setLabel(!Binary.has(present, 0) ? null : Binary.readComponent(in));
+        }
+        if (Binary.has(changed, 1)) {
+            element.setTooltip(!Binary.has(present, 1) ? null : Binary.readComponent(in));
+        }
+    }
 }
@@ -1,11 +1,14 @@
 package net.pl3x.guithium.api.gui.element;
 
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.util.Objects;
 import net.pl3x.guithium.api.gui.Vec2;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Binary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -20,6 +23,8 @@ public class Line extends AbstractElement<Line> {
     private int startColor;
     private int endColor;
 
+    private final int[] changes = new int[6];
+
     /**
      * Create a new line element.
      *
@@ -91,6 +96,7 @@ public class Line extends AbstractElement<Line> {
     @NotNull
     public Line setEndPos(@Nullable Vec2 pos) {
         this.endPos = pos == Vec2.ZERO ? null : pos;
+        changed(this.changes, 0);
         return this;
     }
 
@@ -131,6 +137,7 @@ public class Line extends AbstractElement<Line> {
     @NotNull
     public Line setEndAnchor(@Nullable Vec2 anchor) {
         this.endAnchor = anchor == Vec2.ZERO ? null : anchor;
+        changed(this.changes, 1);
         return this;
     }
 
@@ -171,6 +178,7 @@ public class Line extends AbstractElement<Line> {
     @NotNull
     public Line setEndOffset(@Nullable Vec2 offset) {
         this.endOffset = offset == Vec2.ZERO ? null : offset;
+        changed(this.changes, 2);
         return this;
     }
 
@@ -193,6 +201,7 @@ public class Line extends AbstractElement<Line> {
     @NotNull
     public Line setWidth(@Nullable Integer width) {
         this.width = width;
+        changed(this.changes, 3);
         return this;
     }
 
@@ -214,6 +223,7 @@ public class Line extends AbstractElement<Line> {
     @NotNull
     public Line setStartColor(int color) {
         this.startColor = color;
+        changed(this.changes, 4);
         return this;
     }
 
@@ -235,6 +245,7 @@ public class Line extends AbstractElement<Line> {
     @NotNull
     public Line setEndColor(int color) {
         this.endColor = color;
+        changed(this.changes, 5);
         return this;
     }
 
@@ -311,4 +322,80 @@ public class Line extends AbstractElement<Line> {
         line.setEndColor(!json.has("endColor") ? 0 : json.get("endColor").getAsInt());
         return line;
     }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out, int since) {
+        super.write(out, since);
+        int changed = Binary.changed(this.changes, since);
+        int present = Binary.mask(this.endPos, this.endAnchor, this.endOffset, this.width,
+                this.startColor, this.endColor) & changed;
+        out.writeByte(changed);
+        out.writeByte(present);
+        if (Binary.has(present, 0)) {
+            Binary.writeVec2(out, this.endPos);
+        }
+        if (Binary.has(present, 1)) {
+            Binary.writeVec2(out, this.endAnchor);
+        }
+        if (Binary.has(present, 2)) {
+            Binary.writeVec2(out, this.endOffset);
+        }
+        if (Binary.has(present, 3)) {
+            Binary.writeVarInt(out, this.width);
+        }
+        if (Binary.has(present, 4)) {
+            Binary.writeColor(out, this.startColor);
+        }
+        if (Binary.has(present, 5)) {
+            Binary.writeColor(out, this.endColor);
+        }
+    }
+
+    @Override
+    public void patch(@NotNull ByteArrayDataInput in) {
+        read(this, in);
+    }
+
+    /**
+     * Create a new line from binary.
+     *
+     * @param in Binary representation of a line
+     * @return A new line
+     */
+    @NotNull
+    public static Line read(@NotNull ByteArrayDataInput in) {
+        Line line = new Line(Binary.readKey(in));
+        read(line, in);
+        return line;
+    }
+
+    /**
+     * Populate a line from binary.
+     *
+     * @param line A line to populate
+     * @param in   Binary representation of a line
+     */
+    public static void read(@NotNull Line line, @NotNull ByteArrayDataInput in) {
+        AbstractElement.read(line, in);
+        int changed = in.readUnsignedByte();
+        int present = in.readUnsignedByte();
+        if (Binary.has(changed, 0)) {
+            line.setEndPos(!Binary.has(present, 0) ? null : Binary.readVec2(in));
+        }
+        if (Binary.has(changed, 1)) {
+            line.setEndAnchor(!Binary.has(present, 1) ? null : Binary.readVec2(in));
+        }
+        if (Binary.has(changed, 2)) {
+            line.setEndOffset(!Binary.has(present, 2) ? null : Binary.readVec2(in));
+        }
+        if (Binary.has(changed, 3)) {
+            line.setWidth(!Binary.has(present, 3) ? null : Binary.readVarInt(in));
+        }
+        if (Binary.has(changed, 4)) {
+            line.setStartColor(Binary.readColor(in));
+        }
+        if (Binary.has(changed, 5)) {
+            line.setEndColor(Binary.readColor(in));
+        }
+    }
 }
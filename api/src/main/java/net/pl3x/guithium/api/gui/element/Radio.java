@@ -1,11 +1,14 @@
 package net.pl3x.guithium.api.gui.element;
 
 import com.google.common.base.Preconditions;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.util.Objects;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Binary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -16,6 +19,8 @@ public class Radio extends LabeledRect<Radio> implements ValueElement<Radio, Boo
     private Key group;
     private Boolean value;
 
+    private final int[] changes = new int[2];
+
     private OnChange<Radio, Boolean> onChange = (screen, radio, player, value) -> {
     };
 
@@ -86,6 +91,7 @@ public class Radio extends LabeledRect<Radio> implements ValueElement<Radio, Boo
     @NotNull
     public Radio setGroup(@Nullable Key group) {
         this.group = group;
+        changed(this.changes, 0);
         return this;
     }
 
@@ -99,6 +105,7 @@ public class Radio extends LabeledRect<Radio> implements ValueElement<Radio, Boo
     @NotNull
     public Radio setValue(@NotNull Boolean value) {
         this.value = value;
+        changed(this.changes, 1);
         return this;
     }
 
@@ -160,4 +167,55 @@ public class Radio extends LabeledRect<Radio> implements ValueElement<Radio, Boo
         radio.setValue(json.has("value") && json.get("value").getAsBoolean());
         return radio;
     }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out, int since) {
+        super.write(out, since);
+        int changed = Binary.changed(this.changes, since);
+        int present = Binary.mask(this.group, this.value) & changed;
+        out.writeByte(changed);
+        out.writeByte(present);
+        if (Binary.has(present, 0)) {
+            Binary.writeKey(out, this.group);
+        }
+        if (Binary.has(present, 1)) {
+            out.writeBoolean(this.value);
+        }
+    }
+
+    @Override
+    public void patch(@NotNull ByteArrayDataInput in) {
+        read(this, in);
+    }
+
+    /**
+     * Create a new radio button from binary.
+     *
+     * @param in Binary representation of a radio button
+     * @return A new radio button
+     */
+    @NotNull
+    public static Radio read(@NotNull ByteArrayDataInput in) {
+        Radio radio = new Radio(Binary.readKey(in));
+        read(radio, in);
+        return radio;
+    }
+
+    /**
+     * Populate a radio button from binary.
+     *
+     * @param radio A radio button to populate
+     * @param in    Binary representation of a radio button
+     */
+    public static void read(@NotNull Radio radio, @NotNull ByteArrayDataInput in) {
+        LabeledRect.read(radio, in);
+        int changed = in.readUnsignedByte();
+        int present = in.readUnsignedByte();
+        if (Binary.has(changed, 0)) {
+            radio.setGroup(!Binary.has(present, 0) ? null : Binary.readKey(in));
+        }
+        if (Binary.has(changed, 1)) {
+            radio.setValue(Binary.has(present, 1) && in.readBoolean());
+        }
+    }
 }
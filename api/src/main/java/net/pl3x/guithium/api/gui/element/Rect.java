@@ -1,5 +1,7 @@
 package net.pl3x.guithium.api.gui.element;
 
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.util.Objects;
@@ -7,6 +9,7 @@ import net.pl3x.guithium.api.Unsafe;
 import net.pl3x.guithium.api.gui.Vec2;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Binary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -18,6 +21,8 @@ import org.jetbrains.annotations.Nullable;
 public abstract class Rect<T extends Rect<T>> extends AbstractElement<T> {
     private Vec2 size;
 
+    private final int[] changes = new int[1];
+
     /**
      * Create a new rect-type element.
      *
@@ -58,6 +63,7 @@ public abstract class Rect<T extends Rect<T>> extends AbstractElement<T> {
     @NotNull
     public T setSize(@Nullable Vec2 size) {
         this.size = size == Vec2.ZERO ? null : size;
+        changed(this.changes, 0);
         return Unsafe.cast(this);
     }
 
@@ -96,4 +102,31 @@ public abstract class Rect<T extends Rect<T>> extends AbstractElement<T> {
         AbstractElement.fromJson(element, json);
         element.setSize(!json.has("size") ? null : Vec2.fromJson(json.get("size").getAsJsonObject()));
     }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out, int since) {
+        super.write(out, since);
+        int changed = Binary.changed(this.changes, since);
+        int present = Binary.mask(this.size) & changed;
+        out.writeByte(changed);
+        out.writeByte(present);
+        if (Binary.has(present, 0)) {
+            Binary.writeVec2(out, this.size);
+        }
+    }
+
+    /**
+     * Populate a rectangle from binary.
+     *
+     * @param element A rectangle to populate
+     * @param in      Binary representation of a rectangle
+     */
+    public static void read(@NotNull Rect<?> element, @NotNull ByteArrayDataInput in) {
+        AbstractElement.read(element, in);
+        int changed = in.readUnsignedByte();
+        int present = in.readUnsignedByte();
+        if (Binary.has(changed, 0)) {
+            element.setSize(!Binary.has(present, 0) ? null : Binary.readVec2(in));
+        }
+    }
 }
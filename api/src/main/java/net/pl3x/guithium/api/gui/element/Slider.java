@@ -1,11 +1,14 @@
 package net.pl3x.guithium.api.gui.element;
 
 import com.google.common.base.Preconditions;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.util.Objects;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Binary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -13,10 +16,18 @@ import org.jetbrains.annotations.Nullable;
  * Represents a slider element.
  */
 public class Slider extends LabeledRect<Slider> implements ValueElement<Slider, Double> {
+    /**
+     * Default number of ticks between value changes sent by the client.
+     */
+    public static final int DEFAULT_UPDATE_INTERVAL = 2;
+
     private Double value;
     private Double min;
     private Double max;
     private String decimal;
+    private Integer updateInterval;
+
+    private final int[] changes = new int[5];
 
     private OnChange<Slider, Double> onChange = (screen, slider, player, value) -> {
     };
@@ -84,6 +95,7 @@ public class Slider extends LabeledRect<Slider> implements ValueElement<Slider,
     @NotNull
     public Slider setMin(@Nullable Double min) {
         this.min = min;
+        changed(this.changes, 1);
         return this;
     }
 
@@ -110,6 +122,7 @@ public class Slider extends LabeledRect<Slider> implements ValueElement<Slider,
     @NotNull
     public Slider setMax(@Nullable Double max) {
         this.max = max;
+        changed(this.changes, 2);
         return this;
     }
 
@@ -138,6 +151,40 @@ public class Slider extends LabeledRect<Slider> implements ValueElement<Slider,
     @NotNull
     public Slider setDecimalFormat(@Nullable String decimal) {
         this.decimal = decimal;
+        changed(this.changes, 3);
+        return this;
+    }
+
+    /**
+     * Get the number of ticks the client waits between sending value changes of this slider.
+     * <p>
+     * Changes made in between are merged and only the latest value is sent. The final value is
+     * always sent right away when the player lets go of the slider.
+     * <p>
+     * If null, default interval of <code>{@value #DEFAULT_UPDATE_INTERVAL}</code> ticks will be used.
+     *
+     * @return Update interval in ticks
+     */
+    @Nullable
+    public Integer getUpdateInterval() {
+        return this.updateInterval;
+    }
+
+    /**
+     * Set the number of ticks the client waits between sending value changes of this slider.
+     * <p>
+     * Changes made in between are merged and only the latest value is sent. The final value is
+     * always sent right away when the player lets go of the slider. Use <code>0</code> to send every change.
+     * <p>
+     * If null, default interval of <code>{@value #DEFAULT_UPDATE_INTERVAL}</code> ticks will be used.
+     *
+     * @param interval Update interval in ticks
+     * @return This slider
+     */
+    @NotNull
+    public Slider setUpdateInterval(@Nullable Integer interval) {
+        this.updateInterval = interval;
+        changed(this.changes, 4);
         return this;
     }
 
@@ -151,6 +198,7 @@ public class Slider extends LabeledRect<Slider> implements ValueElement<Slider,
     @NotNull
     public Slider setValue(@NotNull Double value) {
         this.value = value;
+        changed(this.changes, 0);
         return this;
     }
 
@@ -177,6 +225,7 @@ public class Slider extends LabeledRect<Slider> implements ValueElement<Slider,
                 && Objects.equals(getMin(), other.getMin())
                 && Objects.equals(getMax(), other.getMax())
                 && Objects.equals(getDecimalFormat(), other.getDecimalFormat())
+                && Objects.equals(getUpdateInterval(), other.getUpdateInterval())
                 && Objects.equals(onChange(), other.onChange());
     }
 
@@ -188,6 +237,7 @@ public class Slider extends LabeledRect<Slider> implements ValueElement<Slider,
                 getMin(),
                 getMax(),
                 getDecimalFormat(),
+                getUpdateInterval(),
                 onChange()
         );
     }
@@ -200,6 +250,7 @@ public class Slider extends LabeledRect<Slider> implements ValueElement<Slider,
         json.addProperty("min", getMin());
         json.addProperty("max", getMax());
         json.addProperty("decimal", getDecimalFormat());
+        json.addProperty("updateInterval", getUpdateInterval());
         return json.getJsonObject();
     }
 
@@ -218,6 +269,76 @@ public class Slider extends LabeledRect<Slider> implements ValueElement<Slider,
         slider.setMin(!json.has("min") ? 0D : json.get("min").getAsDouble());
         slider.setMax(!json.has("max") ? 1D : json.get("max").getAsDouble());
         slider.setDecimalFormat(!json.has("decimal") ? null : json.get("decimal").getAsString());
+        slider.setUpdateInterval(!json.has("updateInterval") ? null : json.get("updateInterval").getAsInt());
         return slider;
     }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out, int since) {
+        super.write(out, since);
+        int changed = Binary.changed(this.changes, since);
+        int present = Binary.mask(this.value, this.min, this.max, this.decimal, this.updateInterval) & changed;
+        out.writeByte(changed);
+        out.writeByte(present);
+        if (Binary.has(present, 0)) {
+            out.writeDouble(this.value);
+        }
+        if (Binary.has(present, 1)) {
+            out.writeDouble(this.min);
+        }
+        if (Binary.has(present, 2)) {
+            out.writeDouble(this.max);
+        }
+        if (Binary.has(present, 3)) {
+            Binary.writeString(out, this.decimal);
+        }
+        if (Binary.has(present, 4)) {
+            Binary.writeVarInt(out, this.updateInterval);
+        }
+    }
+
+    @Override
+    public void patch(@NotNull ByteArrayDataInput in) {
+        read(this, in);
+    }
+
+    /**
+     * Create a new slider from binary.
+     *
+     * @param in Binary representation of a slider
+     * @return A new slider
+     */
+    @NotNull
+    public static Slider read(@NotNull ByteArrayDataInput in) {
+        Slider slider = new Slider(Binary.readKey(in));
+        read(slider, in);
+        return slider;
+    }
+
+    /**
+     * Populate a slider from binary.
+     *
+     * @param slider A slider to populate
+     * @param in     Binary representation of a slider
+     */
+    public static void read(@NotNull Slider slider, @NotNull ByteArrayDataInput in) {
+        LabeledRect.read(slider, in);
+        int changed = in.readUnsignedByte();
+        int present = in.readUnsignedByte();
+        if (Binary.has(changed, 0)) {
+            slider.setValue(!Binary.has(present, 0) ? 0D : in.readDouble());
+        }
+        if (Binary.has(changed, 1)) {
+            slider.setMin(!Binary.has(present, 1) ? 0D : in.readDouble());
+        }
+        if (Binary.has(changed, 2)) {
+            slider.setMax(!Binary.has(present, 2) ? 1D : in.readDouble());
+        }
+        if (Binary.has(changed, 3)) {
+            slider.setDecimalFormat(!Binary.has(present, 3) ? null : Binary.readString(in));
+        }
+        if (Binary.has(changed, 4)) {
+            slider.setUpdateInterval(!Binary.has(present, 4) ? null : Binary.readVarInt(in));
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package net.pl3x.guithium.api.gui.element;
 
 import com.google.common.base.Preconditions;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.util.Objects;
@@ -8,6 +10,7 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Binary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -18,6 +21,8 @@ public class Text extends AbstractElement<Text> {
     private Component text;
     private Boolean shadow;
 
+    private final int[] changes = new int[2];
+
     /**
      * Create a new text element.
      *
@@ -77,6 +82,7 @@ public class Text extends AbstractElement<Text> {
     @NotNull
     public Text setText(@Nullable Component text) {
         this.text = text;
+        changed(this.changes, 0);
         return this;
     }
 
@@ -99,6 +105,7 @@ public class Text extends AbstractElement<Text> {
     @NotNull
     public Text setShadow(@Nullable Boolean shadow) {
         this.shadow = shadow;
+        changed(this.changes, 1);
         return this;
     }
 
@@ -145,4 +152,55 @@ public class Text extends AbstractElement<Text> {
         text.setShadow(!json.has("shadow") ? null : json.get("shadow").getAsBoolean());
         return text;
     }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out, int since) {
+        super.write(out, since);
+        int changed = Binary.changed(this.changes, since);
+        int present = Binary.mask(this.text, this.shadow) & changed;
+        out.writeByte(changed);
+        out.writeByte(present);
+        if (Binary.has(present, 0)) {
+            Binary.writeComponent(out, this.text);
+        }
+        if (Binary.has(present, 1)) {
+            out.writeBoolean(this.shadow);
+        }
+    }
+
+    @Override
+    public void patch(@NotNull ByteArrayDataInput in) {
+        read(this, in);
+    }
+
+    /**
+     * Create a new text element from binary.
+     *
+     * @param in Binary representation of a text element
+     * @return A new text element
+     */
+    @NotNull
+    public static Text read(@NotNull ByteArrayDataInput in) {
+        Text text = new Text(Binary.readKey(in));
+        read(text, in);
+        return text;
+    }
+
+    /**
+     * Populate a text element from binary.
+     *
+     * @param text A text element to populate
+     * @param in   Binary representation of a text element
+     */
+    public static void read(@NotNull Text text, @NotNull ByteArrayDataInput in) {
+        AbstractElement.read(text, in);
+        int changed = in.readUnsignedByte();
+        int present = in.readUnsignedByte();
+        if (Binary.has(changed, 0)) {
+            text.setText(!Binary.has(present, 0) ? null : Binary.readComponent(in));
+        }
+        if (Binary.has(changed, 1)) {
+            text.setShadow(!Binary.has(present, 1) ? null : in.readBoolean());
+        }
+    }
 }
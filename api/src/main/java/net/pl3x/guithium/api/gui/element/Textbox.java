@@ -1,6 +1,8 @@
 package net.pl3x.guithium.api.gui.element;
 
 import com.google.common.base.Preconditions;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import java.util.Objects;
@@ -8,6 +10,7 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Binary;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -15,6 +18,11 @@ import org.jetbrains.annotations.Nullable;
  * Represents a textbox element.
  */
 public class Textbox extends Rect<Textbox> implements ValueElement<Textbox, String> {
+    /**
+     * Default number of ticks between value changes sent by the client.
+     */
+    public static final int DEFAULT_UPDATE_INTERVAL = 5;
+
     private String value;
     private Component suggestion;
     private Boolean bordered;
@@ -23,6 +31,9 @@ public class Textbox extends Rect<Textbox> implements ValueElement<Textbox, Stri
     private Boolean editable;
     private Integer textColor;
     private Integer uneditableTextColor;
+    private Integer updateInterval;
+
+    private final int[] changes = new int[9];
 
     private OnChange<Textbox, String> onChange = (screen, textbox, player, value) -> {
     };
@@ -90,6 +101,7 @@ public class Textbox extends Rect<Textbox> implements ValueElement<Textbox, Stri
     @NotNull
     public Textbox setSuggestion(@Nullable Component suggestion) {
         this.suggestion = suggestion;
+        changed(this.changes, 1);
         return this;
     }
 
@@ -116,6 +128,7 @@ public class Textbox extends Rect<Textbox> implements ValueElement<Textbox, Stri
     @NotNull
     public Textbox setBordered(@Nullable Boolean bordered) {
         this.bordered = bordered;
+        changed(this.changes, 2);
         return this;
     }
 
@@ -142,6 +155,7 @@ public class Textbox extends Rect<Textbox> implements ValueElement<Textbox, Stri
     @NotNull
     public Textbox setCanLoseFocus(@Nullable Boolean canLoseFocus) {
         this.canLoseFocus = canLoseFocus;
+        changed(this.changes, 3);
         return this;
     }
 
@@ -168,6 +182,7 @@ public class Textbox extends Rect<Textbox> implements ValueElement<Textbox, Stri
     @NotNull
     public Textbox setMaxLength(@Nullable Integer maxLength) {
         this.maxLength = maxLength;
+        changed(this.changes, 4);
         return this;
     }
 
@@ -194,6 +209,7 @@ public class Textbox extends Rect<Textbox> implements ValueElement<Textbox, Stri
     @NotNull
     public Textbox setEditable(@Nullable Boolean editable) {
         this.editable = editable;
+        changed(this.changes, 5);
         return this;
     }
 
@@ -220,6 +236,7 @@ public class Textbox extends Rect<Textbox> implements ValueElement<Textbox, Stri
     @NotNull
     public Textbox setTextColor(@Nullable Integer color) {
         this.textColor = color;
+        changed(this.changes, 6);
         return this;
     }
 
@@ -246,6 +263,40 @@ public class Textbox extends Rect<Textbox> implements ValueElement<Textbox, Stri
     @NotNull
     public Textbox setUneditableTextColor(@Nullable Integer color) {
         this.uneditableTextColor = color;
+        changed(this.changes, 7);
+        return this;
+    }
+
+    /**
+     * Get the number of ticks the client waits between sending value changes of this textbox.
+     * <p>
+     * Changes made in between are merged and only the latest value is sent. The final value is
+     * always sent right away when the player lets go of the textbox.
+     * <p>
+     * If null, default interval of <code>{@value #DEFAULT_UPDATE_INTERVAL}</code> ticks will be used.
+     *
+     * @return Update interval in ticks
+     */
+    @Nullable
+    public Integer getUpdateInterval() {
+        return this.updateInterval;
+    }
+
+    /**
+     * Set the number of ticks the client waits between sending value changes of this textbox.
+     * <p>
+     * Changes made in between are merged and only the latest value is sent. The final value is
+     * always sent right away when the player lets go of the textbox. Use <code>0</code> to send every change.
+     * <p>
+     * If null, default interval of <code>{@value #DEFAULT_UPDATE_INTERVAL}</code> ticks will be used.
+     *
+     * @param interval Update interval in ticks
+     * @return This textbox
+     */
+    @NotNull
+    public Textbox setUpdateInterval(@Nullable Integer interval) {
+        this.updateInterval = interval;
+        changed(this.changes, 8);
         return this;
     }
 
@@ -259,6 +310,7 @@ public class Textbox extends Rect<Textbox> implements ValueElement<Textbox, Stri
     @NotNull
     public Textbox setValue(@NotNull String value) {
         this.value = value;
+        changed(this.changes, 0);
         return this;
     }
 
@@ -289,6 +341,7 @@ public class Textbox extends Rect<Textbox> implements ValueElement<Textbox, Stri
                 && Objects.equals(isEditable(), other.isEditable())
                 && Objects.equals(getTextColor(), other.getTextColor())
                 && Objects.equals(getUneditableTextColor(), other.getUneditableTextColor())
+                && Objects.equals(getUpdateInterval(), other.getUpdateInterval())
                 && Objects.equals(onChange(), other.onChange());
     }
 
@@ -304,6 +357,7 @@ public class Textbox extends Rect<Textbox> implements ValueElement<Textbox, Stri
                 isEditable(),
                 getTextColor(),
                 getUneditableTextColor(),
+                getUpdateInterval(),
                 onChange()
         );
     }
@@ -320,6 +374,7 @@ public class Textbox extends Rect<Textbox> implements ValueElement<Textbox, Stri
         json.addProperty("editable", isEditable());
         json.addProperty("textColor", getTextColor());
         json.addProperty("uneditableTextColor", getUneditableTextColor());
+        json.addProperty("updateInterval", getUpdateInterval());
         return json.getJsonObject();
     }
 
@@ -342,6 +397,102 @@ public class Textbox extends Rect<Textbox> implements ValueElement<Textbox, Stri
         textbox.setEditable(!json.has("editable") ? null : json.get("editable").getAsBoolean());
         textbox.setTextColor(!json.has("textColor") ? null : json.get("textColor").getAsInt());
         textbox.setUneditableTextColor(!json.has("uneditableTextColor") ? null : json.get("uneditableTextColor").getAsInt());
+        textbox.setUpdateInterval(!json.has("updateInterval") ? null : json.get("updateInterval").getAsInt());
+        return textbox;
+    }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out, int since) {
+        super.write(out, since);
+        int changed = Binary.changed(this.changes, since);
+        int present = Binary.mask(this.value, this.suggestion, this.bordered, this.canLoseFocus,
+                this.maxLength, this.editable, this.textColor, this.uneditableTextColor, this.updateInterval) & changed;
+        // more than 8 properties, so the masks do not fit in a byte
+        Binary.writeVarInt(out, changed);
+        Binary.writeVarInt(out, present);
+        if (Binary.has(present, 0)) {
+            Binary.writeString(out, this.value);
+        }
+        if (Binary.has(present, 1)) {
+            Binary.writeComponent(out, this.suggestion);
+        }
+        if (Binary.has(present, 2)) {
+            out.writeBoolean(this.bordered);
+        }
+        if (Binary.has(present, 3)) {
+            out.writeBoolean(this.canLoseFocus);
+        }
+        if (Binary.has(present, 4)) {
+            Binary.writeVarInt(out, this.maxLength);
+        }
+        if (Binary.has(present, 5)) {
+            out.writeBoolean(this.editable);
+        }
+        if (Binary.has(present, 6)) {
+            Binary.writeColor(out, this.textColor);
+        }
+        if (Binary.has(present, 7)) {
+            Binary.writeColor(out, this.uneditableTextColor);
+        }
+        if (Binary.has(present, 8)) {
+            Binary.writeVarInt(out, this.updateInterval);
+        }
+    }
+
+    @Override
+    public void patch(@NotNull ByteArrayDataInput in) {
+        read(this, in);
+    }
+
+    /**
+     * Create a new text box from binary.
+     *
+     * @param in Binary representation of a text box
+     * @return A new text box
+     */
+    @NotNull
+    public static Textbox read(@NotNull ByteArrayDataInput in) {
+        Textbox textbox = new Textbox(Binary.readKey(in));
+        read(textbox, in);
         return textbox;
     }
+
+    /**
+     * Populate a text box from binary.
+     *
+     * @param textbox A text box to populate
+     * @param in      Binary representation of a text box
+     */
+    public static void read(@NotNull Textbox textbox, @NotNull ByteArrayDataInput in) {
+        Rect.read(textbox, in);
+        int changed = Binary.readVarInt(in);
+        int present = Binary.readVarInt(in);
+        if (Binary.has(changed, 0)) {
+            textbox.setValue(!Binary.has(present, 0) ? "" : Binary.readString(in));
+        }
+        if (Binary.has(changed, 1)) {
+            textbox.setSuggestion(!Binary.has(present, 1) ? null : Binary.readComponent(in));
+        }
+        if (Binary.has(changed, 2)) {
+            textbox.setBordered(!Binary.has(present, 2) ? null : in.readBoolean());
+        }
+        if (Binary.has(changed, 3)) {
+            textbox.setCanLoseFocus(!Binary.has(present, 3) ? null : in.readBoolean());
+        }
+        if (Binary.has(changed, 4)) {
+            textbox.setMaxLength(!Binary.has(present, 4) ? null : Binary.readVarInt(in));
+        }
+        if (Binary.has(changed, 5)) {
+            textbox.setEditable(!Binary.has(present, 5) ? null : in.readBoolean());
+        }
+        if (Binary.has(changed, 6)) {
+            textbox.setTextColor(!Binary.has(present, 6) ? null : Binary.readColor(in));
+        }
+        if (Binary.has(changed, 7)) {
+            textbox.setUneditableTextColor(!Binary.has(present, 7) ? null : Binary.readColor(in));
+        }
+        if (Binary.has(changed, 8)) {
+            textbox.setUpdateInterval(!Binary.has(present, 8) ? null : Binary.readVarInt(in));
+        }
+    }
 }
@@ -1,25 +1,31 @@
 package net.pl3x.guithium.api.gui.texture;
 
 import com.google.common.base.Preconditions;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import java.util.Locale;
 import java.util.Objects;
 import net.pl3x.guithium.api.json.JsonObjectWrapper;
 import net.pl3x.guithium.api.key.Key;
 import net.pl3x.guithium.api.key.Keyed;
+import net.pl3x.guithium.api.network.codec.Binary;
+import net.pl3x.guithium.api.network.codec.BinarySerializable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents an image texture.
  */
-public class Texture extends Keyed {
+public class Texture extends Keyed implements BinarySerializable {
     /**
      * Mojang's default dirt texture used in options screens.
      */
     public static final Texture DIRT = Texture.of("minecraft:dirt", "textures/gui/options_background.png");
 
     private final String url;
+    private final String hash;
 
     /**
      * Create a new image texture.
@@ -28,9 +34,21 @@ public class Texture extends Keyed {
      * @param url URL or resource location
      */
     protected Texture(@NotNull Key key, @NotNull String url) {
+        this(key, url, null);
+    }
+
+    /**
+     * Create a new image texture.
+     *
+     * @param key  Unique identifying key
+     * @param url  URL or resource location
+     * @param hash Hex encoded SHA-256 hash of the image file, or null if not known
+     */
+    protected Texture(@NotNull Key key, @NotNull String url, @Nullable String hash) {
         super(key);
         Preconditions.checkNotNull(url, "Url cannot be null");
         this.url = url;
+        this.hash = hash == null ? null : hash.toLowerCase(Locale.ROOT);
     }
 
     /**
@@ -57,6 +75,21 @@ public class Texture extends Keyed {
         return new Texture(key, url);
     }
 
+    /**
+     * Create a new image texture from the internet with a known content hash.
+     * <p>
+     * Clients that already have an image with this hash cached use it without downloading or revalidating it.
+     *
+     * @param key  Unique identifying key
+     * @param url  URL of the image
+     * @param hash Hex encoded SHA-256 hash of the image file
+     * @return new Texture
+     */
+    @NotNull
+    public static Texture of(@NotNull Key key, @NotNull String url, @NotNull String hash) {
+        return new Texture(key, url, hash);
+    }
+
     /**
      * Get the URL or resource location to the texture.
      * <p>
@@ -73,20 +106,33 @@ public class Texture extends Keyed {
         return this.url;
     }
 
+    /**
+     * Get the SHA-256 hash of the image file declared by the server, if any.
+     *
+     * @return Hex encoded content hash, or null if not declared
+     * @see #of(Key, String, String)
+     */
+    @Nullable
+    public String getHash() {
+        return this.hash;
+    }
+
     @Override
     public boolean equals(@Nullable Object obj) {
         if (!super.equals(obj)) {
             return false;
         }
         Texture other = (Texture) obj;
-        return getUrl().equals(other.getUrl());
+        return getUrl().equals(other.getUrl())
+                && Objects.equals(getHash(), other.getHash());
     }
 
     @Override
     public int hashCode() {
         return Objects.hash(
                 super.hashCode(),
-                getUrl()
+                getUrl(),
+                getHash()
         );
     }
 
@@ -95,6 +141,7 @@ public class Texture extends Keyed {
     public JsonElement toJson() {
         JsonObjectWrapper json = new JsonObjectWrapper(super.toJson());
         json.addProperty("url", getUrl());
+        json.addProperty("hash", getHash());
         return json.getJsonObject();
     }
 
@@ -110,7 +157,33 @@ public class Texture extends Keyed {
         Preconditions.checkArgument(json.has("url"), "Url cannot be null");
         return new Texture(
                 Key.of(json.get("key").getAsString()),
-                json.get("url").getAsString()
+                json.get("url").getAsString(),
+                !json.has("hash") ? null : json.get("hash").getAsString()
         );
     }
+
+    @Override
+    public void write(@NotNull ByteArrayDataOutput out) {
+        Binary.writeKey(out, getKey());
+        Binary.writeString(out, getUrl());
+        int present = Binary.mask(getHash());
+        out.writeByte(present);
+        if (Binary.has(present, 0)) {
+            Binary.writeString(out, getHash());
+        }
+    }
+
+    /**
+     * Create a new texture from binary.
+     *
+     * @param in Binary representation of a texture
+     * @return A new texture
+     */
+    @NotNull
+    public static Texture read(@NotNull ByteArrayDataInput in) {
+        Key key = Binary.readKey(in);
+        String url = Binary.readString(in);
+        int present = in.readUnsignedByte();
+        return new Texture(key, url, !Binary.has(present, 0) ? null : Binary.readString(in));
+    }
 }
@@ -0,0 +1,328 @@
+package net.pl3x.guithium.api.network;
+
+import com.google.common.io.ByteArrayDataOutput;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.pl3x.guithium.api.Guithium;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Binary;
+import net.pl3x.guithium.api.network.codec.BufferOutput;
+import net.pl3x.guithium.api.network.codec.BufferPool;
+import net.pl3x.guithium.api.network.codec.Codec;
+import net.pl3x.guithium.api.network.codec.Compression;
+import net.pl3x.guithium.api.network.metrics.NetworkMetrics;
+import net.pl3x.guithium.api.network.packet.Packet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a network connection that keeps track of what was negotiated with the other side.
+ */
+public abstract class AbstractConnection implements Connection {
+    private final ElementTracker elementTracker = new ElementTracker();
+    private final Fragments fragments = new Fragments();
+    private final AtomicInteger fragmentStreams = new AtomicInteger();
+    private final List<Packet> queue = new ArrayList<>();
+
+    // negotiated on the main thread, but read by whichever thread decodes or sends packets
+    private volatile Codec codec = Codec.JSON;
+    private volatile boolean compression;
+    private volatile boolean fragmentation;
+    private volatile boolean batching;
+    private volatile boolean queued;
+    private volatile int maxPayloadSize = Capabilities.NONE.maxPayloadSize();
+    private volatile Set<Key> features = Set.of();
+    private volatile Map<Key, Integer> packetIds = Map.of();
+
+    /**
+     * Create a new connection.
+     */
+    public AbstractConnection() {
+        // Empty constructor to pacify javadoc lint
+    }
+
+    @Override
+    @NotNull
+    public Capabilities getCapabilities() {
+        return new Capabilities(
+                getCodec().getVersion(),
+                isCompressionEnabled(),
+                isCompressionEnabled() ? Compression.DICTIONARY_ID : 0,
+                isFragmentationEnabled(),
+                isBatchingEnabled(),
+                this.maxPayloadSize,
+                this.features
+        );
+    }
+
+    @Override
+    public void setCapabilities(@NotNull Capabilities capabilities) {
+        setCodec(capabilities.getCodec());
+        setCompressionEnabled(capabilities.compression());
+        setFragmentationEnabled(capabilities.fragmentation());
+        setBatchingEnabled(capabilities.batching());
+        this.maxPayloadSize = capabilities.maxPayloadSize();
+        this.features = capabilities.features();
+    }
+
+    @Override
+    @NotNull
+    public Codec getCodec() {
+        return this.codec;
+    }
+
+    @Override
+    public void setCodec(@NotNull Codec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public boolean isCompressionEnabled() {
+        return this.compression;
+    }
+
+    @Override
+    public void setCompressionEnabled(boolean enabled) {
+        this.compression = enabled;
+    }
+
+    @Override
+    public boolean isFragmentationEnabled() {
+        return this.fragmentation;
+    }
+
+    @Override
+    public void setFragmentationEnabled(boolean enabled) {
+        this.fragmentation = enabled;
+    }
+
+    @Override
+    @NotNull
+    public Fragments getFragments() {
+        return this.fragments;
+    }
+
+    @Override
+    public boolean isBatchingEnabled() {
+        return this.batching;
+    }
+
+    @Override
+    public void setBatchingEnabled(boolean enabled) {
+        this.batching = enabled;
+    }
+
+    @Override
+    public boolean isQueued() {
+        return this.queued;
+    }
+
+    @Override
+    public void setQueued(boolean queued) {
+        this.queued = queued;
+        if (!queued) {
+            flush();
+        }
+    }
+
+    @Override
+    public int getPacketId(@NotNull Key key) {
+        Integer id = this.packetIds.get(key);
+        return id == null ? -1 : id;
+    }
+
+    @Override
+    public void setPacketIds(@NotNull List<Key> keys) {
+        Map<Key, Integer> packetIds = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            packetIds.put(keys.get(i), i);
+        }
+        this.packetIds = packetIds;
+    }
+
+    @Override
+    @Nullable
+    public UUID getPlayerUUID() {
+        return null;
+    }
+
+    @Override
+    @NotNull
+    public ElementTracker getElementTracker() {
+        return this.elementTracker;
+    }
+
+    @Override
+    public void send(@NotNull Packet packet) {
+        send(packet, false);
+    }
+
+    @Override
+    public void send(@NotNull Packet packet, boolean force) {
+        if (!force && !canSend()) {
+            return;
+        }
+        if (!force && isQueued() && isBatchingEnabled()) {
+            synchronized (this.queue) {
+                this.queue.add(packet);
+            }
+            return;
+        }
+        // anything still queued has to go out first to keep packets in order
+        flush();
+        sendFrames(encodeFrames(packet));
+    }
+
+    @Override
+    public void flush() {
+        List<Packet> packets;
+        synchronized (this.queue) {
+            if (this.queue.isEmpty()) {
+                return;
+            }
+            packets = new ArrayList<>(this.queue);
+            this.queue.clear();
+        }
+        if (packets.size() == 1) {
+            sendFrames(encodeFrames(packets.getFirst()));
+            return;
+        }
+        List<byte[]> data = new ArrayList<>(packets.size());
+        for (Packet packet : packets) {
+            data.add(serialize(packet));
+        }
+        sendFrames(split(compress(Batch.write(data))));
+    }
+
+    @Override
+    public void sendPlain(@NotNull Packet packet) {
+        flush();
+        sendFrames(List.of(serialize(packet)));
+    }
+
+    @Override
+    public void sendEncoded(byte[] data) {
+        if (!canSend()) {
+            return;
+        }
+        flush();
+        sendFrames(split(data));
+    }
+
+    @Override
+    public byte[] encode(@NotNull Packet packet) {
+        return compress(serialize(packet));
+    }
+
+    @Override
+    @NotNull
+    public List<byte[]> encodeFrames(@NotNull Packet packet) {
+        return split(encode(packet));
+    }
+
+    /**
+     * Check if packets can be sent to the other side of this connection right now.
+     *
+     * @return {@code true} if packets can be sent, otherwise {@code false}
+     */
+    protected abstract boolean canSend();
+
+    /**
+     * Send raw data frames to the other side of this connection.
+     *
+     * @param frames Raw data frames, in order
+     */
+    protected abstract void sendFrames(@NotNull List<byte[]> frames);
+
+    /**
+     * Write a packet to raw data, using the numeric packet id when the other side assigned one.
+     *
+     * @param packet Packet to write
+     * @return Raw packet data
+     */
+    protected byte[] serialize(@NotNull Packet packet) {
+        NetworkMetrics metrics = Guithium.api().getNetworkHandler().getMetrics();
+        if (!metrics.isEnabled()) {
+            return write(packet);
+        }
+        long start = System.nanoTime();
+        byte[] data = write(packet);
+        metrics.sent(getPlayerUUID(), packet.getKey(), data.length, System.nanoTime() - start);
+        return data;
+    }
+
+    private byte[] write(@NotNull Packet packet) {
+        ByteArrayDataOutput written = packet.write(getCodec());
+        int id = getPacketId(packet.getKey());
+        if (!(written instanceof BufferOutput buffer)) {
+            byte[] data = written.toByteArray();
+            return id < 0 ? data : swapId(id, data, 0, data.length, packet);
+        }
+        try {
+            // the platforms need an exact array, so this is the only copy of the packet
+            return id < 0 ? buffer.toByteArray() : swapId(id, buffer.array(), 0, buffer.size(), packet);
+        } finally {
+            BufferPool.release(buffer);
+        }
+    }
+
+    private static byte[] swapId(int id, byte[] data, int offset, int length, @NotNull Packet packet) {
+        // swap the protocol number and key string for the numeric id. keys are always ascii
+        int header = Integer.BYTES + Short.BYTES + packet.getKey().toString().length();
+        int size = 1 + Binary.sizeOfVarInt(id) + length - header;
+        // sized exactly, so the backing array is the final packet
+        BufferOutput out = new BufferOutput(size);
+        out.writeByte(NetworkHandler.ID_MARKER);
+        Binary.writeVarInt(out, id);
+        out.write(data, offset + header, length - header);
+        return out.array();
+    }
+
+    /**
+     * Compress raw data, if negotiated with the other side.
+     *
+     * @param data Raw data
+     * @return Compressed raw data, or the same data if not compressed
+     */
+    protected byte[] compress(byte[] data) {
+        return isCompressionEnabled() ? Compression.compress(data) : data;
+    }
+
+    /**
+     * Split raw data into the frames to send, if negotiated with the other side.
+     *
+     * @param data Raw data
+     * @return Raw data frames, in order
+     */
+    @NotNull
+    protected List<byte[]> split(byte[] data) {
+        if (!isFragmentationEnabled()) {
+            return List.of(data);
+        }
+        // stream ids only have to be unique among the few packets being reassembled at once
+        return Fragments.split(data, this.fragmentStreams.getAndIncrement() & 0xFFFF, this.maxPayloadSize);
+    }
+
+    /**
+     * Forget everything negotiated with the other side.
+     */
+    public void reset() {
+        this.codec = Codec.JSON;
+        this.compression = false;
+        this.fragmentation = false;
+        this.batching = false;
+        this.maxPayloadSize = Capabilities.NONE.maxPayloadSize();
+        this.features = Set.of();
+        this.packetIds = Map.of();
+        this.elementTracker.clear();
+        this.fragments.clear();
+        synchronized (this.queue) {
+            this.queue.clear();
+        }
+    }
+}
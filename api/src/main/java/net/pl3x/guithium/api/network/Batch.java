@@ -0,0 +1,92 @@
+package net.pl3x.guithium.api.network;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import net.pl3x.guithium.api.network.codec.Binary;
+import net.pl3x.guithium.api.network.codec.BufferInput;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents several packets sent together as one plugin message.
+ * <p>
+ * Batch frames start with {@link #MARKER}, followed by the packet count and each packet's raw data.
+ */
+public abstract class Batch {
+    private Batch() {
+        // Empty constructor to pacify javadoc lint
+    }
+
+    /**
+     * First byte of a batch frame.
+     */
+    public static final int MARKER = 0x04;
+
+    /**
+     * Batches claiming to hold more packets than this are rejected.
+     */
+    public static final int MAX_PACKETS = 4096;
+
+    /**
+     * Write raw packet data into a single batch frame.
+     *
+     * @param packets Raw data of each packet, in order
+     * @return Batch frame
+     */
+    public static byte[] write(@NotNull List<byte[]> packets) {
+        int size = 6;
+        for (byte[] packet : packets) {
+            size += packet.length + 3;
+        }
+        ByteArrayDataOutput out = ByteStreams.newDataOutput(size);
+        out.writeByte(MARKER);
+        Binary.writeVarInt(out, packets.size());
+        for (byte[] packet : packets) {
+            Binary.writeVarInt(out, packet.length);
+            out.write(packet);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Check if raw data is a batch frame.
+     *
+     * @param data Raw data
+     * @return {@code true} if data is a batch, otherwise {@code false}
+     */
+    public static boolean isBatch(@NotNull ByteBuffer data) {
+        return data.hasRemaining() && data.get(data.position()) == MARKER;
+    }
+
+    /**
+     * Read the raw data of each packet in a batch frame.
+     * <p>
+     * The returned buffers share the frame's memory instead of copying it.
+     *
+     * @param frame Batch frame
+     * @return Raw data of each packet, in order
+     * @throws IllegalStateException if frame is malformed
+     */
+    @NotNull
+    public static List<ByteBuffer> read(@NotNull ByteBuffer frame) {
+        ByteBuffer buffer = frame.slice();
+        BufferInput in = new BufferInput(buffer);
+        in.skipBytes(1); // batch marker
+        int count = Binary.readVarInt(in);
+        if (count < 0 || count > MAX_PACKETS) {
+            throw new IllegalStateException("Invalid batch size " + count);
+        }
+        List<ByteBuffer> packets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = Binary.readVarInt(in);
+            if (length < 0 || length > buffer.remaining()) {
+                throw new IllegalStateException("Invalid packet length " + length);
+            }
+            packets.add(buffer.slice(buffer.position(), length));
+            buffer.position(buffer.position() + length);
+        }
+        return packets;
+    }
+}
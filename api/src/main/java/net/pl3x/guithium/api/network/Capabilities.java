@@ -0,0 +1,130 @@
+package net.pl3x.guithium.api.network;
+
+import java.util.HashSet;
+import java.util.Set;
+import net.pl3x.guithium.api.Guithium;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Codec;
+import net.pl3x.guithium.api.network.codec.Compression;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents the optional protocol features one side of a connection supports.
+ * <p>
+ * Both sides send their capabilities in the {@link net.pl3x.guithium.api.network.packet.HelloPacket}
+ * and only use what both of them support. New features are added here instead of bumping the
+ * {@link net.pl3x.guithium.api.Guithium#PROTOCOL protocol}, so older versions keep working.
+ *
+ * @param codec          Newest codec version understood
+ * @param compression    Whether compressed packets can be received
+ * @param dictionary     Identifier of the preset dictionary compressed packets use, or <code>0</code> if not known
+ * @param fragmentation  Whether fragmented packets can be reassembled
+ * @param batching       Whether several packets can be received in one batch
+ * @param maxPayloadSize Most bytes of packet data that can be received in a single plugin message
+ * @param features       Keys of other supported features
+ */
+public record Capabilities(
+        int codec,
+        boolean compression,
+        int dictionary,
+        boolean fragmentation,
+        boolean batching,
+        int maxPayloadSize,
+        @NotNull Set<Key> features
+) {
+    /**
+     * Feature key for clients that keep screens cached by their content hash.
+     *
+     * @see net.pl3x.guithium.api.network.packet.OpenCachedScreenPacket
+     */
+    public static final Key SCREEN_CACHE = Key.of(Guithium.MOD_ID + ":screen_cache");
+
+    /**
+     * Feature key for clients that load textures from a {@link net.pl3x.guithium.api.network.packet.PrefetchTexturesPacket} early.
+     */
+    public static final Key TEXTURE_PREFETCH = Key.of(Guithium.MOD_ID + ":texture_prefetch");
+
+    /**
+     * Capabilities of versions that do not send any.
+     */
+    public static final Capabilities NONE = new Capabilities(
+            Codec.JSON.getVersion(),
+            false,
+            0,
+            false,
+            false,
+            Fragments.SIZE,
+            Set.of()
+    );
+
+    /**
+     * Everything this version of Guithium supports.
+     */
+    public static final Capabilities LATEST = new Capabilities(
+            Codec.LATEST.getVersion(),
+            true,
+            Compression.DICTIONARY_ID,
+            true,
+            true,
+            Fragments.SIZE,
+            Set.of(SCREEN_CACHE, TEXTURE_PREFETCH)
+    );
+
+    /**
+     * Create new capabilities.
+     *
+     * @param codec          Newest codec version understood
+     * @param compression    Whether compressed packets can be received
+     * @param dictionary     Identifier of the preset dictionary compressed packets use, or <code>0</code> if not known
+     * @param fragmentation  Whether fragmented packets can be reassembled
+     * @param batching       Whether several packets can be received in one batch
+     * @param maxPayloadSize Most bytes of packet data that can be received in a single plugin message
+     * @param features       Keys of other supported features
+     */
+    public Capabilities {
+        features = Set.copyOf(features);
+    }
+
+    /**
+     * Get the best codec supported by these capabilities.
+     *
+     * @return Best supported codec
+     */
+    @NotNull
+    public Codec getCodec() {
+        return Codec.negotiate(codec());
+    }
+
+    /**
+     * Check if a feature is supported.
+     *
+     * @param feature Key of feature
+     * @return {@code true} if feature is supported, otherwise {@code false}
+     */
+    public boolean hasFeature(@NotNull Key feature) {
+        return features().contains(feature);
+    }
+
+    /**
+     * Get the capabilities supported by both these and the remote side's capabilities.
+     *
+     * @param remote Capabilities of the remote side
+     * @return Shared capabilities
+     */
+    @NotNull
+    public Capabilities negotiate(@NotNull Capabilities remote) {
+        Set<Key> features = new HashSet<>(features());
+        features.retainAll(remote.features());
+        // frames compressed against a different dictionary can not be inflated, so send them uncompressed instead
+        boolean compression = compression() && remote.compression() && dictionary() == remote.dictionary();
+        return new Capabilities(
+                Codec.negotiate(Math.min(codec(), remote.codec())).getVersion(),
+                compression,
+                compression ? dictionary() : 0,
+                fragmentation() && remote.fragmentation(),
+                batching() && remote.batching(),
+                Math.max(Fragments.MIN_SIZE, Math.min(maxPayloadSize(), remote.maxPayloadSize())),
+                features
+        );
+    }
+}
@@ -1,7 +1,12 @@
 package net.pl3x.guithium.api.network;
 
+import java.util.List;
+import java.util.UUID;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Codec;
 import net.pl3x.guithium.api.network.packet.Packet;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents a network connection.
@@ -15,6 +20,178 @@ public interface Connection {
     @NotNull
     PacketListener getPacketListener();
 
+    /**
+     * Get the capabilities negotiated with the other side of this connection.
+     * <p>
+     * Until the hello handshake completes this is {@link Capabilities#NONE}.
+     *
+     * @return Negotiated capabilities
+     */
+    @NotNull
+    Capabilities getCapabilities();
+
+    /**
+     * Set the capabilities negotiated with the other side of this connection.
+     * <p>
+     * This picks the codec, compression, fragmentation and batching used from now on.
+     *
+     * @param capabilities Negotiated capabilities
+     */
+    void setCapabilities(@NotNull Capabilities capabilities);
+
+    /**
+     * Get the codec negotiated with the other side of this connection.
+     * <p>
+     * Until the hello handshake completes this is {@link Codec#JSON}.
+     *
+     * @return Negotiated codec
+     */
+    @NotNull
+    Codec getCodec();
+
+    /**
+     * Set the codec negotiated with the other side of this connection.
+     *
+     * @param codec Negotiated codec
+     */
+    void setCodec(@NotNull Codec codec);
+
+    /**
+     * Check if the other side of this connection can receive compressed packets.
+     * <p>
+     * Until the hello handshake completes this is {@code false}.
+     *
+     * @return {@code true} if compression is enabled, otherwise {@code false}
+     */
+    boolean isCompressionEnabled();
+
+    /**
+     * Set if the other side of this connection can receive compressed packets.
+     *
+     * @param enabled {@code true} to enable compression
+     */
+    void setCompressionEnabled(boolean enabled);
+
+    /**
+     * Check if the other side of this connection can reassemble fragmented packets.
+     * <p>
+     * Until the hello handshake completes this is {@code false}.
+     *
+     * @return {@code true} if fragmentation is enabled, otherwise {@code false}
+     */
+    boolean isFragmentationEnabled();
+
+    /**
+     * Set if the other side of this connection can reassemble fragmented packets.
+     *
+     * @param enabled {@code true} to enable fragmentation
+     */
+    void setFragmentationEnabled(boolean enabled);
+
+    /**
+     * Get the fragments received from the other side of this connection that are waiting to be reassembled.
+     *
+     * @return Received fragments
+     */
+    @NotNull
+    Fragments getFragments();
+
+    /**
+     * Check if the other side of this connection can receive several packets in one batch.
+     * <p>
+     * Until the hello handshake completes this is {@code false}.
+     *
+     * @return {@code true} if batching is enabled, otherwise {@code false}
+     */
+    boolean isBatchingEnabled();
+
+    /**
+     * Set if the other side of this connection can receive several packets in one batch.
+     *
+     * @param enabled {@code true} to enable batching
+     */
+    void setBatchingEnabled(boolean enabled);
+
+    /**
+     * Check if packets sent over this connection are queued and sent together as one batch.
+     *
+     * @return {@code true} if packets are queued, otherwise {@code false}
+     */
+    boolean isQueued();
+
+    /**
+     * Set if packets sent over this connection are queued and sent together as one batch.
+     * <p>
+     * The server flushes queued packets once every tick. Packets are only queued
+     * when the other side supports batches, and forced packets are never queued.
+     * Use {@link #flush()} to send a latency sensitive packet right away.
+     * <p>
+     * Disabled by default.
+     *
+     * @param queued {@code true} to queue packets
+     */
+    void setQueued(boolean queued);
+
+    /**
+     * Send all queued packets right away.
+     */
+    void flush();
+
+    /**
+     * Get the numeric id the other side of this connection assigned to a packet type.
+     *
+     * @param key Packet key
+     * @return Numeric packet id, or <code>-1</code> if the packet has to be sent by key
+     */
+    int getPacketId(@NotNull Key key);
+
+    /**
+     * Set the packet types the other side of this connection can receive by numeric id.
+     * <p>
+     * The position of each key in the list is its numeric id.
+     *
+     * @param keys Packet keys in order of their numeric ids
+     */
+    void setPacketIds(@NotNull List<Key> keys);
+
+    /**
+     * Get the unique identifier of the player on the other side of this connection.
+     *
+     * @return Player's unique identifier, or null if the other side is the server
+     */
+    @Nullable
+    UUID getPlayerUUID();
+
+    /**
+     * Get the tracker of element versions the other side of this connection has.
+     *
+     * @return Element tracker
+     */
+    @NotNull
+    ElementTracker getElementTracker();
+
+    /**
+     * Encode a packet to the raw data to send over this connection.
+     * <p>
+     * The result can be sent with {@link #sendEncoded(byte[])} to any connection
+     * that negotiated the same codec, compression and packet id.
+     *
+     * @param packet Packet to encode
+     * @return Raw data to send
+     */
+    byte[] encode(@NotNull Packet packet);
+
+    /**
+     * Encode a packet to the raw data frames to send over this connection.
+     * <p>
+     * This is a single frame unless the packet is too big for one plugin message.
+     *
+     * @param packet Packet to encode
+     * @return Raw data frames to send, in order
+     */
+    @NotNull
+    List<byte[]> encodeFrames(@NotNull Packet packet);
+
     /**
      * Send packet.
      *
@@ -29,4 +206,23 @@ public interface Connection {
      * @param force  Ignore protocol checks
      */
     void send(@NotNull Packet packet, boolean force);
+
+    /**
+     * Send packet without compressing or fragmenting it, ignoring protocol checks.
+     * <p>
+     * Used to reply to a hello after the capabilities were already negotiated,
+     * because the other side can only read the reply before it knows them.
+     *
+     * @param packet Packet to send
+     */
+    void sendPlain(@NotNull Packet packet);
+
+    /**
+     * Send a packet that was already encoded with {@link #encode(Packet)}.
+     * <p>
+     * Encoded packets are never queued, but anything queued before is sent first.
+     *
+     * @param data Raw data to send
+     */
+    void sendEncoded(byte[] data);
 }
@@ -0,0 +1,87 @@
+package net.pl3x.guithium.api.network;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.pl3x.guithium.api.gui.Screen;
+import net.pl3x.guithium.api.gui.element.Element;
+import net.pl3x.guithium.api.key.Key;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Keeps track of which version of each element the other side of a connection has.
+ * <p>
+ * This lets elements send only the properties that changed since the last time they were sent.
+ */
+public class ElementTracker {
+    private final Map<Key, Sent> sent = new ConcurrentHashMap<>();
+    private final Map<Key, Screen> screens = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new element tracker.
+     */
+    public ElementTracker() {
+        // Empty constructor to pacify javadoc lint
+    }
+
+    /**
+     * Get the version of an element the other side last received.
+     *
+     * @param element Element to check
+     * @return Last sent version, or <code>-1</code> if this element was never sent
+     */
+    public int getVersion(@NotNull Element element) {
+        Sent sent = this.sent.get(element.getKey());
+        // a different element instance with the same key has its own version counter
+        return sent == null || sent.element() != element ? -1 : sent.version();
+    }
+
+    /**
+     * Remember that the current version of an element was sent.
+     *
+     * @param element Element that was sent
+     */
+    public void track(@NotNull Element element) {
+        this.sent.put(element.getKey(), new Sent(element, element.getVersion()));
+    }
+
+    /**
+     * Get a screen that was opened by its content hash.
+     *
+     * @param key Key of screen
+     * @return Screen opened by hash, or null if none
+     */
+    @Nullable
+    public Screen getScreen(@NotNull Key key) {
+        return this.screens.get(key);
+    }
+
+    /**
+     * Remember a screen that was opened by its content hash, in case the other side does not have it cached.
+     *
+     * @param screen Screen opened by hash
+     */
+    public void track(@NotNull Screen screen) {
+        this.screens.put(screen.getKey(), screen);
+    }
+
+    /**
+     * Forget a screen that was opened by its content hash.
+     *
+     * @param key Key of screen
+     */
+    public void untrack(@NotNull Key key) {
+        this.screens.remove(key);
+    }
+
+    /**
+     * Forget all sent elements and screens.
+     */
+    public void clear() {
+        this.sent.clear();
+        this.screens.clear();
+    }
+
+    private record Sent(@NotNull Element element, int version) {
+    }
+}
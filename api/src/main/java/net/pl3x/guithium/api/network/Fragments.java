@@ -0,0 +1,258 @@
+package net.pl3x.guithium.api.network;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.pl3x.guithium.api.Guithium;
+import net.pl3x.guithium.api.network.codec.Binary;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Splits raw packet data that is too big for a single plugin message into fragments,
+ * and reassembles fragments received from the other side of a connection.
+ * <p>
+ * Fragment frames start with {@link #MARKER}, followed by the stream id, fragment index and fragment count.
+ */
+public class Fragments {
+    /**
+     * First byte of a fragment frame.
+     */
+    public static final int MARKER = 0x03;
+
+    /**
+     * Most bytes of packet data carried by a single fragment.
+     * <p>
+     * This keeps every frame below the vanilla serverbound custom payload limit of 32767 bytes.
+     */
+    public static final int SIZE = 32000;
+
+    /**
+     * Least bytes of packet data a fragment may carry, so a packet cannot be split into too many pieces.
+     */
+    public static final int MIN_SIZE = 1024;
+
+    /**
+     * Reassembled packets bigger than this many bytes are rejected.
+     */
+    public static final int MAX_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * Reassembled packets from a client bigger than this many bytes are rejected.
+     * <p>
+     * Clients only ever send small packets, so this is also all a player may have buffered at once.
+     */
+    public static final int MAX_SERVERBOUND_SIZE = 64 * 1024;
+
+    /**
+     * Most packets that can be reassembled at the same time.
+     */
+    public static final int MAX_STREAMS = 4;
+
+    /**
+     * Milliseconds to wait for the remaining fragments of a packet before giving up on it.
+     */
+    public static final long TIMEOUT = 30000L;
+
+    // remembered so the rest of a dropped packet's fragments are not mistaken for a new packet
+    private static final int MAX_REFUSED = 64;
+
+    private final Map<Integer, Stream> streams = new HashMap<>();
+    private final Map<Integer, Long> refused = new LinkedHashMap<>();
+    private int bufferedBytes;
+
+    /**
+     * Create a new fragment reassembler.
+     */
+    public Fragments() {
+        // Empty constructor to pacify javadoc lint
+    }
+
+    /**
+     * Split raw packet data into fragment frames, if it is too big for a single plugin message.
+     *
+     * @param data   Raw packet data
+     * @param stream Unique id for this packet's fragments
+     * @return Fragment frames, or just the original data if it already fits
+     */
+    @NotNull
+    public static List<byte[]> split(byte[] data, int stream) {
+        return split(data, stream, SIZE);
+    }
+
+    /**
+     * Split raw packet data into fragment frames, if it is too big for a single plugin message.
+     *
+     * @param data   Raw packet data
+     * @param stream Unique id for this packet's fragments
+     * @param size   Most bytes of packet data per fragment, at least {@link #MIN_SIZE}
+     * @return Fragment frames, or just the original data if it already fits
+     */
+    @NotNull
+    public static List<byte[]> split(byte[] data, int stream, int size) {
+        size = Math.max(size, MIN_SIZE);
+        if (data.length <= size) {
+            return List.of(data);
+        }
+        int count = (data.length + size - 1) / size;
+        List<byte[]> frames = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            int offset = index * size;
+            int length = Math.min(size, data.length - offset);
+            ByteArrayDataOutput out = ByteStreams.newDataOutput(length + 16);
+            out.writeByte(MARKER);
+            Binary.writeVarInt(out, stream);
+            Binary.writeVarInt(out, index);
+            Binary.writeVarInt(out, count);
+            out.write(data, offset, length);
+            frames.add(out.toByteArray());
+        }
+        return frames;
+    }
+
+    /**
+     * Check if raw data is a fragment frame.
+     *
+     * @param data Raw data
+     * @return {@code true} if data is a fragment, otherwise {@code false}
+     */
+    public static boolean isFragment(byte[] data) {
+        return data.length > 0 && data[0] == MARKER;
+    }
+
+    /**
+     * Accept a fragment frame received from the other side.
+     *
+     * @param frame Fragment frame
+     * @return Reassembled raw packet data once the last fragment arrived, otherwise null
+     */
+    public byte[] receive(byte[] frame) {
+        return receive(frame, MAX_SIZE);
+    }
+
+    /**
+     * Accept a fragment frame received from the other side.
+     *
+     * @param frame   Fragment frame
+     * @param maxSize Most bytes of all partially received packets together
+     * @return Reassembled raw packet data once the last fragment arrived, otherwise null
+     */
+    public synchronized byte[] receive(byte[] frame, int maxSize) {
+        long now = System.currentTimeMillis();
+        expire(now);
+
+        ByteArrayDataInput in = ByteStreams.newDataInput(frame, 1);
+        int id = Binary.readVarInt(in);
+        int index = Binary.readVarInt(in);
+        int count = Binary.readVarInt(in);
+        if (this.refused.containsKey(id)) {
+            return null; // the rest of a packet that was already dropped
+        }
+        if (count < 1 || count > (maxSize + MIN_SIZE - 1) / MIN_SIZE || index < 0 || index >= count) {
+            Guithium.logger.warn("Received invalid fragment ({}/{})", index, count);
+            refuse(id, now);
+            return null;
+        }
+
+        Stream stream = this.streams.get(id);
+        if (stream == null) {
+            if (this.streams.size() >= MAX_STREAMS) {
+                Guithium.logger.warn("Too many fragmented packets at once, dropping one");
+                refuse(id, now);
+                return null;
+            }
+            stream = new Stream(new byte[count][], now);
+            this.streams.put(id, stream);
+        } else if (stream.parts.length != count) {
+            Guithium.logger.warn("Received fragment with mismatched count ({}/{})", index, count);
+            refuse(id, now);
+            return null;
+        }
+
+        if (stream.parts[index] != null) {
+            return null; // duplicate
+        }
+        // fragments carry everything after the header
+        int length = frame.length - 1 - Binary.sizeOfVarInt(id) - Binary.sizeOfVarInt(index) - Binary.sizeOfVarInt(count);
+        byte[] part = new byte[length];
+        in.readFully(part);
+        if (this.bufferedBytes + length > maxSize) {
+            Guithium.logger.warn("Fragmented packets exceed {} bytes, dropping one", maxSize);
+            refuse(id, now);
+            return null;
+        }
+        stream.parts[index] = part;
+        stream.received++;
+        stream.size += length;
+        this.bufferedBytes += length;
+
+        if (stream.received < count) {
+            return null;
+        }
+
+        discard(id);
+        byte[] data = new byte[stream.size];
+        int offset = 0;
+        for (byte[] bytes : stream.parts) {
+            System.arraycopy(bytes, 0, data, offset, bytes.length);
+            offset += bytes.length;
+        }
+        return data;
+    }
+
+    /**
+     * Forget all partially received packets.
+     */
+    public synchronized void clear() {
+        this.streams.clear();
+        this.refused.clear();
+        this.bufferedBytes = 0;
+    }
+
+    private void expire(long now) {
+        Iterator<Stream> iter = this.streams.values().iterator();
+        while (iter.hasNext()) {
+            Stream stream = iter.next();
+            if (now - stream.created > TIMEOUT) {
+                Guithium.logger.warn("Timed out waiting for {} more fragments", stream.parts.length - stream.received);
+                this.bufferedBytes -= stream.size;
+                iter.remove();
+            }
+        }
+        // stream ids are reused eventually, by then none of the old fragments are still on their way
+        this.refused.values().removeIf(refused -> now - refused > TIMEOUT);
+    }
+
+    private void refuse(int id, long now) {
+        discard(id);
+        if (this.refused.size() >= MAX_REFUSED) {
+            // forget the oldest one, its fragments are the least likely to still arrive
+            this.refused.remove(this.refused.keySet().iterator().next());
+        }
+        this.refused.put(id, now);
+    }
+
+    private void discard(int id) {
+        Stream stream = this.streams.remove(id);
+        if (stream != null) {
+            this.bufferedBytes -= stream.size;
+        }
+    }
+
+    private static class Stream {
+        private final byte[][] parts;
+        private final long created;
+        private int received;
+        private int size;
+
+        private Stream(byte[][] parts, long created) {
+            this.parts = parts;
+            this.created = created;
+        }
+    }
+}
@@ -1,17 +1,31 @@
 package net.pl3x.guithium.api.network;
 
 import com.google.common.io.ByteArrayDataInput;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import net.pl3x.guithium.api.Guithium;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Binary;
+import net.pl3x.guithium.api.network.codec.Codec;
+import net.pl3x.guithium.api.network.codec.Compression;
+import net.pl3x.guithium.api.network.metrics.DropReason;
+import net.pl3x.guithium.api.network.metrics.NetworkMetrics;
 import net.pl3x.guithium.api.network.packet.ElementClickedPacket;
 import net.pl3x.guithium.api.network.packet.CloseScreenPacket;
 import net.pl3x.guithium.api.network.packet.ElementPacket;
+import net.pl3x.guithium.api.network.packet.ElementPatchPacket;
 import net.pl3x.guithium.api.network.packet.HelloPacket;
+import net.pl3x.guithium.api.network.packet.OpenCachedScreenPacket;
 import net.pl3x.guithium.api.network.packet.OpenScreenPacket;
 import net.pl3x.guithium.api.network.packet.Packet;
+import net.pl3x.guithium.api.network.packet.PrefetchTexturesPacket;
+import net.pl3x.guithium.api.network.packet.ScreenCacheMissPacket;
 import net.pl3x.guithium.api.network.packet.ElementChangedValuePacket;
 import net.pl3x.guithium.api.network.packet.TexturesPacket;
 import org.jetbrains.annotations.NotNull;
@@ -26,7 +40,16 @@ public abstract class NetworkHandler {
      */
     public final static String CHANNEL = String.format("%1$s:%1$s", Guithium.MOD_ID);
 
-    private final Map<Key, Function<ByteArrayDataInput, ? extends Packet>> packets = new HashMap<>();
+    /**
+     * First byte of a packet that is identified by numeric id instead of protocol number and key.
+     */
+    public static final int ID_MARKER = 0x02;
+
+    private final Map<Key, BiFunction<ByteArrayDataInput, Codec, ? extends Packet>> packets = new HashMap<>();
+    private final List<Key> packetKeys = new ArrayList<>();
+    private final List<BiFunction<ByteArrayDataInput, Codec, ? extends Packet>> packetsById = new ArrayList<>();
+    private final NetworkMetrics metrics = new NetworkMetrics();
+    private final RateLimits rateLimits = new RateLimits();
 
     /**
      * Create a new network handler instance
@@ -35,12 +58,16 @@ public abstract class NetworkHandler {
         registerListener(ElementClickedPacket.KEY, ElementClickedPacket::new);
         //registerListener(CheckboxTogglePacket.KEY, CheckboxTogglePacket::new);
         registerListener(CloseScreenPacket.KEY, CloseScreenPacket::new);
-        registerListener(ElementPacket.KEY, ElementPacket::new);
+        registerCodecListener(ElementPacket.KEY, ElementPacket::new);
+        registerListener(ElementPatchPacket.KEY, ElementPatchPacket::new);
         registerListener(HelloPacket.KEY, HelloPacket::new);
-        registerListener(OpenScreenPacket.KEY, OpenScreenPacket::new);
+        registerCodecListener(OpenScreenPacket.KEY, OpenScreenPacket::new);
         //registerListener(RadioTogglePacket.KEY, RadioTogglePacket::new);
         registerListener(ElementChangedValuePacket.KEY, ElementChangedValuePacket::new);
-        registerListener(TexturesPacket.KEY, TexturesPacket::new);
+        registerCodecListener(TexturesPacket.KEY, TexturesPacket::new);
+        registerListener(OpenCachedScreenPacket.KEY, OpenCachedScreenPacket::new);
+        registerListener(ScreenCacheMissPacket.KEY, ScreenCacheMissPacket::new);
+        registerCodecListener(PrefetchTexturesPacket.KEY, PrefetchTexturesPacket::new);
     }
 
     /**
@@ -55,7 +82,56 @@ public abstract class NetworkHandler {
      * @param function Packet handler
      */
     protected void registerListener(@NotNull Key key, @NotNull Function<ByteArrayDataInput, ? extends Packet> function) {
-        this.packets.put(key, function);
+        registerCodecListener(key, (in, codec) -> function.apply(in));
+    }
+
+    /**
+     * Register incoming packet handlers for packets that depend on the negotiated codec.
+     *
+     * @param key      Identifying key
+     * @param function Packet handler
+     */
+    protected void registerCodecListener(@NotNull Key key, @NotNull BiFunction<ByteArrayDataInput, Codec, ? extends Packet> function) {
+        if (this.packets.put(key, function) != null) {
+            this.packetsById.set(this.packetKeys.indexOf(key), function);
+        } else {
+            this.packetKeys.add(key);
+            this.packetsById.add(function);
+        }
+    }
+
+    /**
+     * Get the keys of all registered packets.
+     * <p>
+     * The position of each key in the list is the numeric id the other side can use to send it to us.
+     *
+     * @return Registered packet keys in order of their numeric ids
+     */
+    @NotNull
+    public List<Key> getPacketKeys() {
+        return Collections.unmodifiableList(this.packetKeys);
+    }
+
+    /**
+     * Get the registry network metrics are recorded to.
+     *
+     * @return Network metrics
+     */
+    @NotNull
+    public NetworkMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Get the limits of how many packets each player may send.
+     * <p>
+     * Only enforced by the server.
+     *
+     * @return Rate limits
+     */
+    @NotNull
+    public RateLimits getRateLimits() {
+        return this.rateLimits;
     }
 
     /**
@@ -65,34 +141,194 @@ public abstract class NetworkHandler {
      * @param data       Raw data received
      */
     public void receive(@NotNull Connection connection, byte[] data) {
-        Packet packet = getPacket(Packet.in(data));
-        if (packet != null) {
-            packet.handle(connection.getPacketListener());
+        receive(connection, ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Receive data.
+     * <p>
+     * Plain packets are decoded directly from the buffer. Only fragmented and
+     * compressed packets are copied out of it to be reassembled or inflated.
+     *
+     * @param connection Connection to receive on
+     * @param data       Raw data received
+     */
+    public void receive(@NotNull Connection connection, @NotNull ByteBuffer data) {
+        int marker = data.hasRemaining() ? data.get(data.position()) : -1;
+        if (marker == Fragments.MARKER || marker == Compression.MARKER) {
+            byte[] bytes = toByteArray(data);
+            if (Fragments.isFragment(bytes)) {
+                if (!connection.isFragmentationEnabled()) {
+                    Guithium.logger.warn("Received fragment without negotiating fragmentation");
+                    this.metrics.dropped(connection.getPlayerUUID(), null, DropReason.MALFORMED);
+                    return;
+                }
+                try {
+                    bytes = connection.getFragments().receive(bytes, connection.getPlayerUUID() != null
+                            ? Fragments.MAX_SERVERBOUND_SIZE
+                            : Fragments.MAX_SIZE);
+                } catch (IllegalStateException e) {
+                    Guithium.logger.warn("Received malformed fragment", e);
+                    this.metrics.dropped(connection.getPlayerUUID(), null, DropReason.MALFORMED);
+                    return;
+                }
+                if (bytes == null) {
+                    return; // waiting for more fragments
+                }
+            }
+            if (Compression.isCompressed(bytes)) {
+                if (!connection.isCompressionEnabled()) {
+                    Guithium.logger.warn("Received compressed packet without negotiating compression");
+                    this.metrics.dropped(connection.getPlayerUUID(), null, DropReason.MALFORMED);
+                    return;
+                }
+                try {
+                    // only the server knows the player, and players have no business sending big packets
+                    bytes = Compression.decompress(bytes, connection.getPlayerUUID() != null
+                            ? Compression.MAX_SERVERBOUND_SIZE
+                            : Compression.MAX_SIZE);
+                } catch (IllegalStateException e) {
+                    Guithium.logger.warn("Received malformed compressed packet", e);
+                    this.metrics.dropped(connection.getPlayerUUID(), null, DropReason.MALFORMED);
+                    return;
+                }
+            }
+            data = ByteBuffer.wrap(bytes);
+        }
+        if (Batch.isBatch(data)) {
+            List<ByteBuffer> batch;
+            try {
+                batch = Batch.read(data);
+            } catch (IllegalStateException e) {
+                Guithium.logger.warn("Received malformed batch", e);
+                this.metrics.dropped(connection.getPlayerUUID(), null, DropReason.MALFORMED);
+                return;
+            }
+            for (ByteBuffer packet : batch) {
+                dispatch(connection, packet);
+            }
+            return;
+        }
+        dispatch(connection, data);
+    }
+
+    /**
+     * Read a single packet from raw data and let the connection's listener handle it.
+     *
+     * @param connection Connection the data was received on
+     * @param data       Raw packet data
+     */
+    protected void dispatch(@NotNull Connection connection, @NotNull ByteBuffer data) {
+        int bytes = data.remaining();
+        long start = this.metrics.isEnabled() ? System.nanoTime() : 0;
+        Packet packet;
+        try {
+            packet = data.hasRemaining() && data.get(data.position()) == ID_MARKER
+                    ? getPacketById(connection, Packet.in(data))
+                    : getPacket(connection, Packet.in(data));
+        } catch (RuntimeException e) {
+            // bad keys, bad json and missing fields all surface as different exceptions
+            Guithium.logger.warn("Received malformed packet", e);
+            this.metrics.dropped(connection.getPlayerUUID(), null, DropReason.MALFORMED);
+            return;
+        }
+        if (packet == null) {
+            return;
+        }
+        if (start != 0) {
+            this.metrics.received(connection.getPlayerUUID(), packet.getKey(), bytes, System.nanoTime() - start);
+        }
+        handle(connection, packet);
+    }
+
+    /**
+     * Let the connection's listener handle a received packet.
+     * <p>
+     * Platforms override this to hand packets over to another thread.
+     *
+     * @param connection Connection the packet was received on
+     * @param packet     Packet to handle
+     */
+    protected void handle(@NotNull Connection connection, @NotNull Packet packet) {
+        packet.handle(connection.getPacketListener());
+    }
+
+    /**
+     * Get the key of the packet in raw data without decoding it.
+     *
+     * @param data Raw packet data
+     * @return Key of the packet, or null if not recognized
+     */
+    @Nullable
+    protected Key peekKey(@NotNull ByteBuffer data) {
+        try {
+            ByteArrayDataInput in = Packet.in(data.duplicate());
+            if (data.hasRemaining() && data.get(data.position()) == ID_MARKER) {
+                in.skipBytes(1); // id marker
+                int id = Binary.readVarInt(in);
+                return id < 0 || id >= this.packetKeys.size() ? null : this.packetKeys.get(id);
+            }
+            in.skipBytes(Integer.BYTES); // protocol
+            return Key.of(in.readUTF());
+        } catch (RuntimeException e) {
+            return null;
         }
     }
 
+    private static byte[] toByteArray(@NotNull ByteBuffer data) {
+        if (data.hasArray() && data.arrayOffset() == 0 && data.position() == 0 && data.remaining() == data.array().length) {
+            return data.array();
+        }
+        byte[] bytes = new byte[data.remaining()];
+        data.get(bytes);
+        return bytes;
+    }
+
     /**
      * Get the packet from the raw input data.
      *
-     * @param in Raw input data
+     * @param connection Connection the data was received on
+     * @param in         Raw input data
      * @return The packet for the data, or null if not recognized
      */
     @Nullable
-    protected Packet getPacket(@NotNull ByteArrayDataInput in) {
-        // verify protocol
+    protected Packet getPacket(@NotNull Connection connection, @NotNull ByteArrayDataInput in) {
+        // verify protocol, newer versions stay compatible by negotiating capabilities instead
         int protocol = in.readInt();
-        if (protocol != Guithium.PROTOCOL) {
+        if (protocol < Guithium.MIN_PROTOCOL) {
             Guithium.logger.warn("Received packet with invalid protocol ({}) from server", protocol);
+            this.metrics.dropped(connection.getPlayerUUID(), null, DropReason.PROTOCOL_MISMATCH);
             return null;
         }
 
         // get registered packet handler
         Key packetId = Key.of(in.readUTF());
-        Function<ByteArrayDataInput, ? extends Packet> function = this.packets.get(packetId);
+        BiFunction<ByteArrayDataInput, Codec, ? extends Packet> function = this.packets.get(packetId);
         if (function == null) {
             Guithium.logger.warn("Received unknown packet ({}) from player", packetId);
+            // not keyed by the packet, anyone can make up endless keys that would all be remembered
+            this.metrics.dropped(connection.getPlayerUUID(), null, DropReason.UNKNOWN_PACKET);
+            return null;
+        }
+        return function.apply(in, connection.getCodec());
+    }
+
+    /**
+     * Get the packet from raw input data that is identified by numeric id.
+     *
+     * @param connection Connection the data was received on
+     * @param in         Raw input data
+     * @return The packet for the data, or null if not recognized
+     */
+    @Nullable
+    protected Packet getPacketById(@NotNull Connection connection, @NotNull ByteArrayDataInput in) {
+        in.skipBytes(1); // id marker
+        int id = Binary.readVarInt(in);
+        if (id < 0 || id >= this.packetsById.size()) {
+            Guithium.logger.warn("Received unknown packet id ({})", id);
+            this.metrics.dropped(connection.getPlayerUUID(), null, DropReason.UNKNOWN_PACKET);
             return null;
         }
-        return function.apply(in);
+        return this.packetsById.get(id).apply(in, connection.getCodec());
     }
 }
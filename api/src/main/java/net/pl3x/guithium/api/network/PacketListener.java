@@ -6,8 +6,12 @@ import net.pl3x.guithium.api.network.packet.CloseScreenPacket;
 import net.pl3x.guithium.api.network.packet.ElementChangedValuePacket;
 import net.pl3x.guithium.api.network.packet.ElementClickedPacket;
 import net.pl3x.guithium.api.network.packet.ElementPacket;
+import net.pl3x.guithium.api.network.packet.ElementPatchPacket;
 import net.pl3x.guithium.api.network.packet.HelloPacket;
+import net.pl3x.guithium.api.network.packet.OpenCachedScreenPacket;
 import net.pl3x.guithium.api.network.packet.OpenScreenPacket;
+import net.pl3x.guithium.api.network.packet.PrefetchTexturesPacket;
+import net.pl3x.guithium.api.network.packet.ScreenCacheMissPacket;
 import net.pl3x.guithium.api.network.packet.TexturesPacket;
 import org.jetbrains.annotations.NotNull;
 
@@ -39,6 +43,13 @@ public interface PacketListener {
      */
     void handleElement(@NotNull ElementPacket packet);
 
+    /**
+     * Handle element patch packet.
+     *
+     * @param packet Element patch packet to handle
+     */
+    void handleElementPatch(@NotNull ElementPatchPacket packet);
+
     /**
      * Handle open screen packet.
      *
@@ -66,4 +77,25 @@ public interface PacketListener {
      * @param packet Hello packet to handle
      */
     void handleHello(@NotNull HelloPacket packet);
+
+    /**
+     * Handle open cached screen packet.
+     *
+     * @param packet Open cached screen packet to handle
+     */
+    void handleOpenCachedScreen(@NotNull OpenCachedScreenPacket packet);
+
+    /**
+     * Handle screen cache miss packet.
+     *
+     * @param packet Screen cache miss packet to handle
+     */
+    void handleScreenCacheMiss(@NotNull ScreenCacheMissPacket packet);
+
+    /**
+     * Handle prefetch textures packet.
+     *
+     * @param packet Prefetch textures packet to handle
+     */
+    void handlePrefetchTextures(@NotNull PrefetchTexturesPacket packet);
 }
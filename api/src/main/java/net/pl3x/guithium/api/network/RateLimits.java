@@ -0,0 +1,158 @@
+package net.pl3x.guithium.api.network;
+
+import com.google.common.base.Preconditions;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.pl3x.guithium.api.gui.element.Element;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.packet.CloseScreenPacket;
+import net.pl3x.guithium.api.network.packet.ElementChangedValuePacket;
+import net.pl3x.guithium.api.network.packet.ElementClickedPacket;
+import net.pl3x.guithium.api.network.packet.HelloPacket;
+import net.pl3x.guithium.api.network.packet.ScreenCacheMissPacket;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents how many packets each player may send, per plugin message, per packet type and per element.
+ * <p>
+ * Packets over the limit are dropped before they reach the server's main thread.
+ */
+public class RateLimits {
+    private final Map<Key, Limit> packets = new ConcurrentHashMap<>();
+    private final Map<Key, Limit> elements = new ConcurrentHashMap<>();
+    private volatile Limit messages = new Limit(100, 200);
+
+    /**
+     * Create a new set of rate limits with sensible defaults for every packet type.
+     */
+    public RateLimits() {
+        this.packets.put(ElementClickedPacket.KEY, new Limit(20, 40));
+        this.packets.put(ElementChangedValuePacket.KEY, new Limit(40, 80));
+        this.packets.put(CloseScreenPacket.KEY, new Limit(10, 20));
+        this.packets.put(HelloPacket.KEY, new Limit(1, 3));
+        this.packets.put(ScreenCacheMissPacket.KEY, new Limit(5, 10));
+    }
+
+    /**
+     * Get the limit for raw plugin messages of any kind.
+     * <p>
+     * This is charged for every message before it is reassembled or decompressed,
+     * so a player cannot make the server do that work for free.
+     *
+     * @return Plugin message limit
+     */
+    @NotNull
+    public Limit getMessageLimit() {
+        return this.messages;
+    }
+
+    /**
+     * Set the limit for raw plugin messages of any kind, per player.
+     * <p>
+     * This is on top of the limit for the packet type.
+     *
+     * @param perSecond Messages allowed per second on average
+     * @param burst     Messages allowed at once
+     */
+    public void setMessageLimit(double perSecond, int burst) {
+        this.messages = new Limit(perSecond, burst);
+    }
+
+    /**
+     * Get the limit for a packet type.
+     *
+     * @param packet Key of packet type
+     * @return Packet type limit, or null if not limited
+     */
+    @Nullable
+    public Limit getPacketLimit(@NotNull Key packet) {
+        return this.packets.get(packet);
+    }
+
+    /**
+     * Set the limit for a packet type, per player.
+     *
+     * @param packet    Key of packet type
+     * @param perSecond Packets allowed per second on average
+     * @param burst     Packets allowed at once
+     */
+    public void setPacketLimit(@NotNull Key packet, double perSecond, int burst) {
+        this.packets.put(packet, new Limit(perSecond, burst));
+    }
+
+    /**
+     * Remove the limit for a packet type.
+     *
+     * @param packet Key of packet type
+     */
+    public void removePacketLimit(@NotNull Key packet) {
+        this.packets.remove(packet);
+    }
+
+    /**
+     * Get the limit for an element.
+     *
+     * @param element Key of element
+     * @return Element limit, or null if not limited
+     */
+    @Nullable
+    public Limit getElementLimit(@NotNull Key element) {
+        return this.elements.get(element);
+    }
+
+    /**
+     * Set the limit for clicks and value changes of an element, per player.
+     * <p>
+     * This is on top of the limit for the packet type.
+     *
+     * @param element   Element to limit
+     * @param perSecond Packets allowed per second on average
+     * @param burst     Packets allowed at once
+     */
+    public void setElementLimit(@NotNull Element element, double perSecond, int burst) {
+        setElementLimit(element.getKey(), perSecond, burst);
+    }
+
+    /**
+     * Set the limit for clicks and value changes of an element, per player.
+     * <p>
+     * This is on top of the limit for the packet type.
+     *
+     * @param element   Key of element to limit
+     * @param perSecond Packets allowed per second on average
+     * @param burst     Packets allowed at once
+     */
+    public void setElementLimit(@NotNull Key element, double perSecond, int burst) {
+        this.elements.put(element, new Limit(perSecond, burst));
+    }
+
+    /**
+     * Remove the limit for an element.
+     *
+     * @param element Key of element
+     */
+    public void removeElementLimit(@NotNull Key element) {
+        this.elements.remove(element);
+    }
+
+    /**
+     * Represents a token bucket limit.
+     *
+     * @param perSecond Events allowed per second on average
+     * @param burst     Events allowed at once
+     */
+    public record Limit(double perSecond, int burst) {
+        /**
+         * Create a new limit.
+         *
+         * @param perSecond Events allowed per second on average
+         * @param burst     Events allowed at once
+         * @throws IllegalArgumentException if perSecond is negative or burst is less than 1
+         */
+        public Limit {
+            Preconditions.checkArgument(perSecond >= 0, "Rate cannot be negative");
+            Preconditions.checkArgument(burst >= 1, "Burst must be at least 1");
+        }
+    }
+}
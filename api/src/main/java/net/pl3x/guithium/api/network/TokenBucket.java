@@ -0,0 +1,56 @@
+package net.pl3x.guithium.api.network;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a token bucket that limits how often something may happen.
+ * <p>
+ * The bucket holds up to {@link RateLimits.Limit#burst() burst} tokens and refills at
+ * {@link RateLimits.Limit#perSecond() perSecond} tokens per second. Each event takes one token.
+ * <p>
+ * Token buckets are not thread safe.
+ */
+public class TokenBucket {
+    private RateLimits.Limit limit;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Create a new full token bucket.
+     *
+     * @param limit Limit of the bucket
+     */
+    public TokenBucket(@NotNull RateLimits.Limit limit) {
+        this.limit = limit;
+        this.tokens = limit.burst();
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Try to take a token from this bucket.
+     *
+     * @param limit Current limit, in case it was changed since the bucket was created
+     * @return {@code true} if a token was taken, otherwise {@code false} if the limit is exceeded
+     */
+    public boolean tryAcquire(@NotNull RateLimits.Limit limit) {
+        this.limit = limit;
+        long now = System.nanoTime();
+        this.tokens = Math.min(limit.burst(), this.tokens + (now - this.lastRefill) * limit.perSecond() / 1_000_000_000D);
+        this.lastRefill = now;
+        if (this.tokens < 1) {
+            return false;
+        }
+        this.tokens--;
+        return true;
+    }
+
+    /**
+     * Get the limit of this bucket.
+     *
+     * @return Bucket limit
+     */
+    @NotNull
+    public RateLimits.Limit getLimit() {
+        return this.limit;
+    }
+}
@@ -0,0 +1,314 @@
+package net.pl3x.guithium.api.network.codec;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import java.nio.charset.StandardCharsets;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.gson.GsonComponentSerializer;
+import net.pl3x.guithium.api.gui.Vec2;
+import net.pl3x.guithium.api.gui.Vec4;
+import net.pl3x.guithium.api.key.Key;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents some conveniences for reading and writing the {@link Codec#BINARY binary codec}.
+ */
+public abstract class Binary {
+    private Binary() {
+        // Empty constructor to pacify javadoc lint
+    }
+
+    /**
+     * Floats with a whole value in this range are packed into a varint.
+     */
+    private static final int PACKED_FLOAT_LIMIT = 1 << 27;
+
+    /**
+     * Most bytes a string may take, the same limit {@link java.io.DataOutput#writeUTF(String)} has.
+     */
+    public static final int MAX_STRING_LENGTH = 65535;
+
+    /**
+     * Create a bitmask of which values are present (not null).
+     * <p>
+     * Bit <code>n</code> is set when value <code>n</code> is not null.
+     *
+     * @param values Values to check
+     * @return Bitmask of present values
+     */
+    public static int mask(@Nullable Object... values) {
+        int mask = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Create a bitmask of which values changed after a version.
+     * <p>
+     * Bit <code>n</code> is set when the change stamp of value <code>n</code> is newer than <code>since</code>.
+     *
+     * @param changes Change stamps of values
+     * @param since   Version to compare against, or <code>-1</code> for all values
+     * @return Bitmask of changed values
+     */
+    public static int changed(int[] changes, int since) {
+        int mask = 0;
+        for (int i = 0; i < changes.length; i++) {
+            if (changes[i] > since) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Check if a bit is set in a bitmask.
+     *
+     * @param mask Bitmask to check
+     * @param bit  Bit index to check
+     * @return {@code true} if bit is set, otherwise {@code false}
+     */
+    public static boolean has(int mask, int bit) {
+        return (mask & (1 << bit)) != 0;
+    }
+
+    /**
+     * Write a variable length int. Small positive numbers use less bytes.
+     *
+     * @param out   Output to write to
+     * @param value Value to write
+     */
+    public static void writeVarInt(@NotNull ByteArrayDataOutput out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Read a variable length int.
+     *
+     * @param in Input to read from
+     * @return Value read
+     * @throws IllegalStateException if varint is too big
+     */
+    public static int readVarInt(@NotNull ByteArrayDataInput in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("VarInt too big");
+    }
+
+    /**
+     * Get how many bytes a variable length int takes.
+     *
+     * @param value Value to measure
+     * @return Size in bytes
+     */
+    public static int sizeOfVarInt(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Write a float. Whole numbers (most positions and sizes) are packed into a varint.
+     *
+     * @param out   Output to write to
+     * @param value Value to write
+     */
+    public static void writeFloat(@NotNull ByteArrayDataOutput out, float value) {
+        int whole = (int) value;
+        // -0.0 equals 0 but would lose its sign when packed
+        if (whole == value && whole > -PACKED_FLOAT_LIMIT && whole < PACKED_FLOAT_LIMIT
+                && (whole != 0 || Float.floatToRawIntBits(value) == 0)) {
+            // zigzag so small negative numbers stay small, low bit clear means packed
+            writeVarInt(out, ((whole << 1) ^ (whole >> 31)) << 1);
+        } else {
+            writeVarInt(out, 1);
+            out.writeFloat(value);
+        }
+    }
+
+    /**
+     * Read a float.
+     *
+     * @param in Input to read from
+     * @return Value read
+     */
+    public static float readFloat(@NotNull ByteArrayDataInput in) {
+        int packed = readVarInt(in);
+        if ((packed & 1) != 0) {
+            return in.readFloat();
+        }
+        int zigzag = packed >>> 1;
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    /**
+     * Write an ARGB color.
+     *
+     * @param out   Output to write to
+     * @param color Color to write
+     */
+    public static void writeColor(@NotNull ByteArrayDataOutput out, int color) {
+        // colors almost always have the high alpha bits set, so a fixed 4 bytes beats a varint
+        out.writeInt(color);
+    }
+
+    /**
+     * Read an ARGB color.
+     *
+     * @param in Input to read from
+     * @return Color read
+     */
+    public static int readColor(@NotNull ByteArrayDataInput in) {
+        return in.readInt();
+    }
+
+    /**
+     * Write a string.
+     * <p>
+     * Unlike {@link ByteArrayDataOutput#writeUTF(String)} this is plain UTF-8 with a varint length,
+     * but it has the same limit of {@link #MAX_STRING_LENGTH} bytes.
+     *
+     * @param out   Output to write to
+     * @param value Value to write
+     * @throws IllegalStateException if value is longer than {@link #MAX_STRING_LENGTH} bytes
+     */
+    public static void writeString(@NotNull ByteArrayDataOutput out, @NotNull String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_LENGTH) {
+            throw new IllegalStateException("String too long (" + bytes.length + " > " + MAX_STRING_LENGTH + " bytes)");
+        }
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a string.
+     *
+     * @param in Input to read from
+     * @return Value read
+     * @throws IllegalStateException if length is negative, too long, or more than the bytes left in the input
+     */
+    @NotNull
+    public static String readString(@NotNull ByteArrayDataInput in) {
+        int length = readVarInt(in);
+        if (length < 0) {
+            throw new IllegalStateException("Negative string length " + length);
+        }
+        // the length comes from the other side, never allocate more than could possibly be real
+        if (length > MAX_STRING_LENGTH) {
+            throw new IllegalStateException("String too long (" + length + " > " + MAX_STRING_LENGTH + " bytes)");
+        }
+        if (in instanceof BufferInput buffer && length > buffer.remaining()) {
+            throw new IllegalStateException("String length " + length + " exceeds remaining " + buffer.remaining() + " bytes");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write a key.
+     *
+     * @param out Output to write to
+     * @param key Key to write
+     */
+    public static void writeKey(@NotNull ByteArrayDataOutput out, @NotNull Key key) {
+        writeString(out, key.toString());
+    }
+
+    /**
+     * Read a key.
+     *
+     * @param in Input to read from
+     * @return Key read
+     */
+    @NotNull
+    public static Key readKey(@NotNull ByteArrayDataInput in) {
+        return Key.of(readString(in));
+    }
+
+    /**
+     * Write a text component.
+     *
+     * @param out       Output to write to
+     * @param component Component to write
+     */
+    public static void writeComponent(@NotNull ByteArrayDataOutput out, @NotNull Component component) {
+        writeString(out, GsonComponentSerializer.gson().serialize(component));
+    }
+
+    /**
+     * Read a text component.
+     *
+     * @param in Input to read from
+     * @return Component read
+     */
+    @NotNull
+    public static Component readComponent(@NotNull ByteArrayDataInput in) {
+        return GsonComponentSerializer.gson().deserialize(readString(in));
+    }
+
+    /**
+     * Write a 2D vector.
+     *
+     * @param out Output to write to
+     * @param vec Vector to write
+     */
+    public static void writeVec2(@NotNull ByteArrayDataOutput out, @NotNull Vec2 vec) {
+        writeFloat(out, vec.getX());
+        writeFloat(out, vec.getY());
+    }
+
+    /**
+     * Read a 2D vector.
+     *
+     * @param in Input to read from
+     * @return Vector read
+     */
+    @NotNull
+    public static Vec2 readVec2(@NotNull ByteArrayDataInput in) {
+        return Vec2.of(readFloat(in), readFloat(in));
+    }
+
+    /**
+     * Write a 4D vector.
+     *
+     * @param out Output to write to
+     * @param vec Vector to write
+     */
+    public static void writeVec4(@NotNull ByteArrayDataOutput out, @NotNull Vec4 vec) {
+        writeFloat(out, vec.getX());
+        writeFloat(out, vec.getY());
+        writeFloat(out, vec.getZ());
+        writeFloat(out, vec.getW());
+    }
+
+    /**
+     * Read a 4D vector.
+     *
+     * @param in Input to read from
+     * @return Vector read
+     */
+    @NotNull
+    public static Vec4 readVec4(@NotNull ByteArrayDataInput in) {
+        return Vec4.of(readFloat(in), readFloat(in), readFloat(in), readFloat(in));
+    }
+}
@@ -0,0 +1,16 @@
+package net.pl3x.guithium.api.network.codec;
+
+import com.google.common.io.ByteArrayDataOutput;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents an object that can be written with the {@link Codec#BINARY binary codec}.
+ */
+public interface BinarySerializable {
+    /**
+     * Write this object to the output.
+     *
+     * @param out Output to write to
+     */
+    void write(@NotNull ByteArrayDataOutput out);
+}
@@ -0,0 +1,163 @@
+package net.pl3x.guithium.api.network.codec;
+
+import com.google.common.io.ByteArrayDataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents an input that reads directly from a {@link ByteBuffer} without copying it.
+ * <p>
+ * Like {@link com.google.common.io.ByteStreams#newDataInput(byte[])} this throws
+ * {@link IllegalStateException} when reading past the end of the buffer.
+ */
+public class BufferInput implements ByteArrayDataInput {
+    private final ByteBuffer buffer;
+
+    /**
+     * Create a new input reading the remaining bytes of a buffer.
+     * <p>
+     * Reading advances the position of the buffer.
+     *
+     * @param buffer Buffer to read from
+     */
+    public BufferInput(@NotNull ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Get the buffer this input reads from.
+     *
+     * @return Backing buffer
+     */
+    @NotNull
+    public ByteBuffer getBuffer() {
+        return this.buffer;
+    }
+
+    /**
+     * Get the number of bytes left to read.
+     *
+     * @return Remaining bytes
+     */
+    public int remaining() {
+        return this.buffer.remaining();
+    }
+
+    private void require(int bytes) {
+        if (this.buffer.remaining() < bytes) {
+            throw new IllegalStateException(new EOFException());
+        }
+    }
+
+    @Override
+    public void readFully(byte[] bytes) {
+        readFully(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void readFully(byte[] bytes, int off, int len) {
+        require(len);
+        this.buffer.get(bytes, off, len);
+    }
+
+    @Override
+    public int skipBytes(int n) {
+        int skip = Math.max(0, Math.min(n, this.buffer.remaining()));
+        this.buffer.position(this.buffer.position() + skip);
+        return skip;
+    }
+
+    @Override
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    @Override
+    public byte readByte() {
+        require(Byte.BYTES);
+        return this.buffer.get();
+    }
+
+    @Override
+    public int readUnsignedByte() {
+        return readByte() & 0xFF;
+    }
+
+    @Override
+    public short readShort() {
+        require(Short.BYTES);
+        return this.buffer.getShort();
+    }
+
+    @Override
+    public int readUnsignedShort() {
+        return readShort() & 0xFFFF;
+    }
+
+    @Override
+    public char readChar() {
+        require(Character.BYTES);
+        return this.buffer.getChar();
+    }
+
+    @Override
+    public int readInt() {
+        require(Integer.BYTES);
+        return this.buffer.getInt();
+    }
+
+    @Override
+    public long readLong() {
+        require(Long.BYTES);
+        return this.buffer.getLong();
+    }
+
+    @Override
+    public float readFloat() {
+        require(Float.BYTES);
+        return this.buffer.getFloat();
+    }
+
+    @Override
+    public double readDouble() {
+        require(Double.BYTES);
+        return this.buffer.getDouble();
+    }
+
+    @Override
+    @Nullable
+    public String readLine() {
+        if (!this.buffer.hasRemaining()) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        while (this.buffer.hasRemaining()) {
+            char c = (char) (this.buffer.get() & 0xFF);
+            if (c == '\n') {
+                break;
+            }
+            if (c == '\r') {
+                if (this.buffer.hasRemaining() && this.buffer.get(this.buffer.position()) == '\n') {
+                    this.buffer.get();
+                }
+                break;
+            }
+            line.append(c);
+        }
+        return line.toString();
+    }
+
+    @Override
+    @NotNull
+    public String readUTF() {
+        try {
+            return DataInputStream.readUTF(this);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
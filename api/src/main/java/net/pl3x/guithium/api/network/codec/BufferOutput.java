@@ -0,0 +1,227 @@
+package net.pl3x.guithium.api.network.codec;
+
+import com.google.common.io.ByteArrayDataOutput;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a growable output that exposes its backing array, so the written bytes
+ * can be used without the copy made by {@link #toByteArray()}.
+ * <p>
+ * The output can be {@link #reset() reset} and reused, keeping the array it already grew.
+ */
+public class BufferOutput implements ByteArrayDataOutput {
+    private final Buffer buffer;
+    private final DataOutputStream out;
+
+    /**
+     * Create a new output.
+     */
+    public BufferOutput() {
+        this(256);
+    }
+
+    /**
+     * Create a new output.
+     *
+     * @param size Initial size of the backing array
+     */
+    public BufferOutput(int size) {
+        this.buffer = new Buffer(size);
+        this.out = new DataOutputStream(this.buffer);
+    }
+
+    /**
+     * Get the backing array of this output.
+     * <p>
+     * Only the first {@link #size()} bytes were written. The array is replaced when the output grows.
+     *
+     * @return Backing array
+     */
+    public byte[] array() {
+        return this.buffer.array();
+    }
+
+    /**
+     * Get the number of bytes written to this output.
+     *
+     * @return Number of bytes written
+     */
+    public int size() {
+        return this.buffer.size();
+    }
+
+    /**
+     * Get the length of the backing array of this output.
+     *
+     * @return Capacity in bytes
+     */
+    public int capacity() {
+        return this.buffer.array().length;
+    }
+
+    /**
+     * Get how many times the backing array had to grow since this output was created or {@link #reset() reset}.
+     *
+     * @return Number of growths
+     */
+    public int getGrowths() {
+        return this.buffer.growths;
+    }
+
+    /**
+     * Get a read-only view of the bytes written to this output.
+     *
+     * @return Buffer of written bytes
+     */
+    @NotNull
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(array(), 0, size()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Discard everything written, keeping the backing array for reuse.
+     */
+    public void reset() {
+        this.buffer.reset();
+        this.buffer.growths = 0;
+    }
+
+    @Override
+    public void write(int b) {
+        this.buffer.write(b);
+    }
+
+    @Override
+    public void write(byte[] b) {
+        this.buffer.write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        this.buffer.write(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(boolean v) {
+        this.buffer.write(v ? 1 : 0);
+    }
+
+    @Override
+    public void writeByte(int v) {
+        this.buffer.write(v);
+    }
+
+    @Override
+    public void writeShort(int v) {
+        try {
+            this.out.writeShort(v);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void writeChar(int v) {
+        try {
+            this.out.writeChar(v);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void writeInt(int v) {
+        try {
+            this.out.writeInt(v);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void writeLong(long v) {
+        try {
+            this.out.writeLong(v);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void writeFloat(float v) {
+        writeInt(Float.floatToIntBits(v));
+    }
+
+    @Override
+    public void writeDouble(double v) {
+        writeLong(Double.doubleToLongBits(v));
+    }
+
+    @Override
+    public void writeChars(@NotNull String s) {
+        try {
+            this.out.writeChars(s);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void writeUTF(@NotNull String s) {
+        try {
+            this.out.writeUTF(s);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    @Deprecated
+    public void writeBytes(@NotNull String s) {
+        try {
+            this.out.writeBytes(s);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        return Arrays.copyOf(array(), size());
+    }
+
+    private static class Buffer extends ByteArrayOutputStream {
+        private int growths;
+
+        private Buffer(int size) {
+            super(size);
+        }
+
+        @Override
+        public void write(int b) {
+            int capacity = this.buf.length;
+            super.write(b);
+            if (this.buf.length != capacity) {
+                this.growths++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            int capacity = this.buf.length;
+            super.write(b, off, len);
+            if (this.buf.length != capacity) {
+                this.growths++;
+            }
+        }
+
+        private byte[] array() {
+            return this.buf;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package net.pl3x.guithium.api.network.codec;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a per-thread pool of {@link BufferOutput}s, so encoding packets does not allocate new buffers.
+ * <p>
+ * Buffers that are never {@link #release(BufferOutput) released} are simply garbage collected.
+ */
+public abstract class BufferPool {
+    private BufferPool() {
+        // Empty constructor to pacify javadoc lint
+    }
+
+    /**
+     * Most buffers kept per thread.
+     */
+    public static final int MAX_POOLED = 4;
+
+    /**
+     * Buffers that grew bigger than this are not kept, so one huge packet does not pin its memory forever.
+     */
+    public static final int MAX_POOLED_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<Deque<BufferOutput>> POOL = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+    private static final LongAdder GROWTHS = new LongAdder();
+
+    /**
+     * Get an empty buffer from this thread's pool, or a new buffer if the pool is empty.
+     *
+     * @return Empty buffer
+     */
+    @NotNull
+    public static BufferOutput acquire() {
+        BufferOutput buffer = POOL.get().pollFirst();
+        if (buffer == null) {
+            MISSES.increment();
+            return new BufferOutput();
+        }
+        HITS.increment();
+        return buffer;
+    }
+
+    /**
+     * Return a buffer to this thread's pool.
+     * <p>
+     * The buffer must not be used after it is released.
+     *
+     * @param buffer Buffer to release
+     */
+    public static void release(@NotNull BufferOutput buffer) {
+        GROWTHS.add(buffer.getGrowths());
+        if (buffer.capacity() > MAX_POOLED_SIZE) {
+            return;
+        }
+        Deque<BufferOutput> pool = POOL.get();
+        if (pool.size() < MAX_POOLED) {
+            buffer.reset();
+            pool.offerFirst(buffer);
+        }
+    }
+
+    /**
+     * Get how many times a pooled buffer was reused.
+     *
+     * @return Number of pool hits
+     */
+    public static long getHits() {
+        return HITS.sum();
+    }
+
+    /**
+     * Get how many times a new buffer had to be created because the pool was empty.
+     *
+     * @return Number of pool misses
+     */
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Get how many times released buffers had to grow their backing array.
+     *
+     * @return Number of buffer growths
+     */
+    public static long getGrowths() {
+        return GROWTHS.sum();
+    }
+}
@@ -0,0 +1,58 @@
+package net.pl3x.guithium.api.network.codec;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents the wire format used for screens, elements and textures.
+ * <p>
+ * Both sides advertise the newest codec they understand in the
+ * {@link net.pl3x.guithium.api.network.packet.HelloPacket} and the
+ * best codec supported by both is used from then on.
+ */
+public enum Codec {
+    /**
+     * Json strings. Understood by every Guithium version.
+     */
+    JSON(0),
+    /**
+     * Compact binary encoding with type tags, varints and optional field bitmasks.
+     */
+    BINARY(1);
+
+    /**
+     * The newest codec this version of Guithium understands.
+     */
+    public static final Codec LATEST = BINARY;
+
+    private final int version;
+
+    Codec(int version) {
+        this.version = version;
+    }
+
+    /**
+     * Get the version number of this codec as sent over the wire.
+     *
+     * @return Codec version
+     */
+    public int getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Get the best codec that is supported by both us and the remote side.
+     *
+     * @param remote Newest codec version the remote side understands
+     * @return Best shared codec
+     */
+    @NotNull
+    public static Codec negotiate(int remote) {
+        Codec best = JSON;
+        for (Codec codec : values()) {
+            if (codec.getVersion() <= remote && codec.getVersion() > best.getVersion()) {
+                best = codec;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,246 @@
+package net.pl3x.guithium.api.network.codec;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import java.util.List;
+import java.util.zip.Adler32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.pl3x.guithium.api.Guithium;
+import net.pl3x.guithium.api.gui.Screen;
+import net.pl3x.guithium.api.gui.Vec2;
+import net.pl3x.guithium.api.gui.element.Button;
+import net.pl3x.guithium.api.gui.element.Checkbox;
+import net.pl3x.guithium.api.gui.element.Circle;
+import net.pl3x.guithium.api.gui.element.Gradient;
+import net.pl3x.guithium.api.gui.element.Image;
+import net.pl3x.guithium.api.gui.element.Line;
+import net.pl3x.guithium.api.gui.element.Radio;
+import net.pl3x.guithium.api.gui.element.Slider;
+import net.pl3x.guithium.api.gui.element.Text;
+import net.pl3x.guithium.api.gui.element.Textbox;
+import net.pl3x.guithium.api.gui.texture.Texture;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.packet.OpenScreenPacket;
+
+/**
+ * Represents the optional compression stage for raw packet data.
+ * <p>
+ * Compressed frames start with {@link #MARKER}. Uncompressed frames always start with the
+ * protocol number, whose first byte is <code>0</code>, so both can be told apart without any state.
+ */
+public abstract class Compression {
+    private Compression() {
+        // Empty constructor to pacify javadoc lint
+    }
+
+    /**
+     * First byte of a compressed frame.
+     */
+    public static final int MARKER = 0x01;
+
+    /**
+     * Packets smaller than this many bytes are not worth compressing.
+     */
+    public static final int THRESHOLD = 256;
+
+    /**
+     * Compressed frames claiming to inflate to more than this many bytes are rejected.
+     */
+    public static final int MAX_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * Compressed frames from a client claiming to inflate to more than this many bytes are rejected.
+     * <p>
+     * Clients only ever send small packets, so there is no reason to let them make the server inflate megabytes.
+     */
+    public static final int MAX_SERVERBOUND_SIZE = 64 * 1024;
+
+    private static final int HEADER_SIZE = 5;
+
+    /**
+     * Preset dictionary both sides compress with, built from screens encoded the way they are really sent.
+     * <p>
+     * Deflate favors matches near the end of the dictionary, so the latest codec comes last.
+     */
+    private static final byte[] DICTIONARY = buildDictionary();
+
+    /**
+     * Identifier of the preset dictionary.
+     * <p>
+     * This is the Adler-32 checksum deflate already puts in the header of every frame compressed with it,
+     * and changes by itself whenever the way screens are encoded does.
+     */
+    public static final int DICTIONARY_ID = dictionaryId();
+
+    /**
+     * Compress raw packet data, if it is worth it.
+     *
+     * @param data Raw packet data
+     * @return Compressed frame, or the original data if compressing would not help
+     */
+    public static byte[] compress(byte[] data) {
+        if (data.length < THRESHOLD) {
+            return data;
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setDictionary(DICTIONARY);
+            deflater.setInput(data);
+            deflater.finish();
+            BufferOutput out = BufferPool.acquire();
+            out.writeByte(MARKER);
+            out.writeInt(data.length);
+            byte[] buffer = new byte[Math.min(data.length, 8192)];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            // only copy the frame out of the pooled buffer if it is worth sending
+            byte[] frame = out.size() < data.length ? out.toByteArray() : data;
+            BufferPool.release(out);
+            return frame;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Check if raw data is a compressed frame.
+     *
+     * @param data Raw data
+     * @return {@code true} if data is compressed, otherwise {@code false}
+     */
+    public static boolean isCompressed(byte[] data) {
+        return data.length > 0 && data[0] == MARKER;
+    }
+
+    /**
+     * Decompress a compressed frame back into raw packet data.
+     *
+     * @param frame Compressed frame
+     * @return Raw packet data
+     * @throws IllegalStateException if frame is malformed or too big
+     */
+    public static byte[] decompress(byte[] frame) {
+        return decompress(frame, MAX_SIZE);
+    }
+
+    /**
+     * Decompress a compressed frame back into raw packet data.
+     *
+     * @param frame   Compressed frame
+     * @param maxSize Most bytes the frame may inflate to
+     * @return Raw packet data
+     * @throws IllegalStateException if frame is malformed, too big, uses another dictionary or does not inflate to exactly its declared length
+     */
+    public static byte[] decompress(byte[] frame, int maxSize) {
+        if (frame.length < HEADER_SIZE) {
+            throw new IllegalStateException("Compressed packet too short (" + frame.length + ")");
+        }
+        ByteArrayDataInput in = ByteStreams.newDataInput(frame, 1);
+        int length = in.readInt();
+        if (length < 0 || length > maxSize) {
+            throw new IllegalStateException("Compressed packet too big (" + length + ")");
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(frame, HEADER_SIZE, frame.length - HEADER_SIZE);
+            byte[] data = new byte[length];
+            byte[] overflow = new byte[1];
+            int read = 0;
+            while (!inflater.finished()) {
+                // once the declared length is reached, any more output means the header lied
+                int count = read < length
+                        ? inflater.inflate(data, read, length - read)
+                        : inflater.inflate(overflow);
+                if (count == 0) {
+                    if (!inflater.needsDictionary()) {
+                        break;
+                    }
+                    if (inflater.getAdler() != DICTIONARY_ID) {
+                        // compressed against a dictionary from another version, it could never inflate right
+                        throw new IllegalStateException("Compressed packet uses unknown dictionary");
+                    }
+                    inflater.setDictionary(DICTIONARY);
+                }
+                read += count;
+            }
+            // the stream has to end exactly at the declared length, with nothing trailing it
+            if (read != length || !inflater.finished() || inflater.getRemaining() > 0) {
+                throw new IllegalStateException("Compressed packet has wrong length");
+            }
+            return data;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Malformed compressed packet", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] buildDictionary() {
+        Screen screen = new Screen(Key.of(Guithium.MOD_ID + ":screen"));
+        screen.addElements(List.of(
+                Button.of(Guithium.MOD_ID + ":button")
+                        .setPos(-50, 0)
+                        .setAnchor(0.5F, 0.5F)
+                        .setSize(Vec2.of(100, 20))
+                        .setLabel(Component.text("Button"))
+                        .setTooltip(Component.translatable("gui.done")),
+                Checkbox.of(Guithium.MOD_ID + ":checkbox")
+                        .setPos(10, 10)
+                        .setLabel("Checkbox")
+                        .setValue(true),
+                Circle.of(Guithium.MOD_ID + ":circle")
+                        .setPos(50, 50)
+                        .setRadius(20)
+                        .setInnerColor(0xFFFFFFFF)
+                        .setOuterColor(0xFF000000),
+                Gradient.of(Guithium.MOD_ID + ":gradient")
+                        .setSize(Vec2.of(100, 100))
+                        .setColorTop(0xFF000000)
+                        .setColorBottom(0x80000000),
+                Image.of(Guithium.MOD_ID + ":image")
+                        .setTexture(Texture.of(Guithium.MOD_ID + ":texture", "https://example.com/textures/gui/image.png"))
+                        .setSize(Vec2.of(16, 16))
+                        .setVertexColor(0xFFFFFFFF),
+                Line.of(Guithium.MOD_ID + ":line")
+                        .setPos(0, 0)
+                        .setEndPos(100, 100)
+                        .setWidth(1)
+                        .setStartColor(0xFFFFFFFF)
+                        .setEndColor(0xFFFFFFFF),
+                Radio.of(Guithium.MOD_ID + ":radio")
+                        .setGroup(Key.of(Guithium.MOD_ID + ":group"))
+                        .setLabel("Radio")
+                        .setValue(false),
+                Slider.of(Guithium.MOD_ID + ":slider")
+                        .setSize(Vec2.of(150, 20))
+                        .setMin(0D)
+                        .setMax(100D)
+                        .setDecimalFormat("0.0")
+                        .setValue(50D),
+                Text.of(Guithium.MOD_ID + ":text")
+                        .setText(Component.text("Text", NamedTextColor.WHITE))
+                        .setShadow(true),
+                Textbox.of(Guithium.MOD_ID + ":textbox")
+                        .setSize(Vec2.of(200, 20))
+                        .setSuggestion(Component.text("Textbox", NamedTextColor.GRAY))
+                        .setMaxLength(32)
+                        .setValue("")
+        ));
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.write(new OpenScreenPacket(screen).write(Codec.JSON).toByteArray());
+        out.write(new OpenScreenPacket(screen).write(Codec.BINARY).toByteArray());
+        return out.toByteArray();
+    }
+
+    private static int dictionaryId() {
+        Adler32 adler = new Adler32();
+        adler.update(DICTIONARY);
+        return (int) adler.getValue();
+    }
+}
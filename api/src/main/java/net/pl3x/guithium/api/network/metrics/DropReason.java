@@ -0,0 +1,39 @@
+package net.pl3x.guithium.api.network.metrics;
+
+/**
+ * Represents why a received packet was dropped instead of handled.
+ */
+public enum DropReason {
+    /**
+     * Packet was sent with a different protocol version.
+     */
+    PROTOCOL_MISMATCH,
+    /**
+     * Packet key or id is not registered.
+     */
+    UNKNOWN_PACKET,
+    /**
+     * Packet data could not be read.
+     */
+    MALFORMED,
+    /**
+     * Packet is not allowed to be sent in this direction.
+     */
+    UNEXPECTED,
+    /**
+     * Sender went over its rate limit.
+     */
+    RATE_LIMITED,
+    /**
+     * Sender had too many packets waiting to be decoded.
+     */
+    OVERLOADED,
+    /**
+     * Packet is about a screen or element the sender does not have open.
+     */
+    STALE,
+    /**
+     * Packet was replaced by a newer one for the same element before it was handled.
+     */
+    COALESCED
+}
@@ -0,0 +1,182 @@
+package net.pl3x.guithium.api.network.metrics;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import net.pl3x.guithium.api.key.Key;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a metrics sink that keeps running totals in memory.
+ * <p>
+ * Use {@link #snapshot()} to read the totals.
+ */
+public class InMemoryMetrics implements MetricsSink {
+    private final Map<Key, Counter> sent = new ConcurrentHashMap<>();
+    private final Map<Key, Counter> received = new ConcurrentHashMap<>();
+    private final Map<UUID, Counter> sentByPlayer = new ConcurrentHashMap<>();
+    private final Map<UUID, Counter> receivedByPlayer = new ConcurrentHashMap<>();
+    private final Map<DropReason, LongAdder> dropped = new ConcurrentHashMap<>();
+    private final Map<Key, EnumMap<DropReason, LongAdder>> droppedByPacket = new ConcurrentHashMap<>();
+    private final Map<UUID, EnumMap<DropReason, LongAdder>> droppedByPlayer = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new in-memory metrics sink.
+     */
+    public InMemoryMetrics() {
+        // Empty constructor to pacify javadoc lint
+    }
+
+    @Override
+    public void sent(@Nullable UUID player, @NotNull Key packet, int bytes, long nanos) {
+        this.sent.computeIfAbsent(packet, k -> new Counter()).add(bytes, nanos);
+        if (player != null) {
+            this.sentByPlayer.computeIfAbsent(player, k -> new Counter()).add(bytes, nanos);
+        }
+    }
+
+    @Override
+    public void received(@Nullable UUID player, @NotNull Key packet, int bytes, long nanos) {
+        this.received.computeIfAbsent(packet, k -> new Counter()).add(bytes, nanos);
+        if (player != null) {
+            this.receivedByPlayer.computeIfAbsent(player, k -> new Counter()).add(bytes, nanos);
+        }
+    }
+
+    @Override
+    public void dropped(@Nullable UUID player, @Nullable Key packet, @NotNull DropReason reason) {
+        this.dropped.computeIfAbsent(reason, k -> new LongAdder()).increment();
+        if (packet != null) {
+            this.droppedByPacket.computeIfAbsent(packet, k -> newDropCounters()).get(reason).increment();
+        }
+        if (player != null) {
+            this.droppedByPlayer.computeIfAbsent(player, k -> newDropCounters()).get(reason).increment();
+        }
+    }
+
+    @Override
+    public void forget(@NotNull UUID player) {
+        this.sentByPlayer.remove(player);
+        this.receivedByPlayer.remove(player);
+        this.droppedByPlayer.remove(player);
+    }
+
+    /**
+     * Forget everything recorded so far.
+     */
+    public void clear() {
+        this.sent.clear();
+        this.received.clear();
+        this.sentByPlayer.clear();
+        this.receivedByPlayer.clear();
+        this.dropped.clear();
+        this.droppedByPacket.clear();
+        this.droppedByPlayer.clear();
+    }
+
+    /**
+     * Get a copy of the totals recorded so far.
+     *
+     * @return Snapshot of recorded totals
+     */
+    @NotNull
+    public Snapshot snapshot() {
+        Map<DropReason, Long> dropped = new EnumMap<>(DropReason.class);
+        this.dropped.forEach((reason, count) -> dropped.put(reason, count.sum()));
+        return new Snapshot(
+                copy(this.sent),
+                copy(this.received),
+                copy(this.sentByPlayer),
+                copy(this.receivedByPlayer),
+                Map.copyOf(dropped),
+                copyDropped(this.droppedByPacket),
+                copyDropped(this.droppedByPlayer)
+        );
+    }
+
+    @NotNull
+    private static <K> Map<K, Stats> copy(@NotNull Map<K, Counter> counters) {
+        Map<K, Stats> copy = new HashMap<>();
+        counters.forEach((key, counter) -> copy.put(key, counter.stats()));
+        return Map.copyOf(copy);
+    }
+
+    @NotNull
+    private static <K> Map<K, Map<DropReason, Long>> copyDropped(@NotNull Map<K, EnumMap<DropReason, LongAdder>> counters) {
+        Map<K, Map<DropReason, Long>> copy = new HashMap<>();
+        counters.forEach((key, reasons) -> {
+            Map<DropReason, Long> dropped = new EnumMap<>(DropReason.class);
+            reasons.forEach((reason, count) -> {
+                long sum = count.sum();
+                if (sum > 0) {
+                    dropped.put(reason, sum);
+                }
+            });
+            copy.put(key, Map.copyOf(dropped));
+        });
+        return Map.copyOf(copy);
+    }
+
+    @NotNull
+    private static EnumMap<DropReason, LongAdder> newDropCounters() {
+        // every reason is filled in up front, so the map is never modified once other threads can see it
+        EnumMap<DropReason, LongAdder> counters = new EnumMap<>(DropReason.class);
+        for (DropReason reason : DropReason.values()) {
+            counters.put(reason, new LongAdder());
+        }
+        return counters;
+    }
+
+    /**
+     * Represents totals recorded for one packet type or player.
+     *
+     * @param count Number of packets
+     * @param bytes Total encoded size in bytes
+     * @param nanos Total time spent encoding or decoding in nanoseconds
+     */
+    public record Stats(long count, long bytes, long nanos) {
+    }
+
+    /**
+     * Represents a copy of all recorded totals.
+     *
+     * @param sent             Totals of sent packets by packet key
+     * @param received         Totals of received packets by packet key
+     * @param sentByPlayer     Totals of sent packets by player
+     * @param receivedByPlayer Totals of received packets by player
+     * @param dropped          Number of dropped packets by reason
+     * @param droppedByPacket  Number of dropped packets by packet key and reason, if the key was known
+     * @param droppedByPlayer  Number of dropped packets by player and reason
+     */
+    public record Snapshot(
+            @NotNull Map<Key, Stats> sent,
+            @NotNull Map<Key, Stats> received,
+            @NotNull Map<UUID, Stats> sentByPlayer,
+            @NotNull Map<UUID, Stats> receivedByPlayer,
+            @NotNull Map<DropReason, Long> dropped,
+            @NotNull Map<Key, Map<DropReason, Long>> droppedByPacket,
+            @NotNull Map<UUID, Map<DropReason, Long>> droppedByPlayer
+    ) {
+    }
+
+    private static class Counter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private void add(int bytes, long nanos) {
+            this.count.increment();
+            this.bytes.add(bytes);
+            this.nanos.add(nanos);
+        }
+
+        @NotNull
+        private Stats stats() {
+            return new Stats(this.count.sum(), this.bytes.sum(), this.nanos.sum());
+        }
+    }
+}
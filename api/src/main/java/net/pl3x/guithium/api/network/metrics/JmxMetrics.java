@@ -0,0 +1,169 @@
+package net.pl3x.guithium.api.network.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import net.pl3x.guithium.api.Guithium;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.BufferPool;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a metrics sink that keeps totals in memory and exposes them over JMX.
+ * <p>
+ * The totals show up as <code>net.pl3x.guithium:type=Network</code> in any JMX client.
+ */
+public class JmxMetrics extends InMemoryMetrics implements NetworkMetricsMXBean {
+    /**
+     * Name the metrics are registered under.
+     */
+    public static final String OBJECT_NAME = "net.pl3x.guithium:type=Network";
+
+    /**
+     * Create a new JMX metrics sink.
+     */
+    public JmxMetrics() {
+        // Empty constructor to pacify javadoc lint
+    }
+
+    /**
+     * Register this sink with the platform MBean server.
+     */
+    public void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            Guithium.logger.warn("Failed to register network metrics with JMX", e);
+        }
+    }
+
+    /**
+     * Unregister this sink from the platform MBean server.
+     */
+    public void unregister() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            Guithium.logger.warn("Failed to unregister network metrics from JMX", e);
+        }
+    }
+
+    @Override
+    @NotNull
+    public Map<String, Long> getPacketsSent() {
+        return byKey(snapshot().sent(), Stats::count);
+    }
+
+    @Override
+    @NotNull
+    public Map<String, Long> getBytesSent() {
+        return byKey(snapshot().sent(), Stats::bytes);
+    }
+
+    @Override
+    @NotNull
+    public Map<String, Long> getEncodeNanos() {
+        return byKey(snapshot().sent(), Stats::nanos);
+    }
+
+    @Override
+    @NotNull
+    public Map<String, Long> getPacketsReceived() {
+        return byKey(snapshot().received(), Stats::count);
+    }
+
+    @Override
+    @NotNull
+    public Map<String, Long> getBytesReceived() {
+        return byKey(snapshot().received(), Stats::bytes);
+    }
+
+    @Override
+    @NotNull
+    public Map<String, Long> getDecodeNanos() {
+        return byKey(snapshot().received(), Stats::nanos);
+    }
+
+    @Override
+    @NotNull
+    public Map<String, Long> getDropped() {
+        Map<String, Long> dropped = new HashMap<>();
+        snapshot().dropped().forEach((reason, count) -> dropped.put(reason.name(), count));
+        return dropped;
+    }
+
+    @Override
+    @NotNull
+    public Map<String, Map<String, Long>> getDroppedByPacket() {
+        return byReason(snapshot().droppedByPacket());
+    }
+
+    @Override
+    @NotNull
+    public Map<String, Map<String, Long>> getDroppedByPlayer() {
+        return byReason(snapshot().droppedByPlayer());
+    }
+
+    @Override
+    public int getPlayers() {
+        Snapshot snapshot = snapshot();
+        Set<UUID> players = new HashSet<>(snapshot.sentByPlayer().keySet());
+        players.addAll(snapshot.receivedByPlayer().keySet());
+        players.addAll(snapshot.droppedByPlayer().keySet());
+        return players.size();
+    }
+
+    @Override
+    public long getBufferPoolHits() {
+        return BufferPool.getHits();
+    }
+
+    @Override
+    public long getBufferPoolMisses() {
+        return BufferPool.getMisses();
+    }
+
+    @Override
+    public long getBufferGrowths() {
+        return BufferPool.getGrowths();
+    }
+
+    @Override
+    public void reset() {
+        clear();
+    }
+
+    @NotNull
+    private static Map<String, Long> byKey(@NotNull Map<Key, Stats> stats, @NotNull ToLongFunction<Stats> value) {
+        Map<String, Long> map = new HashMap<>();
+        stats.forEach((key, stat) -> map.put(key.toString(), value.applyAsLong(stat)));
+        return map;
+    }
+
+    @NotNull
+    private static Map<String, Map<String, Long>> byReason(@NotNull Map<?, Map<DropReason, Long>> dropped) {
+        Map<String, Map<String, Long>> map = new HashMap<>();
+        dropped.forEach((key, reasons) -> {
+            Map<String, Long> counts = new HashMap<>();
+            reasons.forEach((reason, count) -> counts.put(reason.name(), count));
+            map.put(key.toString(), counts);
+        });
+        return map;
+    }
+}
@@ -0,0 +1,52 @@
+package net.pl3x.guithium.api.network.metrics;
+
+import java.util.UUID;
+import net.pl3x.guithium.api.key.Key;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a destination for network metrics.
+ * <p>
+ * Sinks are called from network threads, so implementations must be thread safe.
+ *
+ * @see NetworkMetrics#addSink(MetricsSink)
+ */
+public interface MetricsSink {
+    /**
+     * Record a packet that was encoded to be sent.
+     *
+     * @param player Player the packet was sent to, or null if sent to the server
+     * @param packet Key of the packet
+     * @param bytes  Encoded size in bytes
+     * @param nanos  Time spent encoding in nanoseconds
+     */
+    void sent(@Nullable UUID player, @NotNull Key packet, int bytes, long nanos);
+
+    /**
+     * Record a packet that was received and decoded.
+     *
+     * @param player Player the packet was received from, or null if received from the server
+     * @param packet Key of the packet
+     * @param bytes  Encoded size in bytes
+     * @param nanos  Time spent decoding in nanoseconds
+     */
+    void received(@Nullable UUID player, @NotNull Key packet, int bytes, long nanos);
+
+    /**
+     * Record a received packet that was dropped.
+     *
+     * @param player Player the packet was received from, or null if received from the server
+     * @param packet Key of the packet, or null if not known or not a registered packet
+     * @param reason Why the packet was dropped
+     */
+    void dropped(@Nullable UUID player, @Nullable Key packet, @NotNull DropReason reason);
+
+    /**
+     * Forget everything recorded about a player.
+     *
+     * @param player Player to forget
+     */
+    default void forget(@NotNull UUID player) {
+    }
+}
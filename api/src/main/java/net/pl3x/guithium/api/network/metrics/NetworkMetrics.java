@@ -0,0 +1,81 @@
+package net.pl3x.guithium.api.network.metrics;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import net.pl3x.guithium.api.key.Key;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents the registry that network metrics are recorded to.
+ * <p>
+ * Nothing is measured until a {@link MetricsSink} is added.
+ */
+public class NetworkMetrics implements MetricsSink {
+    private final List<MetricsSink> sinks = new CopyOnWriteArrayList<>();
+
+    /**
+     * Create a new network metrics registry.
+     */
+    public NetworkMetrics() {
+        // Empty constructor to pacify javadoc lint
+    }
+
+    /**
+     * Add a sink to record metrics to.
+     *
+     * @param sink Sink to add
+     */
+    public void addSink(@NotNull MetricsSink sink) {
+        this.sinks.add(sink);
+    }
+
+    /**
+     * Remove a sink.
+     *
+     * @param sink Sink to remove
+     */
+    public void removeSink(@NotNull MetricsSink sink) {
+        this.sinks.remove(sink);
+    }
+
+    /**
+     * Check if any sink is recording metrics.
+     * <p>
+     * Callers use this to skip taking measurements nobody will see.
+     *
+     * @return {@code true} if metrics are recorded, otherwise {@code false}
+     */
+    public boolean isEnabled() {
+        return !this.sinks.isEmpty();
+    }
+
+    @Override
+    public void sent(@Nullable UUID player, @NotNull Key packet, int bytes, long nanos) {
+        for (MetricsSink sink : this.sinks) {
+            sink.sent(player, packet, bytes, nanos);
+        }
+    }
+
+    @Override
+    public void received(@Nullable UUID player, @NotNull Key packet, int bytes, long nanos) {
+        for (MetricsSink sink : this.sinks) {
+            sink.received(player, packet, bytes, nanos);
+        }
+    }
+
+    @Override
+    public void dropped(@Nullable UUID player, @Nullable Key packet, @NotNull DropReason reason) {
+        for (MetricsSink sink : this.sinks) {
+            sink.dropped(player, packet, reason);
+        }
+    }
+
+    @Override
+    public void forget(@NotNull UUID player) {
+        for (MetricsSink sink : this.sinks) {
+            sink.forget(player);
+        }
+    }
+}
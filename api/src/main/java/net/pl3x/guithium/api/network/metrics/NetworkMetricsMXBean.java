@@ -0,0 +1,123 @@
+package net.pl3x.guithium.api.network.metrics;
+
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents the network metrics exposed over JMX.
+ * <p>
+ * Maps are keyed by packet key, or by drop reason for {@link #getDropped()}.
+ *
+ * @see JmxMetrics
+ */
+public interface NetworkMetricsMXBean {
+    /**
+     * Get the number of packets sent.
+     *
+     * @return Packets sent by packet key
+     */
+    @NotNull
+    Map<String, Long> getPacketsSent();
+
+    /**
+     * Get the number of bytes sent.
+     *
+     * @return Bytes sent by packet key
+     */
+    @NotNull
+    Map<String, Long> getBytesSent();
+
+    /**
+     * Get the time spent encoding sent packets.
+     *
+     * @return Encoding nanoseconds by packet key
+     */
+    @NotNull
+    Map<String, Long> getEncodeNanos();
+
+    /**
+     * Get the number of packets received.
+     *
+     * @return Packets received by packet key
+     */
+    @NotNull
+    Map<String, Long> getPacketsReceived();
+
+    /**
+     * Get the number of bytes received.
+     *
+     * @return Bytes received by packet key
+     */
+    @NotNull
+    Map<String, Long> getBytesReceived();
+
+    /**
+     * Get the time spent decoding received packets.
+     *
+     * @return Decoding nanoseconds by packet key
+     */
+    @NotNull
+    Map<String, Long> getDecodeNanos();
+
+    /**
+     * Get the number of received packets that were dropped.
+     *
+     * @return Dropped packets by reason
+     */
+    @NotNull
+    Map<String, Long> getDropped();
+
+    /**
+     * Get the number of received packets that were dropped, for each packet type.
+     * <p>
+     * Packets dropped before their key could be read are only counted by {@link #getDropped()}.
+     *
+     * @return Dropped packets by reason, by packet key
+     */
+    @NotNull
+    Map<String, Map<String, Long>> getDroppedByPacket();
+
+    /**
+     * Get the number of received packets that were dropped, for each player.
+     *
+     * @return Dropped packets by reason, by player unique identifier
+     */
+    @NotNull
+    Map<String, Map<String, Long>> getDroppedByPlayer();
+
+    /**
+     * Get the number of players with recorded metrics.
+     *
+     * @return Number of players
+     */
+    int getPlayers();
+
+    /**
+     * Get how many times a pooled encoding buffer was reused.
+     *
+     * @return Number of pool hits
+     * @see net.pl3x.guithium.api.network.codec.BufferPool#getHits()
+     */
+    long getBufferPoolHits();
+
+    /**
+     * Get how many times a new encoding buffer had to be created.
+     *
+     * @return Number of pool misses
+     * @see net.pl3x.guithium.api.network.codec.BufferPool#getMisses()
+     */
+    long getBufferPoolMisses();
+
+    /**
+     * Get how many times encoding buffers had to grow.
+     *
+     * @return Number of buffer growths
+     * @see net.pl3x.guithium.api.network.codec.BufferPool#getGrowths()
+     */
+    long getBufferGrowths();
+
+    /**
+     * Forget everything recorded so far.
+     */
+    void reset();
+}
@@ -6,6 +6,7 @@ import net.pl3x.guithium.api.gui.element.Element;
 import net.pl3x.guithium.api.json.Gson;
 import net.pl3x.guithium.api.key.Key;
 import net.pl3x.guithium.api.network.PacketListener;
+import net.pl3x.guithium.api.network.codec.Codec;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -32,11 +33,12 @@ public class ElementPacket extends Packet {
     /**
      * Create a new update element packet.
      *
-     * @param in Input byte array
+     * @param in    Input byte array
+     * @param codec Codec the element was written with
      */
-    public ElementPacket(@NotNull ByteArrayDataInput in) {
+    public ElementPacket(@NotNull ByteArrayDataInput in, @NotNull Codec codec) {
         super(KEY);
-        this.element = Gson.fromJson(in.readUTF(), Element.class);
+        this.element = codec == Codec.BINARY ? Element.read(in) : Gson.fromJson(in.readUTF(), Element.class);
     }
 
     /**
@@ -57,8 +59,18 @@ public class ElementPacket extends Packet {
     @Override
     @NotNull
     public ByteArrayDataOutput write() {
+        return write(Codec.JSON);
+    }
+
+    @Override
+    @NotNull
+    public ByteArrayDataOutput write(@NotNull Codec codec) {
         ByteArrayDataOutput out = out(this);
-        out.writeUTF(Gson.toJson(getElement()));
+        if (codec == Codec.BINARY) {
+            getElement().write(out);
+        } else {
+            out.writeUTF(Gson.toJson(getElement()));
+        }
         return out;
     }
 }
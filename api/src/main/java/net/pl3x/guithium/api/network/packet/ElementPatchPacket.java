@@ -0,0 +1,99 @@
+package net.pl3x.guithium.api.network.packet;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import net.pl3x.guithium.api.gui.element.Element;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.PacketListener;
+import net.pl3x.guithium.api.network.codec.Binary;
+import net.pl3x.guithium.api.network.codec.BufferOutput;
+import net.pl3x.guithium.api.network.codec.BufferPool;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a packet that updates only the changed properties of an element the client already has.
+ * <p>
+ * This packet is only sent over connections using the {@link net.pl3x.guithium.api.network.codec.Codec#BINARY binary codec}.
+ */
+public class ElementPatchPacket extends Packet {
+    /**
+     * Unique identifier for element patch packets.
+     */
+    public static final Key KEY = Key.of("packet:element_patch");
+
+    private final Key elementKey;
+    private final int type;
+    private final byte[] patch;
+
+    /**
+     * Create a new element patch packet.
+     *
+     * @param element Element to patch
+     * @param since   Version of the element the client already has
+     */
+    public ElementPatchPacket(@NotNull Element element, int since) {
+        super(KEY);
+        this.elementKey = element.getKey();
+        this.type = Element.getType(element);
+        BufferOutput out = BufferPool.acquire();
+        element.write(out, since);
+        this.patch = out.toByteArray();
+        BufferPool.release(out);
+    }
+
+    /**
+     * Create a new element patch packet.
+     *
+     * @param in Input byte array
+     */
+    public ElementPatchPacket(@NotNull ByteArrayDataInput in) {
+        super(KEY);
+        this.elementKey = Binary.readKey(in);
+        this.type = in.readUnsignedByte();
+        this.patch = new byte[Binary.readVarInt(in)];
+        in.readFully(this.patch);
+    }
+
+    /**
+     * Get the key of the element to patch.
+     *
+     * @return Element key
+     */
+    @NotNull
+    public Key getElementKey() {
+        return this.elementKey;
+    }
+
+    /**
+     * Apply this patch to an element.
+     * <p>
+     * The element is left untouched if it is not the same type of element this patch was made from.
+     *
+     * @param element Element to patch
+     * @return {@code true} if patch was applied, otherwise {@code false}
+     */
+    public boolean apply(@NotNull Element element) {
+        if (!element.getKey().equals(getElementKey()) || Element.getType(element) != this.type) {
+            return false;
+        }
+        element.patch(ByteStreams.newDataInput(this.patch));
+        return true;
+    }
+
+    @Override
+    public <T extends PacketListener> void handle(@NotNull T listener) {
+        listener.handleElementPatch(this);
+    }
+
+    @Override
+    @NotNull
+    public ByteArrayDataOutput write() {
+        ByteArrayDataOutput out = out(this);
+        Binary.writeKey(out, getElementKey());
+        out.writeByte(this.type);
+        Binary.writeVarInt(out, this.patch.length);
+        out.write(this.patch);
+        return out;
+    }
+}
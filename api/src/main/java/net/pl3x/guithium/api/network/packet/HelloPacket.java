@@ -2,9 +2,16 @@ package net.pl3x.guithium.api.network.packet;
 
 import com.google.common.io.ByteArrayDataInput;
 import com.google.common.io.ByteArrayDataOutput;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import net.pl3x.guithium.api.Guithium;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.Capabilities;
 import net.pl3x.guithium.api.network.PacketListener;
+import net.pl3x.guithium.api.network.codec.Binary;
+import net.pl3x.guithium.api.network.codec.Codec;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -19,12 +26,28 @@ public class HelloPacket extends Packet {
     public static final Key KEY = Key.of("packet:hello");
 
     private final int protocol;
+    private final Capabilities capabilities;
+    private final List<Key> packetKeys;
 
     /**
      * Create new packet, ready to send to player.
      */
     public HelloPacket() {
-        this(Guithium.PROTOCOL);
+        this(
+                Guithium.PROTOCOL,
+                Capabilities.LATEST,
+                Guithium.api().getNetworkHandler().getPacketKeys()
+        );
+    }
+
+    /**
+     * Create new packet, ready to send to player.
+     *
+     * @param capabilities Capabilities of the sender
+     * @param packetKeys   Packets the sender can receive by numeric id
+     */
+    public HelloPacket(@NotNull Capabilities capabilities, @NotNull List<Key> packetKeys) {
+        this(Guithium.PROTOCOL, capabilities, packetKeys);
     }
 
     /**
@@ -33,12 +56,63 @@ public class HelloPacket extends Packet {
      * @param in Inbound raw data byte array
      */
     public HelloPacket(@NotNull ByteArrayDataInput in) {
-        this(in.readInt());
+        super(KEY);
+        // everything after the protocol is optional, older versions stop early
+        this.protocol = in.readInt();
+        int codec = readOptional(in, Codec.JSON.getVersion());
+        boolean compression = readOptional(in, 0) != 0;
+        this.packetKeys = readPacketKeys(in);
+        boolean fragmentation = readOptional(in, 0) != 0;
+        boolean batching = readOptional(in, 0) != 0;
+        int maxPayloadSize = Capabilities.NONE.maxPayloadSize();
+        Set<Key> features = new HashSet<>();
+        try {
+            maxPayloadSize = Binary.readVarInt(in);
+            int count = Binary.readVarInt(in);
+            for (int i = 0; i < count; i++) {
+                features.add(Binary.readKey(in));
+            }
+        } catch (IllegalStateException e) {
+            // older versions do not send these, assume they do not support them
+        }
+        int dictionary = 0;
+        try {
+            dictionary = in.readInt();
+        } catch (IllegalStateException e) {
+            // older versions do not say which dictionary they compress with, they can not compress with this one
+        }
+        this.capabilities = new Capabilities(codec, compression, dictionary, fragmentation, batching, maxPayloadSize, features);
     }
 
-    private HelloPacket(int protocol) {
+    private HelloPacket(int protocol, @NotNull Capabilities capabilities, @NotNull List<Key> packetKeys) {
         super(KEY);
         this.protocol = protocol;
+        this.capabilities = capabilities;
+        this.packetKeys = packetKeys;
+    }
+
+    private static int readOptional(@NotNull ByteArrayDataInput in, int def) {
+        try {
+            return in.readUnsignedByte();
+        } catch (IllegalStateException e) {
+            // older versions do not send everything, assume they do not support it
+            return def;
+        }
+    }
+
+    @NotNull
+    private static List<Key> readPacketKeys(@NotNull ByteArrayDataInput in) {
+        List<Key> packetKeys = new ArrayList<>();
+        try {
+            int count = Binary.readVarInt(in);
+            for (int i = 0; i < count; i++) {
+                packetKeys.add(Binary.readKey(in));
+            }
+        } catch (IllegalStateException e) {
+            // older versions only understand packets sent by key
+            packetKeys.clear();
+        }
+        return packetKeys;
     }
 
     /**
@@ -50,6 +124,28 @@ public class HelloPacket extends Packet {
         return this.protocol;
     }
 
+    /**
+     * Get the optional protocol features the sender supports.
+     *
+     * @return Sender's capabilities
+     */
+    @NotNull
+    public Capabilities getCapabilities() {
+        return this.capabilities;
+    }
+
+    /**
+     * Get the packets the sender can receive by numeric id.
+     * <p>
+     * The position of each key in the list is its numeric id.
+     *
+     * @return Packet keys in order of their numeric ids
+     */
+    @NotNull
+    public List<Key> getPacketKeys() {
+        return this.packetKeys;
+    }
+
     @Override
     public void handle(@NotNull PacketListener listener) {
         listener.handleHello(this);
@@ -59,7 +155,22 @@ public class HelloPacket extends Packet {
     @NotNull
     public ByteArrayDataOutput write() {
         ByteArrayDataOutput out = out(this);
+        // fields are appended in the order they were added, so older versions can stop reading early
         out.writeInt(getProtocol());
+        out.writeByte(getCapabilities().codec());
+        out.writeBoolean(getCapabilities().compression());
+        Binary.writeVarInt(out, getPacketKeys().size());
+        for (Key key : getPacketKeys()) {
+            Binary.writeKey(out, key);
+        }
+        out.writeBoolean(getCapabilities().fragmentation());
+        out.writeBoolean(getCapabilities().batching());
+        Binary.writeVarInt(out, getCapabilities().maxPayloadSize());
+        Binary.writeVarInt(out, getCapabilities().features().size());
+        for (Key feature : getCapabilities().features()) {
+            Binary.writeKey(out, feature);
+        }
+        out.writeInt(getCapabilities().dictionary());
         return out;
     }
 }
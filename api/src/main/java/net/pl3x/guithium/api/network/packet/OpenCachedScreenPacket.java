@@ -0,0 +1,81 @@
+package net.pl3x.guithium.api.network.packet;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import net.pl3x.guithium.api.gui.Screen;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.PacketListener;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a packet asking the client to open a screen it already has cached.
+ * <p>
+ * If the client does not have the screen it replies with a {@link ScreenCacheMissPacket}
+ * and the server sends the full {@link OpenScreenPacket} instead.
+ */
+public class OpenCachedScreenPacket extends Packet {
+    /**
+     * Unique identifying key
+     */
+    public static final Key KEY = Key.of("packet:open_cached_screen");
+
+    private final Key screenKey;
+    private final String hash;
+
+    /**
+     * Create an open cached screen packet.
+     *
+     * @param screen Screen to open
+     */
+    public OpenCachedScreenPacket(@NotNull Screen screen) {
+        super(KEY);
+        this.screenKey = screen.getKey();
+        this.hash = screen.getHash();
+    }
+
+    /**
+     * Create an open cached screen packet.
+     *
+     * @param in Input byte array
+     */
+    public OpenCachedScreenPacket(@NotNull ByteArrayDataInput in) {
+        super(KEY);
+        this.screenKey = Key.of(in.readUTF());
+        this.hash = in.readUTF();
+    }
+
+    /**
+     * Get the unique identifying key for the screen to open.
+     *
+     * @return Screen's key
+     */
+    @NotNull
+    public Key getScreenKey() {
+        return this.screenKey;
+    }
+
+    /**
+     * Get the content hash of the screen to open.
+     *
+     * @return Screen's content hash
+     * @see Screen#getHash()
+     */
+    @NotNull
+    public String getHash() {
+        return this.hash;
+    }
+
+    @Override
+    public void handle(@NotNull PacketListener listener) {
+        listener.handleOpenCachedScreen(this);
+    }
+
+    @Override
+    @NotNull
+    public ByteArrayDataOutput write() {
+        ByteArrayDataOutput out = out(this);
+        out.writeUTF(getScreenKey().toString());
+        out.writeUTF(getHash());
+        return out;
+    }
+}
@@ -6,6 +6,7 @@ import net.pl3x.guithium.api.gui.Screen;
 import net.pl3x.guithium.api.json.Gson;
 import net.pl3x.guithium.api.key.Key;
 import net.pl3x.guithium.api.network.PacketListener;
+import net.pl3x.guithium.api.network.codec.Codec;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -32,11 +33,12 @@ public class OpenScreenPacket extends Packet {
     /**
      * Create an open screen packet.
      *
-     * @param in Input byte array
+     * @param in    Input byte array
+     * @param codec Codec the screen was written with
      */
-    public OpenScreenPacket(@NotNull ByteArrayDataInput in) {
+    public OpenScreenPacket(@NotNull ByteArrayDataInput in, @NotNull Codec codec) {
         super(KEY);
-        this.screen = Gson.fromJson(in.readUTF(), Screen.class);
+        this.screen = codec == Codec.BINARY ? Screen.read(in) : Gson.fromJson(in.readUTF(), Screen.class);
     }
 
     /**
@@ -57,8 +59,14 @@ public class OpenScreenPacket extends Packet {
     @Override
     @NotNull
     public ByteArrayDataOutput write() {
+        return write(Codec.JSON);
+    }
+
+    @Override
+    @NotNull
+    public ByteArrayDataOutput write(@NotNull Codec codec) {
         ByteArrayDataOutput out = out(this);
-        out.writeUTF(Gson.toJson(getScreen()));
+        out.write(getScreen().encode(codec));
         return out;
     }
 }
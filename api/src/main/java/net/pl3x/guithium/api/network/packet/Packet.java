@@ -3,10 +3,15 @@ package net.pl3x.guithium.api.network.packet;
 import com.google.common.io.ByteArrayDataInput;
 import com.google.common.io.ByteArrayDataOutput;
 import com.google.common.io.ByteStreams;
+import java.nio.ByteBuffer;
 import net.pl3x.guithium.api.Guithium;
 import net.pl3x.guithium.api.key.Key;
 import net.pl3x.guithium.api.key.Keyed;
 import net.pl3x.guithium.api.network.PacketListener;
+import net.pl3x.guithium.api.network.codec.BufferInput;
+import net.pl3x.guithium.api.network.codec.BufferOutput;
+import net.pl3x.guithium.api.network.codec.BufferPool;
+import net.pl3x.guithium.api.network.codec.Codec;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -38,15 +43,31 @@ public abstract class Packet extends Keyed {
     @NotNull
     public abstract ByteArrayDataOutput write();
 
+    /**
+     * Write packet to raw data byte array using the specified codec.
+     * <p>
+     * Packets that do not carry screens, elements or textures ignore the codec.
+     *
+     * @param codec Codec negotiated with the receiving side
+     * @return Raw data byte array
+     */
+    @NotNull
+    public ByteArrayDataOutput write(@NotNull Codec codec) {
+        return write();
+    }
+
     /**
      * Get outbound raw data byte array for specified packet.
+     * <p>
+     * This is a {@link BufferOutput} from the {@link BufferPool}, so the written bytes can be used
+     * without copying them. Whoever consumes the output may {@link BufferPool#release(BufferOutput) release} it.
      *
      * @param packet Packet to use
      * @return Outbound raw data byte array
      */
     @NotNull
     public static ByteArrayDataOutput out(@NotNull Packet packet) {
-        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        ByteArrayDataOutput out = BufferPool.acquire();
         out.writeInt(Guithium.PROTOCOL);
         out.writeUTF(packet.getKey().toString());
         return out;
@@ -62,4 +83,15 @@ public abstract class Packet extends Keyed {
     public static ByteArrayDataInput in(byte[] bytes) {
         return ByteStreams.newDataInput(bytes);
     }
+
+    /**
+     * Get inbound raw data byte array reading directly from a buffer.
+     *
+     * @param buffer Raw data
+     * @return Inbound raw data byte array
+     */
+    @NotNull
+    public static ByteArrayDataInput in(@NotNull ByteBuffer buffer) {
+        return new BufferInput(buffer);
+    }
 }
@@ -0,0 +1,45 @@
+package net.pl3x.guithium.api.network.packet;
+
+import com.google.common.io.ByteArrayDataInput;
+import java.util.Collection;
+import net.pl3x.guithium.api.gui.texture.Texture;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.PacketListener;
+import net.pl3x.guithium.api.network.codec.Codec;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a packet containing textures the player is likely to need next.
+ * <p>
+ * The client loads these before other preloaded textures, but after the ones on screen.
+ */
+public class PrefetchTexturesPacket extends TexturesPacket {
+    /**
+     * Unique identifying key
+     */
+    public static final Key KEY = Key.of("packet:prefetch_textures");
+
+    /**
+     * Create a new prefetch textures packet.
+     *
+     * @param textures Textures to prefetch
+     */
+    public PrefetchTexturesPacket(@NotNull Collection<Texture> textures) {
+        super(KEY, textures);
+    }
+
+    /**
+     * Create a new prefetch textures packet.
+     *
+     * @param in    Input byte array
+     * @param codec Codec the textures were written with
+     */
+    public PrefetchTexturesPacket(@NotNull ByteArrayDataInput in, @NotNull Codec codec) {
+        super(KEY, in, codec);
+    }
+
+    @Override
+    public void handle(@NotNull PacketListener listener) {
+        listener.handlePrefetchTextures(this);
+    }
+}
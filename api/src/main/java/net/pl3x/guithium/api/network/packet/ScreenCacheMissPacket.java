@@ -0,0 +1,77 @@
+package net.pl3x.guithium.api.network.packet;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.PacketListener;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a packet the client sends when it does not have a screen from an {@link OpenCachedScreenPacket} cached.
+ */
+public class ScreenCacheMissPacket extends Packet {
+    /**
+     * Unique identifying key
+     */
+    public static final Key KEY = Key.of("packet:screen_cache_miss");
+
+    private final Key screenKey;
+    private final String hash;
+
+    /**
+     * Create a new screen cache miss packet.
+     *
+     * @param screenKey Unique identifying key for the screen that is missing
+     * @param hash      Content hash of the screen that is missing
+     */
+    public ScreenCacheMissPacket(@NotNull Key screenKey, @NotNull String hash) {
+        super(KEY);
+        this.screenKey = screenKey;
+        this.hash = hash;
+    }
+
+    /**
+     * Create a new screen cache miss packet.
+     *
+     * @param in Input byte array
+     */
+    public ScreenCacheMissPacket(@NotNull ByteArrayDataInput in) {
+        super(KEY);
+        this.screenKey = Key.of(in.readUTF());
+        this.hash = in.readUTF();
+    }
+
+    /**
+     * Get the unique identifying key for the screen that is missing.
+     *
+     * @return Screen's key
+     */
+    @NotNull
+    public Key getScreenKey() {
+        return this.screenKey;
+    }
+
+    /**
+     * Get the content hash of the screen that is missing.
+     *
+     * @return Screen's content hash
+     */
+    @NotNull
+    public String getHash() {
+        return this.hash;
+    }
+
+    @Override
+    public void handle(@NotNull PacketListener listener) {
+        listener.handleScreenCacheMiss(this);
+    }
+
+    @Override
+    @NotNull
+    public ByteArrayDataOutput write() {
+        ByteArrayDataOutput out = out(this);
+        out.writeUTF(getScreenKey().toString());
+        out.writeUTF(getHash());
+        return out;
+    }
+}
@@ -4,11 +4,15 @@ import com.google.common.io.ByteArrayDataInput;
 import com.google.common.io.ByteArrayDataOutput;
 import com.google.gson.reflect.TypeToken;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import net.pl3x.guithium.api.gui.texture.Texture;
 import net.pl3x.guithium.api.json.Gson;
 import net.pl3x.guithium.api.key.Key;
 import net.pl3x.guithium.api.network.PacketListener;
+import net.pl3x.guithium.api.network.codec.Binary;
+import net.pl3x.guithium.api.network.codec.Codec;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -31,18 +35,49 @@ public class TexturesPacket extends Packet {
      * @param textures Textures to preload
      */
     public TexturesPacket(@NotNull Collection<Texture> textures) {
-        super(KEY);
+        this(KEY, textures);
+    }
+
+    /**
+     * Create a new texture packet.
+     *
+     * @param key      Unique identifying key
+     * @param textures Textures to preload
+     */
+    protected TexturesPacket(@NotNull Key key, @NotNull Collection<Texture> textures) {
+        super(key);
         this.textures = textures;
     }
 
     /**
      * Create a new texture packet.
      *
-     * @param in Input byte array
+     * @param in    Input byte array
+     * @param codec Codec the textures were written with
      */
-    public TexturesPacket(@NotNull ByteArrayDataInput in) {
-        super(KEY);
-        this.textures = Gson.fromJson(in.readUTF(), TYPE_TOKEN);
+    public TexturesPacket(@NotNull ByteArrayDataInput in, @NotNull Codec codec) {
+        this(KEY, in, codec);
+    }
+
+    /**
+     * Create a new texture packet.
+     *
+     * @param key   Unique identifying key
+     * @param in    Input byte array
+     * @param codec Codec the textures were written with
+     */
+    protected TexturesPacket(@NotNull Key key, @NotNull ByteArrayDataInput in, @NotNull Codec codec) {
+        super(key);
+        if (codec == Codec.BINARY) {
+            int count = Binary.readVarInt(in);
+            List<Texture> textures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                textures.add(Texture.read(in));
+            }
+            this.textures = textures;
+        } else {
+            this.textures = Gson.fromJson(in.readUTF(), TYPE_TOKEN);
+        }
     }
 
     /**
@@ -63,8 +98,21 @@ public class TexturesPacket extends Packet {
     @Override
     @NotNull
     public ByteArrayDataOutput write() {
+        return write(Codec.JSON);
+    }
+
+    @Override
+    @NotNull
+    public ByteArrayDataOutput write(@NotNull Codec codec) {
         ByteArrayDataOutput out = out(this);
-        out.writeUTF(Gson.toJson(getTextures()));
+        if (codec == Codec.BINARY) {
+            Binary.writeVarInt(out, getTextures().size());
+            for (Texture texture : getTextures()) {
+                texture.write(out);
+            }
+        } else {
+            out.writeUTF(Gson.toJson(getTextures()));
+        }
         return out;
     }
 }
@@ -1,5 +1,7 @@
 package net.pl3x.guithium.api.player;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -66,6 +68,16 @@ public abstract class PlayerManager {
         return this.players.get(uuid);
     }
 
+    /**
+     * Get all managed players.
+     *
+     * @return Unmodifiable view of managed players
+     */
+    @NotNull
+    public Collection<WrappedPlayer> getPlayers() {
+        return Collections.unmodifiableCollection(this.players.values());
+    }
+
     /**
      * Remove player from manager.
      *
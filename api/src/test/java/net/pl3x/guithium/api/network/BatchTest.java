@@ -0,0 +1,94 @@
+package net.pl3x.guithium.api.network;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.pl3x.guithium.api.network.codec.Binary;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchTest {
+    @Test
+    public void testRoundTrip() {
+        List<byte[]> packets = List.of(new byte[]{1, 2, 3}, new byte[0], new byte[300], new byte[]{0x04});
+        byte[] frame = Batch.write(packets);
+        assertTrue(Batch.isBatch(ByteBuffer.wrap(frame)));
+        List<ByteBuffer> read = Batch.read(ByteBuffer.wrap(frame));
+        assertEquals(packets.size(), read.size());
+        for (int i = 0; i < packets.size(); i++) {
+            assertArrayEquals(packets.get(i), bytes(read.get(i)), "packet " + i);
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, Batch.read(ByteBuffer.wrap(Batch.write(List.of()))).size());
+        assertFalse(Batch.isBatch(ByteBuffer.wrap(new byte[0])));
+        assertFalse(Batch.isBatch(ByteBuffer.wrap(new byte[]{0x00, 0x04})));
+    }
+
+    @Test
+    public void testOffset() {
+        // the frame does not have to start at the beginning of its buffer
+        byte[] frame = Batch.write(List.of(new byte[]{5, 6}, new byte[]{7}));
+        ByteBuffer buffer = ByteBuffer.allocate(frame.length + 3);
+        buffer.position(3);
+        buffer.put(frame);
+        buffer.position(3);
+        assertTrue(Batch.isBatch(buffer));
+        List<ByteBuffer> read = Batch.read(buffer);
+        assertArrayEquals(new byte[]{5, 6}, bytes(read.get(0)));
+        assertArrayEquals(new byte[]{7}, bytes(read.get(1)));
+    }
+
+    @Test
+    public void testTruncated() {
+        byte[] frame = Batch.write(List.of(new byte[]{1, 2, 3}, new byte[100]));
+        for (int length = 1; length < frame.length; length++) {
+            byte[] truncated = Arrays.copyOf(frame, length);
+            assertThrows(IllegalStateException.class, () -> Batch.read(ByteBuffer.wrap(truncated)), "length " + length);
+        }
+    }
+
+    @Test
+    public void testMalformed() {
+        // more packets than a batch may hold
+        ByteArrayDataOutput tooMany = ByteStreams.newDataOutput();
+        tooMany.writeByte(Batch.MARKER);
+        Binary.writeVarInt(tooMany, Batch.MAX_PACKETS + 1);
+        assertThrows(IllegalStateException.class, () -> Batch.read(ByteBuffer.wrap(tooMany.toByteArray())));
+
+        // negative packet count
+        ByteArrayDataOutput negativeCount = ByteStreams.newDataOutput();
+        negativeCount.writeByte(Batch.MARKER);
+        Binary.writeVarInt(negativeCount, -1);
+        assertThrows(IllegalStateException.class, () -> Batch.read(ByteBuffer.wrap(negativeCount.toByteArray())));
+
+        // negative packet length
+        ByteArrayDataOutput negativeLength = ByteStreams.newDataOutput();
+        negativeLength.writeByte(Batch.MARKER);
+        Binary.writeVarInt(negativeLength, 1);
+        Binary.writeVarInt(negativeLength, -1);
+        negativeLength.write(new byte[10]);
+        assertThrows(IllegalStateException.class, () -> Batch.read(ByteBuffer.wrap(negativeLength.toByteArray())));
+    }
+
+    @Test
+    public void testMaxPackets() {
+        List<byte[]> packets = new ArrayList<>();
+        for (int i = 0; i < Batch.MAX_PACKETS; i++) {
+            packets.add(new byte[]{(byte) i});
+        }
+        assertEquals(Batch.MAX_PACKETS, Batch.read(ByteBuffer.wrap(Batch.write(packets))).size());
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,155 @@
+package net.pl3x.guithium.api.network;
+
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import net.pl3x.guithium.api.network.codec.Binary;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FragmentsTest {
+    @Test
+    public void testSmallNotSplit() {
+        byte[] data = data(Fragments.MIN_SIZE);
+        List<byte[]> frames = Fragments.split(data, 1, Fragments.MIN_SIZE);
+        assertEquals(1, frames.size());
+        assertSame(data, frames.get(0));
+    }
+
+    @Test
+    public void testInOrder() {
+        byte[] data = data(5000);
+        List<byte[]> frames = Fragments.split(data, 1, Fragments.MIN_SIZE);
+        assertEquals(5, frames.size());
+        Fragments fragments = new Fragments();
+        for (int i = 0; i < frames.size() - 1; i++) {
+            assertTrue(Fragments.isFragment(frames.get(i)));
+            assertNull(fragments.receive(frames.get(i)));
+        }
+        assertArrayEquals(data, fragments.receive(frames.get(frames.size() - 1)));
+    }
+
+    @Test
+    public void testOutOfOrder() {
+        byte[] data = data(10000);
+        List<byte[]> frames = new ArrayList<>(Fragments.split(data, 7, Fragments.MIN_SIZE));
+        Collections.shuffle(frames, new Random(0));
+        Fragments fragments = new Fragments();
+        for (int i = 0; i < frames.size() - 1; i++) {
+            assertNull(fragments.receive(frames.get(i)));
+        }
+        assertArrayEquals(data, fragments.receive(frames.get(frames.size() - 1)));
+    }
+
+    @Test
+    public void testInterleaved() {
+        byte[] first = data(3000);
+        byte[] second = data(4000);
+        List<byte[]> firstFrames = Fragments.split(first, 1, Fragments.MIN_SIZE);
+        List<byte[]> secondFrames = Fragments.split(second, 2, Fragments.MIN_SIZE);
+        Fragments fragments = new Fragments();
+        assertNull(fragments.receive(secondFrames.get(3)));
+        assertNull(fragments.receive(firstFrames.get(0)));
+        assertNull(fragments.receive(secondFrames.get(0)));
+        assertNull(fragments.receive(firstFrames.get(2)));
+        assertNull(fragments.receive(secondFrames.get(1)));
+        assertArrayEquals(first, fragments.receive(firstFrames.get(1)));
+        assertArrayEquals(second, fragments.receive(secondFrames.get(2)));
+    }
+
+    @Test
+    public void testDuplicate() {
+        byte[] data = data(3000);
+        List<byte[]> frames = Fragments.split(data, 1, Fragments.MIN_SIZE);
+        Fragments fragments = new Fragments();
+        assertNull(fragments.receive(frames.get(0)));
+        // a duplicate does not count towards the fragments still missing
+        assertNull(fragments.receive(frames.get(0)));
+        assertNull(fragments.receive(frames.get(1)));
+        assertNull(fragments.receive(frames.get(1)));
+        assertArrayEquals(data, fragments.receive(frames.get(2)));
+    }
+
+    @Test
+    public void testInvalid() {
+        Fragments fragments = new Fragments();
+        // index past the count
+        assertNull(fragments.receive(fragment(1, 3, 3, new byte[10])));
+        // count of zero
+        assertNull(fragments.receive(fragment(2, 0, 0, new byte[10])));
+        // more fragments than could ever fit the size cap
+        assertNull(fragments.receive(fragment(3, 0, Fragments.MAX_SIZE, new byte[10])));
+
+        // the rest of a refused packet is dropped too, instead of starting a new one
+        byte[] data = data(3000);
+        List<byte[]> frames = Fragments.split(data, 4, Fragments.MIN_SIZE);
+        assertNull(fragments.receive(frames.get(0)));
+        assertNull(fragments.receive(fragment(4, 1, 5, new byte[10])));
+        assertNull(fragments.receive(frames.get(1)));
+        assertNull(fragments.receive(frames.get(2)));
+
+        // other packets are not affected
+        List<byte[]> other = Fragments.split(data, 5, Fragments.MIN_SIZE);
+        assertNull(fragments.receive(other.get(0)));
+        assertNull(fragments.receive(other.get(1)));
+        assertArrayEquals(data, fragments.receive(other.get(2)));
+    }
+
+    @Test
+    public void testTooManyStreams() {
+        Fragments fragments = new Fragments();
+        byte[] data = data(3000);
+        for (int stream = 0; stream < Fragments.MAX_STREAMS; stream++) {
+            assertNull(fragments.receive(Fragments.split(data, stream, Fragments.MIN_SIZE).get(0)));
+        }
+        List<byte[]> frames = Fragments.split(data, Fragments.MAX_STREAMS, Fragments.MIN_SIZE);
+        for (byte[] frame : frames) {
+            assertNull(fragments.receive(frame));
+        }
+
+        // forgetting them makes room again
+        fragments.clear();
+        assertNull(fragments.receive(frames.get(0)));
+        assertNull(fragments.receive(frames.get(1)));
+        assertArrayEquals(data, fragments.receive(frames.get(2)));
+    }
+
+    @Test
+    public void testMaxSize() {
+        Fragments fragments = new Fragments();
+        byte[] data = data(Fragments.MAX_SERVERBOUND_SIZE + 1);
+        List<byte[]> frames = Fragments.split(data, 1, Fragments.MIN_SIZE);
+        for (byte[] frame : frames) {
+            assertNull(fragments.receive(frame, Fragments.MAX_SERVERBOUND_SIZE));
+        }
+
+        // exactly at the cap still fits
+        byte[] fits = data(Fragments.MAX_SERVERBOUND_SIZE);
+        List<byte[]> fitFrames = Fragments.split(fits, 2, Fragments.MIN_SIZE);
+        byte[] received = null;
+        for (byte[] frame : fitFrames) {
+            received = fragments.receive(frame, Fragments.MAX_SERVERBOUND_SIZE);
+        }
+        assertArrayEquals(fits, received);
+    }
+
+    private static byte[] data(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    private static byte[] fragment(int stream, int index, int count, byte[] data) {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeByte(Fragments.MARKER);
+        Binary.writeVarInt(out, stream);
+        Binary.writeVarInt(out, index);
+        Binary.writeVarInt(out, count);
+        out.write(data);
+        return out.toByteArray();
+    }
+}
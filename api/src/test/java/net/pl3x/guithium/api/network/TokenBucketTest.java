@@ -0,0 +1,52 @@
+package net.pl3x.guithium.api.network;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+    @Test
+    public void testBurst() {
+        // nothing refills, only the burst is ever allowed
+        RateLimits.Limit limit = new RateLimits.Limit(0, 3);
+        TokenBucket bucket = new TokenBucket(limit);
+        assertTrue(bucket.tryAcquire(limit));
+        assertTrue(bucket.tryAcquire(limit));
+        assertTrue(bucket.tryAcquire(limit));
+        assertFalse(bucket.tryAcquire(limit));
+        assertFalse(bucket.tryAcquire(limit));
+    }
+
+    @Test
+    public void testRefill() throws InterruptedException {
+        RateLimits.Limit limit = new RateLimits.Limit(20, 1);
+        TokenBucket bucket = new TokenBucket(limit);
+        assertTrue(bucket.tryAcquire(limit));
+        assertFalse(bucket.tryAcquire(limit));
+
+        // a token takes 50ms to come back, but never more than the burst
+        Thread.sleep(200);
+        assertTrue(bucket.tryAcquire(limit));
+        assertFalse(bucket.tryAcquire(limit));
+    }
+
+    @Test
+    public void testChangedLimit() throws InterruptedException {
+        RateLimits.Limit limit = new RateLimits.Limit(0, 1);
+        TokenBucket bucket = new TokenBucket(limit);
+        assertTrue(bucket.tryAcquire(limit));
+        assertFalse(bucket.tryAcquire(limit));
+
+        // the new limit applies from the next token on
+        RateLimits.Limit faster = new RateLimits.Limit(1000, 5);
+        Thread.sleep(20);
+        assertTrue(bucket.tryAcquire(faster));
+        assertSame(faster, bucket.getLimit());
+    }
+
+    @Test
+    public void testInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimits.Limit(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimits.Limit(1, 0));
+    }
+}
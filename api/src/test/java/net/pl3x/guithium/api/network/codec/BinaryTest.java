@@ -0,0 +1,121 @@
+package net.pl3x.guithium.api.network.codec;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import java.nio.ByteBuffer;
+import net.pl3x.guithium.api.gui.Vec2;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.packet.Packet;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryTest {
+    @Test
+    public void testVarInt() {
+        int[] values = {0, 1, 127, 128, 255, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        for (int value : values) {
+            ByteArrayDataOutput out = ByteStreams.newDataOutput();
+            Binary.writeVarInt(out, value);
+            byte[] bytes = out.toByteArray();
+            assertEquals(Binary.sizeOfVarInt(value), bytes.length, "size of " + value);
+            assertEquals(value, Binary.readVarInt(ByteStreams.newDataInput(bytes)));
+        }
+    }
+
+    @Test
+    public void testVarIntTooBig() {
+        byte[] bytes = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01};
+        assertThrows(IllegalStateException.class, () -> Binary.readVarInt(ByteStreams.newDataInput(bytes)));
+    }
+
+    @Test
+    public void testFloat() {
+        float[] values = {
+                0F, -0F, 1F, -1F, 0.5F, -0.5F, 123F, -123F, 1F / 3F,
+                (1 << 27) - 1, -(1 << 27) + 1, 1 << 27, -(1 << 27), 1e9F, -1e9F, 1e30F,
+                Float.MAX_VALUE, -Float.MAX_VALUE, Float.MIN_VALUE,
+                Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NaN
+        };
+        for (float value : values) {
+            ByteArrayDataOutput out = ByteStreams.newDataOutput();
+            Binary.writeFloat(out, value);
+            float read = Binary.readFloat(ByteStreams.newDataInput(out.toByteArray()));
+            // compare bits so -0.0 and NaN have to come back exactly
+            assertEquals(Float.floatToRawIntBits(value), Float.floatToRawIntBits(read), "float " + value);
+        }
+    }
+
+    @Test
+    public void testFloatPacking() {
+        // small whole numbers take a single byte, negative ones too
+        assertEquals(1, sizeOfFloat(0F));
+        assertEquals(1, sizeOfFloat(1F));
+        assertEquals(1, sizeOfFloat(-1F));
+        assertEquals(1, sizeOfFloat(-16F));
+        // anything else is a marker and the raw float
+        assertEquals(5, sizeOfFloat(-0F));
+        assertEquals(5, sizeOfFloat(0.5F));
+        assertEquals(5, sizeOfFloat(1e9F));
+    }
+
+    @Test
+    public void testString() {
+        String[] values = {"", "guithium", "ünïcödé ✓", "x".repeat(Binary.MAX_STRING_LENGTH)};
+        for (String value : values) {
+            ByteArrayDataOutput out = ByteStreams.newDataOutput();
+            Binary.writeString(out, value);
+            assertEquals(value, Binary.readString(ByteStreams.newDataInput(out.toByteArray())));
+        }
+        assertThrows(IllegalStateException.class, () -> Binary.writeString(ByteStreams.newDataOutput(), "x".repeat(Binary.MAX_STRING_LENGTH + 1)));
+    }
+
+    @Test
+    public void testStringMalformed() {
+        // longer than any string may be
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        Binary.writeVarInt(out, Binary.MAX_STRING_LENGTH + 1);
+        assertThrows(IllegalStateException.class, () -> Binary.readString(ByteStreams.newDataInput(out.toByteArray())));
+
+        // negative length
+        ByteArrayDataOutput negative = ByteStreams.newDataOutput();
+        Binary.writeVarInt(negative, -1);
+        assertThrows(IllegalStateException.class, () -> Binary.readString(ByteStreams.newDataInput(negative.toByteArray())));
+
+        // longer than what is left of the frame
+        ByteArrayDataOutput truncated = ByteStreams.newDataOutput();
+        Binary.writeVarInt(truncated, 1000);
+        truncated.write(new byte[10]);
+        byte[] bytes = truncated.toByteArray();
+        assertThrows(IllegalStateException.class, () -> Binary.readString(Packet.in(ByteBuffer.wrap(bytes))));
+        assertThrows(IllegalStateException.class, () -> Binary.readString(ByteStreams.newDataInput(bytes)));
+    }
+
+    @Test
+    public void testKeyAndVec2() {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        Binary.writeKey(out, Key.of("test:key"));
+        Binary.writeVec2(out, Vec2.of(-12.5F, 300F));
+        ByteArrayDataInput in = ByteStreams.newDataInput(out.toByteArray());
+        assertEquals(Key.of("test:key"), Binary.readKey(in));
+        assertEquals(Vec2.of(-12.5F, 300F), Binary.readVec2(in));
+    }
+
+    @Test
+    public void testMasks() {
+        assertEquals(0b101, Binary.mask("a", null, 1F));
+        assertEquals(0, Binary.mask(null, null));
+        assertEquals(0b110, Binary.changed(new int[]{1, 5, 3}, 2));
+        assertEquals(0b111, Binary.changed(new int[]{0, 5, 3}, -1));
+        assertEquals(0, Binary.changed(new int[]{1, 5, 3}, 5));
+        assertTrue(Binary.has(0b100, 2));
+        assertFalse(Binary.has(0b100, 1));
+    }
+
+    private static int sizeOfFloat(float value) {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        Binary.writeFloat(out, value);
+        return out.toByteArray().length;
+    }
+}
@@ -0,0 +1,203 @@
+package net.pl3x.guithium.api.network.codec;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import java.util.List;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.pl3x.guithium.api.gui.Screen;
+import net.pl3x.guithium.api.gui.Vec2;
+import net.pl3x.guithium.api.gui.Vec4;
+import net.pl3x.guithium.api.gui.element.Button;
+import net.pl3x.guithium.api.gui.element.Checkbox;
+import net.pl3x.guithium.api.gui.element.Circle;
+import net.pl3x.guithium.api.gui.element.Element;
+import net.pl3x.guithium.api.gui.element.Gradient;
+import net.pl3x.guithium.api.gui.element.Image;
+import net.pl3x.guithium.api.gui.element.Line;
+import net.pl3x.guithium.api.gui.element.Radio;
+import net.pl3x.guithium.api.gui.element.Slider;
+import net.pl3x.guithium.api.gui.element.Text;
+import net.pl3x.guithium.api.gui.element.Textbox;
+import net.pl3x.guithium.api.gui.texture.Texture;
+import net.pl3x.guithium.api.json.Gson;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.packet.OpenScreenPacket;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Every element has to come back the same through both codecs, with every property set and with none of them set
+
+public class CodecTest {
+    @Test
+    public void testElements() {
+        for (Element element : elements()) {
+            assertEquals(element, binary(element), element.getKey() + " binary");
+            assertEquals(element, json(element), element.getKey() + " json");
+        }
+    }
+
+    @Test
+    public void testEmptyElements() {
+        // values and slider bounds read back as their defaults when unset, everything else stays unset
+        List<Element> elements = List.of(
+                Button.of("test:button"),
+                Checkbox.of("test:checkbox").setValue(false),
+                Circle.of("test:circle"),
+                Gradient.of("test:gradient"),
+                Image.of("test:image").setTexture(Texture.DIRT),
+                Line.of("test:line"),
+                Radio.of("test:radio").setValue(false),
+                Slider.of("test:slider").setValue(0D).setMin(0D).setMax(1D),
+                Text.of("test:text"),
+                Textbox.of("test:textbox").setValue("")
+        );
+        for (Element element : elements) {
+            assertEquals(element, binary(element), element.getKey() + " binary");
+            assertEquals(element, json(element), element.getKey() + " json");
+        }
+    }
+
+    @Test
+    public void testPatchEverything() {
+        // a patch since before the first version carries every property, onto a blank element of the same type
+        List<Element> blanks = List.of(
+                Button.of("test:button"),
+                Checkbox.of("test:checkbox"),
+                Circle.of("test:circle"),
+                Gradient.of("test:gradient"),
+                Image.of("test:image").setTexture(Texture.DIRT),
+                Line.of("test:line"),
+                Radio.of("test:radio"),
+                Slider.of("test:slider"),
+                Text.of("test:text"),
+                Textbox.of("test:textbox")
+        );
+        List<Element> elements = elements();
+        for (int i = 0; i < elements.size(); i++) {
+            Element element = elements.get(i);
+            Element blank = blanks.get(i);
+            ByteArrayDataOutput out = ByteStreams.newDataOutput();
+            element.write(out, -1);
+            ByteArrayDataInput in = ByteStreams.newDataInput(out.toByteArray());
+            blank.patch(in);
+            assertEquals(element, blank, element.getKey() + " patch");
+        }
+    }
+
+    @Test
+    public void testScreen() {
+        Screen screen = new Screen(Key.of("test:screen"));
+        elements().forEach(screen::addElement);
+        for (Codec codec : Codec.values()) {
+            ByteArrayDataOutput out = new OpenScreenPacket(screen).write(codec);
+            ByteArrayDataInput in = ByteStreams.newDataInput(out.toByteArray());
+            in.readInt();
+            in.readUTF();
+            assertEquals(screen, new OpenScreenPacket(in, codec).getScreen(), codec.name());
+        }
+
+        Screen hud = new Screen(Key.of("test:hud"), true);
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        hud.write(out);
+        assertEquals(hud, Screen.read(ByteStreams.newDataInput(out.toByteArray())));
+    }
+
+    @Test
+    public void testTextureHash() {
+        Texture texture = Texture.of(Key.of("test:texture"), "https://example.com/image.png", "AB".repeat(32));
+        // the hash is not part of the url, which is what textures are shared by
+        assertEquals("https://example.com/image.png", texture.getUrl());
+        assertEquals("ab".repeat(32), texture.getHash());
+        assertNotEquals(Texture.of("test:texture", "https://example.com/image.png"), texture);
+    }
+
+    @NotNull
+    private static List<Element> elements() {
+        return List.of(
+                Button.of("test:button")
+                        .setPos(10, 20)
+                        .setAnchor(0.5F, 0.5F)
+                        .setOffset(-0.5F, -0.5F)
+                        .setRotation(45F)
+                        .setScale(1.5F)
+                        .setSize(Vec2.of(100, 20))
+                        .setLabel(Component.text("Click", NamedTextColor.RED))
+                        .setTooltip("Tooltip"),
+                Checkbox.of("test:checkbox")
+                        .setPos(-3, 4.25F)
+                        .setLabel("Check")
+                        .setValue(true),
+                Circle.of("test:circle")
+                        .setPos(64, 64)
+                        .setRadius(32)
+                        .setResolution(12)
+                        .setInnerColor(0xFFFFFFFF)
+                        .setOuterColor(0x00FF00FF),
+                Gradient.of("test:gradient")
+                        .setSize(Vec2.of(50, 50))
+                        .setColorTop(0xFF112233)
+                        .setColorBottom(0x80445566),
+                Image.of("test:image")
+                        .setTexture(Texture.of(Key.of("test:texture"), "https://example.com/image.png", "AB".repeat(32)))
+                        .setSize(Vec2.of(16, 16))
+                        .setUV(Vec4.of(0, 0, 0.5F, 0.5F))
+                        .setVertexColor(0xFFAABBCC)
+                        .setTileModifier(32F),
+                Line.of("test:line")
+                        .setPos(1, 2)
+                        .setEndPos(300, 400)
+                        .setEndAnchor(1, 1)
+                        .setEndOffset(-1, -1)
+                        .setWidth(3)
+                        .setStartColor(0xFF000000)
+                        .setEndColor(0xFFFFFFFF),
+                Radio.of("test:radio")
+                        .setGroup(Key.of("test:group"))
+                        .setLabel("Radio")
+                        .setValue(true),
+                Slider.of("test:slider")
+                        .setSize(Vec2.of(150, 20))
+                        .setMin(-10D)
+                        .setMax(10D)
+                        .setDecimalFormat("0.00")
+                        .setUpdateInterval(5)
+                        .setValue(2.5D),
+                Text.of("test:text")
+                        .setText(Component.text("Hello ").append(Component.text("world", NamedTextColor.GOLD)))
+                        .setShadow(true),
+                Textbox.of("test:textbox")
+                        .setSize(Vec2.of(200, 20))
+                        .setSuggestion(Component.text("Type here"))
+                        .setBordered(false)
+                        .setCanLoseFocus(true)
+                        .setMaxLength(32)
+                        .setEditable(true)
+                        .setTextColor(0xFFE0E0E0)
+                        .setUneditableTextColor(0xFF707070)
+                        .setUpdateInterval(10)
+                        .setValue("ünïcödé")
+        );
+    }
+
+    @NotNull
+    private static Element binary(@NotNull Element element) {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        element.write(out);
+        ByteArrayDataInput in = ByteStreams.newDataInput(out.toByteArray());
+        Element read = Element.read(in);
+        // everything written has to be read back
+        assertThrows(IllegalStateException.class, in::readByte);
+        return read;
+    }
+
+    @NotNull
+    private static Element json(@NotNull Element element) {
+        Element read = Gson.fromJson(Gson.toJson(element), Element.class);
+        assertNotNull(read);
+        return read;
+    }
+}
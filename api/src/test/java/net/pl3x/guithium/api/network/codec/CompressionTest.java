@@ -0,0 +1,158 @@
+package net.pl3x.guithium.api.network.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Deflater;
+import net.kyori.adventure.text.Component;
+import net.pl3x.guithium.api.gui.Screen;
+import net.pl3x.guithium.api.gui.Vec2;
+import net.pl3x.guithium.api.gui.element.Button;
+import net.pl3x.guithium.api.gui.element.Text;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.packet.OpenScreenPacket;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressionTest {
+    @Test
+    public void testRoundTrip() {
+        byte[] data = json(4000);
+        byte[] frame = Compression.compress(data);
+        assertTrue(Compression.isCompressed(frame));
+        assertTrue(frame.length < data.length);
+        assertArrayEquals(data, Compression.decompress(frame));
+    }
+
+    @Test
+    public void testNotWorthIt() {
+        // too small to bother
+        byte[] small = json(1);
+        assertTrue(small.length < Compression.THRESHOLD);
+        assertSame(small, Compression.compress(small));
+
+        // random noise does not shrink
+        byte[] noise = new byte[2000];
+        new Random(0).nextBytes(noise);
+        noise[0] = 0;
+        assertSame(noise, Compression.compress(noise));
+    }
+
+    @Test
+    public void testTooBig() {
+        byte[] data = json(4000);
+        byte[] frame = Compression.compress(data);
+        assertThrows(IllegalStateException.class, () -> Compression.decompress(frame, data.length - 1));
+        assertArrayEquals(data, Compression.decompress(frame, data.length));
+
+        // declared length over the cap is refused before inflating anything
+        byte[] huge = frame.clone();
+        ByteBuffer.wrap(huge).putInt(1, Compression.MAX_SIZE + 1);
+        assertThrows(IllegalStateException.class, () -> Compression.decompress(huge));
+    }
+
+    @Test
+    public void testTruncated() {
+        byte[] frame = Compression.compress(json(4000));
+        assertThrows(IllegalStateException.class, () -> Compression.decompress(new byte[]{Compression.MARKER}));
+        assertThrows(IllegalStateException.class, () -> Compression.decompress(Arrays.copyOf(frame, 4)));
+        for (int length = 5; length < frame.length; length += 7) {
+            byte[] truncated = Arrays.copyOf(frame, length);
+            assertThrows(IllegalStateException.class, () -> Compression.decompress(truncated), "length " + length);
+        }
+    }
+
+    @Test
+    public void testWrongLength() {
+        byte[] data = json(4000);
+        byte[] frame = Compression.compress(data);
+
+        // header claims less than the stream inflates to
+        byte[] shorter = frame.clone();
+        ByteBuffer.wrap(shorter).putInt(1, data.length - 1);
+        assertThrows(IllegalStateException.class, () -> Compression.decompress(shorter));
+
+        // header claims more than the stream inflates to
+        byte[] longer = frame.clone();
+        ByteBuffer.wrap(longer).putInt(1, data.length + 1);
+        assertThrows(IllegalStateException.class, () -> Compression.decompress(longer));
+
+        // junk after the end of the stream
+        byte[] trailing = Arrays.copyOf(frame, frame.length + 3);
+        assertThrows(IllegalStateException.class, () -> Compression.decompress(trailing));
+    }
+
+    @Test
+    public void testMalformed() {
+        byte[] garbage = new byte[64];
+        new Random(1).nextBytes(garbage);
+        garbage[0] = Compression.MARKER;
+        ByteBuffer.wrap(garbage).putInt(1, 100);
+        assertThrows(IllegalStateException.class, () -> Compression.decompress(garbage));
+
+        // a valid stream without the dictionary still has to inflate to exactly its length
+        byte[] data = json(4000);
+        Deflater deflater = new Deflater();
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] deflated = new byte[data.length];
+        int length = deflater.deflate(deflated);
+        deflater.end();
+        byte[] frame = new byte[length + 5];
+        frame[0] = Compression.MARKER;
+        ByteBuffer.wrap(frame).putInt(1, data.length);
+        System.arraycopy(deflated, 0, frame, 5, length);
+        assertArrayEquals(data, Compression.decompress(frame));
+    }
+
+    @Test
+    public void testDictionary() {
+        // the dictionary is built from screens, so a small screen shrinks a lot more with it than without it
+        Screen screen = new Screen(Key.of("test:screen"));
+        screen.addElement(Button.of("test:button").setSize(Vec2.of(100, 20)).setLabel("Button"));
+        screen.addElement(Text.of("test:text").setText(Component.text("Text")));
+        for (Codec codec : Codec.values()) {
+            byte[] data = new OpenScreenPacket(screen).write(codec).toByteArray();
+            byte[] padded = Arrays.copyOf(data, Math.max(data.length, Compression.THRESHOLD));
+            byte[] frame = Compression.compress(padded);
+            assertTrue(Compression.isCompressed(frame), codec.name());
+            assertTrue(frame.length < deflate(padded, null).length, codec.name());
+            assertArrayEquals(padded, Compression.decompress(frame));
+        }
+    }
+
+    @Test
+    public void testWrongDictionary() {
+        // the dictionary id deflate puts in the header has to be ours
+        byte[] data = json(4000);
+        byte[] deflated = deflate(data, "another dictionary".getBytes(StandardCharsets.UTF_8));
+        byte[] frame = new byte[deflated.length + 5];
+        frame[0] = Compression.MARKER;
+        ByteBuffer.wrap(frame).putInt(1, data.length);
+        System.arraycopy(deflated, 0, frame, 5, deflated.length);
+        assertThrows(IllegalStateException.class, () -> Compression.decompress(frame));
+    }
+
+    private static byte[] deflate(byte[] data, byte[] dictionary) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        if (dictionary != null) {
+            deflater.setDictionary(dictionary);
+        }
+        deflater.setInput(data);
+        deflater.finish();
+        byte[] deflated = new byte[data.length + 64];
+        int length = deflater.deflate(deflated);
+        deflater.end();
+        return Arrays.copyOf(deflated, length);
+    }
+
+    private static byte[] json(int elements) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < elements; i++) {
+            json.append("{\"key\":\"guithium:element_").append(i).append("\",\"pos\":{\"x\":").append(i % 100).append(".0}},");
+        }
+        return json.append("]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,115 @@
+package net.pl3x.guithium.api.network.packet;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import net.pl3x.guithium.api.gui.Vec2;
+import net.pl3x.guithium.api.gui.element.Element;
+import net.pl3x.guithium.api.gui.element.Gradient;
+import net.pl3x.guithium.api.network.codec.Binary;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ElementPatchPacketTest {
+    @Test
+    public void testFull() {
+        Gradient gradient = gradient();
+        assertEquals(gradient, copy(gradient));
+    }
+
+    @Test
+    public void testMasks() {
+        Gradient gradient = gradient();
+        int since = gradient.getVersion();
+        gradient.setPos(Vec2.of(-5, 2.5F));
+        gradient.setScale(null);
+
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        gradient.write(out, since);
+        ByteArrayDataInput in = ByteStreams.newDataInput(out.toByteArray());
+        // pos and scale changed, but only pos is still there
+        assertEquals(0b10001, in.readUnsignedByte());
+        assertEquals(0b00001, in.readUnsignedByte());
+        assertEquals(Vec2.of(-5, 2.5F), Binary.readVec2(in));
+        // size and colors did not change
+        assertEquals(0, in.readUnsignedByte());
+        assertEquals(0, in.readUnsignedByte());
+        assertEquals(0, in.readUnsignedByte());
+
+        // nothing changed since the latest version
+        ByteArrayDataOutput empty = ByteStreams.newDataOutput();
+        gradient.write(empty, gradient.getVersion());
+        assertArrayEquals(new byte[5], empty.toByteArray());
+    }
+
+    @Test
+    public void testPatch() {
+        Gradient gradient = gradient();
+        Gradient client = copy(gradient);
+        int since = gradient.getVersion();
+        gradient.setPos(Vec2.of(-5, 2.5F));
+        gradient.setScale(null);
+        gradient.setColorBottomRight(0xFF123456);
+        assertNotEquals(gradient, client);
+
+        ElementPatchPacket packet = send(new ElementPatchPacket(gradient, since));
+        assertTrue(packet.apply(client));
+        assertEquals(gradient, client);
+        assertNull(client.getScale());
+    }
+
+    @Test
+    public void testPatchSinceOlderVersion() {
+        // a client that missed a patch gets everything changed since the version it has
+        Gradient gradient = gradient();
+        Gradient client = copy(gradient);
+        int since = gradient.getVersion();
+        gradient.setSize(Vec2.of(40, 40));
+        gradient.setRotation(90F);
+        gradient.setColorTop(0xFFABCDEF);
+
+        ElementPatchPacket packet = send(new ElementPatchPacket(gradient, since));
+        assertTrue(packet.apply(client));
+        assertEquals(gradient, client);
+    }
+
+    @Test
+    public void testWrongElement() {
+        Gradient gradient = gradient();
+        Gradient other = Gradient.of("test:other");
+        ElementPatchPacket packet = new ElementPatchPacket(gradient, -1);
+        assertFalse(packet.apply(other));
+        assertNotEquals(gradient.getPos(), other.getPos());
+    }
+
+    @NotNull
+    private static Gradient gradient() {
+        Gradient gradient = Gradient.of("test:gradient");
+        gradient.setPos(Vec2.of(10, -20));
+        gradient.setAnchor(Vec2.of(0.5F, 0.5F));
+        gradient.setSize(Vec2.of(100, 50.25F));
+        gradient.setRotation(-0F);
+        gradient.setScale(2F);
+        gradient.setColorTopLeft(0xFFFF0000);
+        gradient.setColorBottomRight(0x8000FF00);
+        return gradient;
+    }
+
+    @NotNull
+    private static Gradient copy(@NotNull Gradient gradient) {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        gradient.write(out);
+        Element element = Element.read(ByteStreams.newDataInput(out.toByteArray()));
+        return assertInstanceOf(Gradient.class, element);
+    }
+
+    @NotNull
+    private static ElementPatchPacket send(@NotNull ElementPatchPacket packet) {
+        ByteArrayDataInput in = ByteStreams.newDataInput(packet.write().toByteArray());
+        in.readInt();
+        in.readUTF();
+        return new ElementPatchPacket(in);
+    }
+}
@@ -0,0 +1,149 @@
+package net.pl3x.guithium.api.network.packet;
+
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import net.pl3x.guithium.api.Guithium;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.Capabilities;
+import net.pl3x.guithium.api.network.Fragments;
+import net.pl3x.guithium.api.network.codec.Binary;
+import net.pl3x.guithium.api.network.codec.Codec;
+import net.pl3x.guithium.api.network.codec.Compression;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HelloPacketTest {
+    @Test
+    public void testRoundTrip() {
+        Capabilities capabilities = new Capabilities(
+                Codec.LATEST.getVersion(),
+                true,
+                Compression.DICTIONARY_ID,
+                false,
+                true,
+                16000,
+                Set.of(Capabilities.SCREEN_CACHE)
+        );
+        List<Key> packetKeys = List.of(HelloPacket.KEY, ElementPatchPacket.KEY);
+        HelloPacket packet = read(new HelloPacket(capabilities, packetKeys).write().toByteArray());
+        assertEquals(Guithium.PROTOCOL, packet.getProtocol());
+        assertEquals(capabilities, packet.getCapabilities());
+        assertEquals(packetKeys, packet.getPacketKeys());
+    }
+
+    @Test
+    public void testLegacy() {
+        // the oldest versions send nothing but the protocol
+        ByteArrayDataOutput out = header();
+        out.writeInt(Guithium.PROTOCOL);
+        HelloPacket packet = read(out.toByteArray());
+        assertEquals(Guithium.PROTOCOL, packet.getProtocol());
+        assertEquals(Capabilities.NONE, packet.getCapabilities());
+        assertTrue(packet.getPacketKeys().isEmpty());
+
+        // negotiating with them turns everything optional off
+        Capabilities negotiated = Capabilities.LATEST.negotiate(packet.getCapabilities());
+        assertEquals(Codec.JSON, negotiated.getCodec());
+        assertFalse(negotiated.compression());
+        assertFalse(negotiated.fragmentation());
+        assertFalse(negotiated.batching());
+        assertFalse(negotiated.hasFeature(Capabilities.SCREEN_CACHE));
+    }
+
+    @Test
+    public void testPartial() {
+        // a version from before fragmentation, batching and features existed
+        ByteArrayDataOutput out = header();
+        out.writeInt(Guithium.PROTOCOL);
+        out.writeByte(Codec.LATEST.getVersion());
+        out.writeBoolean(true);
+        Binary.writeVarInt(out, 1);
+        Binary.writeKey(out, HelloPacket.KEY);
+        HelloPacket packet = read(out.toByteArray());
+        Capabilities capabilities = packet.getCapabilities();
+        assertEquals(Codec.LATEST.getVersion(), capabilities.codec());
+        assertTrue(capabilities.compression());
+        assertEquals(0, capabilities.dictionary());
+        assertFalse(capabilities.fragmentation());
+        assertFalse(capabilities.batching());
+        assertEquals(Capabilities.NONE.maxPayloadSize(), capabilities.maxPayloadSize());
+        assertTrue(capabilities.features().isEmpty());
+        assertEquals(List.of(HelloPacket.KEY), packet.getPacketKeys());
+    }
+
+    @Test
+    public void testNegotiate() {
+        Capabilities remote = new Capabilities(
+                Codec.LATEST.getVersion() + 10,
+                true,
+                Compression.DICTIONARY_ID,
+                false,
+                true,
+                100,
+                Set.of(Capabilities.TEXTURE_PREFETCH, Key.of("test:unknown"))
+        );
+        Capabilities negotiated = Capabilities.LATEST.negotiate(remote);
+        // never a codec this side does not know
+        assertEquals(Codec.LATEST, negotiated.getCodec());
+        assertTrue(negotiated.compression());
+        assertEquals(Compression.DICTIONARY_ID, negotiated.dictionary());
+        assertFalse(negotiated.fragmentation());
+        assertTrue(negotiated.batching());
+        // never smaller than the smallest fragment
+        assertEquals(Fragments.MIN_SIZE, negotiated.maxPayloadSize());
+        assertEquals(Set.of(Capabilities.TEXTURE_PREFETCH), negotiated.features());
+
+        // both sides come to the same result
+        assertEquals(negotiated, remote.negotiate(Capabilities.LATEST));
+    }
+
+    @Test
+    public void testNegotiateDictionary() {
+        // a version with another dictionary could not inflate anything compressed with this one
+        Capabilities remote = new Capabilities(
+                Codec.LATEST.getVersion(),
+                true,
+                Compression.DICTIONARY_ID + 1,
+                true,
+                true,
+                Fragments.SIZE,
+                Set.of()
+        );
+        Capabilities negotiated = Capabilities.LATEST.negotiate(remote);
+        assertFalse(negotiated.compression());
+        assertEquals(0, negotiated.dictionary());
+        assertEquals(negotiated, remote.negotiate(Capabilities.LATEST));
+    }
+
+    @NotNull
+    private static ByteArrayDataOutput header() {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeInt(Guithium.PROTOCOL);
+        out.writeUTF(HelloPacket.KEY.toString());
+        return out;
+    }
+
+    @NotNull
+    private static HelloPacket read(byte[] bytes) {
+        // the same bytes have to read the same from a byte array as from a buffer
+        HelloPacket fromBuffer = new HelloPacket(skipHeader(Packet.in(ByteBuffer.wrap(bytes))));
+        HelloPacket fromArray = new HelloPacket(skipHeader(Packet.in(bytes)));
+        assertEquals(fromArray.getProtocol(), fromBuffer.getProtocol());
+        assertEquals(fromArray.getCapabilities(), fromBuffer.getCapabilities());
+        assertEquals(fromArray.getPacketKeys(), fromBuffer.getPacketKeys());
+        return fromBuffer;
+    }
+
+    @NotNull
+    private static ByteArrayDataInput skipHeader(@NotNull ByteArrayDataInput in) {
+        assertEquals(Guithium.PROTOCOL, in.readInt());
+        assertEquals(HelloPacket.KEY.toString(), in.readUTF());
+        return in;
+    }
+}
@@ -2,12 +2,14 @@ package net.pl3x.guithium.fabric;
 
 import java.lang.reflect.Field;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.pl3x.guithium.api.Guithium;
 import net.pl3x.guithium.api.action.ActionRegistry;
 import net.pl3x.guithium.api.network.packet.HelloPacket;
 import net.pl3x.guithium.api.player.PlayerManager;
 import net.pl3x.guithium.fabric.gui.HudManager;
+import net.pl3x.guithium.fabric.gui.screen.ScreenCache;
 import net.pl3x.guithium.fabric.gui.texture.FabricTextureManager;
 import net.pl3x.guithium.fabric.network.FabricNetworkHandler;
 import net.pl3x.guithium.fabric.scheduler.Scheduler;
@@ -18,6 +20,7 @@ public class GuithiumMod implements ClientModInitializer, Guithium {
     private final FabricTextureManager textureManager = new FabricTextureManager();
 
     private final HudManager hudManager = new HudManager();
+    private final ScreenCache screenCache = new ScreenCache();
     private final Scheduler scheduler = new Scheduler();
 
     private final String version;
@@ -41,6 +44,9 @@ public class GuithiumMod implements ClientModInitializer, Guithium {
 
         getScheduler().register();
 
+        // send slider and textbox values that were held back to merge rapid changes
+        ClientTickEvents.END_CLIENT_TICK.register(client -> getNetworkHandler().getConnection().getChangedValueQueue().tick());
+
         // tell server hello when joining so it knows we have guithium installed
         ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> {
             // ensure we are not connecting to a single player game
@@ -53,8 +59,10 @@ public class GuithiumMod implements ClientModInitializer, Guithium {
         // clean everything up when disconnecting from server
         ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
             getScheduler().cancelAll();
-            getTextureManager().clear();
             getHudManager().clear();
+            getTextureManager().clear();
+            getScreenCache().clearExpected();
+            getNetworkHandler().getConnection().reset();
         });
     }
 
@@ -93,6 +101,11 @@ public class GuithiumMod implements ClientModInitializer, Guithium {
         return this.hudManager;
     }
 
+    @NotNull
+    public ScreenCache getScreenCache() {
+        return this.screenCache;
+    }
+
     @NotNull
     public Scheduler getScheduler() {
         return this.scheduler;
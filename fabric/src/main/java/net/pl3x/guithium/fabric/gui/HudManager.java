@@ -13,7 +13,11 @@ public class HudManager {
     private final Map<Key, AbstractScreen> screens = new HashMap<>();
 
     public void add(@NotNull AbstractScreen screen) {
-        this.screens.put(screen.getKey(), screen);
+        AbstractScreen old = this.screens.put(screen.getKey(), screen);
+        if (old != null) {
+            old.detach();
+        }
+        screen.attach();
         screen.init(
                 Minecraft.getInstance(),
                 Minecraft.getInstance().getWindow().getGuiScaledWidth(),
@@ -34,10 +38,15 @@ public class HudManager {
 
     @Nullable
     public AbstractScreen remove(@NotNull Key key) {
-        return this.screens.remove(key);
+        AbstractScreen screen = this.screens.remove(key);
+        if (screen != null) {
+            screen.detach();
+        }
+        return screen;
     }
 
     public void clear() {
+        this.screens.values().forEach(AbstractScreen::detach);
         this.screens.clear();
     }
 
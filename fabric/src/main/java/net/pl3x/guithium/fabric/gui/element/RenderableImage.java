@@ -12,11 +12,14 @@ import net.pl3x.guithium.api.gui.element.Image;
 import net.pl3x.guithium.fabric.GuithiumMod;
 import net.pl3x.guithium.fabric.gui.screen.AbstractScreen;
 import net.pl3x.guithium.fabric.gui.texture.FabricTexture;
+import net.pl3x.guithium.fabric.gui.texture.TextureLoader;
 import org.jetbrains.annotations.NotNull;
 
 public class RenderableImage extends AbstractWidget implements RenderableWidget {
+    private static final int PLACEHOLDER_COLOR = 0x40FFFFFF;
+
     private final RenderableDuck self;
-    private final FabricTexture texture;
+    private FabricTexture texture;
 
     private Image image;
     private float x0, y0, x1, y1;
@@ -28,8 +31,6 @@ public class RenderableImage extends AbstractWidget implements RenderableWidget
         this.self = ((RenderableDuck) this).duck(client, screen);
         this.image = image;
         this.active = false;
-
-        this.texture = ((GuithiumMod) Guithium.api()).getTextureManager().getOrCreate(image);
     }
 
     @Override
@@ -41,9 +42,28 @@ public class RenderableImage extends AbstractWidget implements RenderableWidget
     @Override
     public void updateElement(@NotNull Element element) {
         this.image = (Image) element;
+        if (this.texture != null && !this.texture.getUrl().equals(this.image.getTexture().getUrl())) {
+            detach();
+            attach();
+        }
         this.self.getScreen().refresh();
     }
 
+    @Override
+    public void attach() {
+        if (this.texture == null) {
+            this.texture = ((GuithiumMod) Guithium.api()).getTextureManager().acquire(getElement());
+        }
+    }
+
+    @Override
+    public void detach() {
+        if (this.texture != null) {
+            ((GuithiumMod) Guithium.api()).getTextureManager().release(this.texture);
+            this.texture = null;
+        }
+    }
+
     @Override
     public void init() {
         // update pos/size
@@ -88,13 +108,20 @@ public class RenderableImage extends AbstractWidget implements RenderableWidget
 
     @Override
     protected void renderWidget(@NotNull GuiGraphics gfx, int mouseX, int mouseY, float delta) {
-        if (!this.texture.isLoaded()) {
+        if (this.texture == null || this.texture.isFailed()) {
             return;
         }
 
         this.self.rotate(gfx, this.self.getCenterX(), this.self.getCenterY(), getElement().getRotation());
         this.self.scale(gfx, this.self.getCenterX(), this.self.getCenterY(), getElement().getScale());
 
+        if (!this.texture.isLoaded()) {
+            // still loading in the background (or evicted since), hold its place on the screen
+            this.texture.load(TextureLoader.Priority.VISIBLE);
+            gfx.fill((int) this.x0, (int) this.y0, (int) this.x1, (int) this.y1, PLACEHOLDER_COLOR);
+            return;
+        }
+
         this.texture.render(gfx, this.x0, this.y0, this.x1, this.y1, this.u0, this.v0, this.u1, this.v1, this.vertexColor);
     }
 
@@ -103,10 +103,28 @@ public class RenderableSlider extends AbstractSliderButton implements Renderable
         }
 
         getElement().setValue(this.lerpedValue);
-        conn().send(new ElementChangedValuePacket<>(
-                this.self.getScreen().getScreen(),
-                getElement(),
-                this.lerpedValue
-        ));
+        changedValues().offer(
+                new ElementChangedValuePacket<>(
+                        this.self.getScreen().getScreen(),
+                        getElement(),
+                        this.lerpedValue
+                ),
+                Numbers.unbox(getElement().getUpdateInterval(), Slider.DEFAULT_UPDATE_INTERVAL)
+        );
+    }
+
+    @Override
+    public void onRelease(double mouseX, double mouseY) {
+        super.onRelease(mouseX, mouseY);
+        // make sure the server gets the value the slider was dropped at
+        changedValues().flush(getElement().getKey());
+    }
+
+    @Override
+    public void setFocused(boolean focused) {
+        super.setFocused(focused);
+        if (!focused) {
+            changedValues().flush(getElement().getKey());
+        }
     }
 }
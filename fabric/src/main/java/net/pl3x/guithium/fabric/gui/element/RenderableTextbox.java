@@ -1,5 +1,6 @@
 package net.pl3x.guithium.fabric.gui.element;
 
+import com.mojang.blaze3d.platform.InputConstants;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.EditBox;
@@ -61,15 +62,35 @@ public class RenderableTextbox extends EditBox implements RenderableWidget {
             // get the real value, since it might have been trimmed
             getElement().setValue(getValue());
             if (getElement().onChange() != null) {
-                conn().send(new ElementChangedValuePacket<>(
-                        this.self.getScreen().getScreen(),
-                        getElement(),
-                        getValue()
-                ));
+                changedValues().offer(
+                        new ElementChangedValuePacket<>(
+                                this.self.getScreen().getScreen(),
+                                getElement(),
+                                getValue()
+                        ),
+                        Numbers.unbox(getElement().getUpdateInterval(), Textbox.DEFAULT_UPDATE_INTERVAL)
+                );
             }
         });
     }
 
+    @Override
+    public boolean keyPressed(int keyCode, int scanCode, int modifiers) {
+        if (keyCode == InputConstants.KEY_RETURN || keyCode == InputConstants.KEY_NUMPADENTER) {
+            // enter usually submits, so the server needs the final text right away
+            changedValues().flush(getElement().getKey());
+        }
+        return super.keyPressed(keyCode, scanCode, modifiers);
+    }
+
+    @Override
+    public void setFocused(boolean focused) {
+        super.setFocused(focused);
+        if (!focused) {
+            changedValues().flush(getElement().getKey());
+        }
+    }
+
     @Override
     public void renderWidget(@NotNull GuiGraphics gfx, int mouseX, int mouseY, float delta) {
         this.self.rotate(gfx, this.self.getCenterX(), this.self.getCenterY(), getElement().getRotation());
@@ -17,6 +17,7 @@ import net.pl3x.guithium.api.gui.element.Textbox;
 import net.pl3x.guithium.api.network.Connection;
 import net.pl3x.guithium.fabric.GuithiumMod;
 import net.pl3x.guithium.fabric.gui.screen.AbstractScreen;
+import net.pl3x.guithium.fabric.network.ChangedValueQueue;
 import org.jetbrains.annotations.NotNull;
 
 // Guithium's renderable widgets implements these
@@ -28,11 +29,24 @@ public interface RenderableWidget {
 
     void init();
 
+    // the screen started being shown, take hold of anything shared
+    default void attach() {
+    }
+
+    // the screen is no longer shown, let go of anything shared
+    default void detach() {
+    }
+
     @NotNull
     default Connection conn() {
         return ((GuithiumMod) Guithium.api()).getNetworkHandler().getConnection();
     }
 
+    @NotNull
+    default ChangedValueQueue changedValues() {
+        return ((GuithiumMod) Guithium.api()).getNetworkHandler().getConnection().getChangedValueQueue();
+    }
+
     @NotNull
     static AbstractWidget create(@NotNull Minecraft client, @NotNull AbstractScreen screen, @NotNull Element element) {
         String type = element.getClass().getSimpleName();
@@ -10,6 +10,7 @@ import net.minecraft.network.chat.Component;
 import net.pl3x.guithium.api.gui.Screen;
 import net.pl3x.guithium.api.gui.element.Element;
 import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.packet.ElementPatchPacket;
 import net.pl3x.guithium.fabric.GuithiumMod;
 import net.pl3x.guithium.fabric.gui.element.RenderableWidget;
 import net.pl3x.guithium.fabric.util.RenderQueue;
@@ -22,6 +23,7 @@ public abstract class AbstractScreen extends net.minecraft.client.gui.screens.Sc
     protected final Map<Key, AbstractWidget> widgets = new LinkedHashMap<>();
 
     private net.minecraft.client.gui.screens.Screen previousScreen;
+    private boolean attached;
 
     public AbstractScreen(@NotNull GuithiumMod mod, @NotNull Screen screen) {
         super(Component.empty());
@@ -58,6 +60,32 @@ public abstract class AbstractScreen extends net.minecraft.client.gui.screens.Sc
         });
     }
 
+    @Override
+    public void added() {
+        super.added();
+        attach();
+    }
+
+    @Override
+    public void removed() {
+        super.removed();
+        detach();
+    }
+
+    public void attach() {
+        if (!this.attached) {
+            this.attached = true;
+            this.widgets.forEach((key, widget) -> ((RenderableWidget) widget).attach());
+        }
+    }
+
+    public void detach() {
+        if (this.attached) {
+            this.attached = false;
+            this.widgets.forEach((key, widget) -> ((RenderableWidget) widget).detach());
+        }
+    }
+
     public void preRender(@NotNull GuiGraphics gfx, float delta) {
         if (getScreen().isPreRender()) {
             render(gfx, 0, 0, delta);
@@ -124,4 +152,17 @@ public abstract class AbstractScreen extends net.minecraft.client.gui.screens.Sc
         }
         return false;
     }
+
+    public boolean patchElement(@NotNull ElementPatchPacket packet) {
+        AbstractWidget widget = getWidgets().get(packet.getElementKey());
+        if (widget instanceof RenderableWidget renderable) {
+            // found it. patch in place and update
+            Element element = renderable.getElement();
+            if (packet.apply(element)) {
+                renderable.updateElement(element);
+            }
+            return true;
+        }
+        return false;
+    }
 }
@@ -13,6 +13,8 @@ public class RenderableScreen extends AbstractScreen {
 
     @Override
     public void onClose() {
+        // values held back must arrive before the screen closes
+        this.mod.getNetworkHandler().getConnection().getChangedValueQueue().flushAll();
         CloseScreenPacket packet = new CloseScreenPacket(this.screen.getKey());
         this.mod.getNetworkHandler().getConnection().send(packet);
         super.onClose();
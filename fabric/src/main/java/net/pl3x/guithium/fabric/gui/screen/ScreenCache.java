@@ -0,0 +1,143 @@
+package net.pl3x.guithium.fabric.gui.screen;
+
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.Util;
+import net.pl3x.guithium.api.Guithium;
+import net.pl3x.guithium.api.gui.Screen;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.codec.Codec;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class ScreenCache {
+    private static final long MAX_DISK_SIZE = 16 * 1024 * 1024;
+    private static final int MAX_MEMORY = 16;
+
+    // hashes come from the server, never let them point anywhere but a file in our directory
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path dir = FabricLoader.getInstance().getGameDir().resolve(Guithium.MOD_ID).resolve("cache").resolve("screens");
+
+    // screens are mutable once opened, so keep the encoded bytes and decode a fresh copy every time
+    private final Map<String, byte[]> memory = new LinkedHashMap<>(MAX_MEMORY, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(@NotNull Map.Entry<String, byte[]> eldest) {
+            return size() > MAX_MEMORY;
+        }
+    };
+
+    // screens we asked the server for after a cache miss
+    private final Map<Key, String> expected = new HashMap<>();
+
+    @Nullable
+    public Screen get(@NotNull String hash) {
+        if (!HASH.matcher(hash).matches()) {
+            return null;
+        }
+        byte[] data = this.memory.get(hash);
+        Path file = this.dir.resolve(hash + ".bin");
+        if (data == null) {
+            try {
+                if (!Files.isRegularFile(file)) {
+                    return null;
+                }
+                data = Files.readAllBytes(file);
+                // most recently used files are the last to be pruned
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (IOException e) {
+                Guithium.logger.warn("Failed to read cached screen {}", hash, e);
+                return null;
+            }
+            this.memory.put(hash, data);
+        }
+        try {
+            return Screen.read(ByteStreams.newDataInput(data));
+        } catch (RuntimeException e) {
+            Guithium.logger.warn("Discarding corrupt cached screen {}", hash, e);
+            this.memory.remove(hash);
+            Util.ioPool().execute(() -> delete(file));
+            return null;
+        }
+    }
+
+    public void put(@NotNull String hash, @NotNull Screen screen) {
+        if (!HASH.matcher(hash).matches()) {
+            return;
+        }
+        // the hash is only the server's claim, never store a screen under a hash it does not have
+        if (!hash.equals(screen.getHash())) {
+            Guithium.logger.warn("Not caching screen {}, its hash does not match {}", screen.getKey(), hash);
+            return;
+        }
+        byte[] data = screen.encode(Codec.BINARY);
+        this.memory.put(hash, data);
+        Util.ioPool().execute(() -> {
+            try {
+                Files.createDirectories(this.dir);
+                Files.write(this.dir.resolve(hash + ".bin"), data);
+                prune();
+            } catch (IOException e) {
+                Guithium.logger.warn("Failed to write cached screen {}", hash, e);
+            }
+        });
+    }
+
+    public void expect(@NotNull Key screen, @NotNull String hash) {
+        this.expected.put(screen, hash);
+    }
+
+    @Nullable
+    public String takeExpected(@NotNull Key screen) {
+        return this.expected.remove(screen);
+    }
+
+    public void clearExpected() {
+        this.expected.clear();
+    }
+
+    private void prune() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(this.dir)) {
+            files = stream.filter(Files::isRegularFile).sorted(Comparator.comparing(ScreenCache::lastModified)).toList();
+        }
+        long size = 0;
+        for (Path file : files) {
+            size += Files.size(file);
+        }
+        for (Path file : files) {
+            if (size <= MAX_DISK_SIZE) {
+                break;
+            }
+            size -= Files.size(file);
+            delete(file);
+        }
+    }
+
+    private static long lastModified(@NotNull Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void delete(@NotNull Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            Guithium.logger.warn("Failed to delete cached screen {}", file, e);
+        }
+    }
+}
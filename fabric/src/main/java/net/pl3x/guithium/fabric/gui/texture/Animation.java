@@ -0,0 +1,164 @@
+package net.pl3x.guithium.fabric.gui.texture;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import java.util.concurrent.ForkJoinPool;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.texture.DynamicTexture;
+import net.minecraft.resources.ResourceLocation;
+import net.pl3x.guithium.api.Guithium;
+import net.pl3x.guithium.fabric.util.GifDecoder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class Animation {
+    // the frame being drawn is never the one being written to
+    private static final int RING_SIZE = 2;
+
+    private final int width;
+    private final int height;
+    private final float[] delays;
+
+    // every frame decoded up front when they fit the memory cap
+    private final int[][] decoded;
+
+    // otherwise only the compressed gif is kept and frames are drawn when they are shown
+    private final GifDecoder.GifImage gif;
+    private final int[] buffer;
+
+    private final DynamicTexture[] ring = new DynamicTexture[RING_SIZE];
+    private final ResourceLocation[] identifiers = new ResourceLocation[RING_SIZE];
+    private int slot = -1;
+    private int shown = -1;
+
+    // delays are in ticks (1/20 s), time is how far into the current frame the animation is
+    private final float duration;
+    private float time;
+    private int frame;
+    private long lastTick = -1;
+
+    private Animation(@NotNull GifDecoder.GifImage gif, float[] delays, int[][] decoded) {
+        this.width = gif.getWidth();
+        this.height = gif.getHeight();
+        this.delays = delays;
+        float duration = 0;
+        for (float delay : delays) {
+            duration += delay;
+        }
+        this.duration = duration;
+        this.decoded = decoded;
+        this.gif = decoded == null ? gif : null;
+        this.buffer = decoded == null ? new int[this.width * this.height] : null;
+    }
+
+    @NotNull
+    public static Animation of(@NotNull GifDecoder.GifImage gif, long maxMemory, @NotNull ForkJoinPool pool) {
+        int frameCount = gif.getFrameCount();
+        float[] delays = new float[frameCount];
+        for (int i = 0; i < frameCount; i++) {
+            // delay is number of hundredths (1/100) of a second
+            // divide by 5 to align with minecraft ticks (1/20)
+            // e.g., 10 delay == 10/100 s == (10/5)/20 s
+            delays[i] = gif.getDelay(i) / 5F;
+        }
+        long size = (long) gif.getWidth() * gif.getHeight() * 4 * frameCount;
+        if (size > maxMemory) {
+            return new Animation(gif, delays, null);
+        }
+        int[][] decoded = new int[frameCount][gif.getWidth() * gif.getHeight()];
+        gif.getFrames(decoded, pool);
+        for (int[] frame : decoded) {
+            TextureLoader.argb2abgr(frame);
+        }
+        return new Animation(gif, delays, decoded);
+    }
+
+    public int getFrameCount() {
+        return this.delays.length;
+    }
+
+    public boolean isStreaming() {
+        return this.decoded == null;
+    }
+
+    public long getMemorySize() {
+        long frameSize = (long) this.width * this.height * 4;
+        int uploaded = 0;
+        for (DynamicTexture texture : this.ring) {
+            if (texture != null) {
+                uploaded++;
+            }
+        }
+        // a streamed animation keeps one frame on the heap to draw into
+        return frameSize * (this.decoded != null ? this.decoded.length : 1) + frameSize * uploaded;
+    }
+
+    @Nullable
+    public ResourceLocation getIdentifier() {
+        return this.slot < 0 ? null : this.identifiers[this.slot];
+    }
+
+    public void tick(@NotNull ResourceLocation identifier) {
+        // advanced by real time, so frames shorter than a game tick still play and drawing it twice in a frame does nothing
+        long now = System.nanoTime();
+        if (this.lastTick >= 0 && this.duration > 0) {
+            this.time += (now - this.lastTick) / 50_000_000F;
+            // after a while without being drawn, skip ahead instead of replaying every missed frame
+            if (this.time >= this.duration) {
+                this.time %= this.duration;
+            }
+            while (this.time >= this.delays[this.frame]) {
+                this.time -= this.delays[this.frame];
+                if (++this.frame >= this.delays.length) {
+                    this.frame = 0;
+                }
+            }
+        }
+        this.lastTick = now;
+        if (this.frame != this.shown) {
+            upload(identifier);
+        }
+    }
+
+    private void upload(@NotNull ResourceLocation identifier) {
+        int next = (this.slot + 1) % RING_SIZE;
+        DynamicTexture texture = this.ring[next];
+        if (texture == null) {
+            this.identifiers[next] = identifier.withSuffix("/frame_" + next);
+            texture = new DynamicTexture(this.identifiers[next].toString(), this.width, this.height, true);
+            this.ring[next] = texture;
+            Minecraft.getInstance().getTextureManager().register(this.identifiers[next], texture);
+        }
+        NativeImage image = texture.getPixels();
+        if (image == null) {
+            return;
+        }
+        int[] abgr;
+        if (this.decoded != null) {
+            abgr = this.decoded[this.frame];
+        } else {
+            this.gif.getFrame(this.frame, this.buffer);
+            abgr = TextureLoader.argb2abgr(this.buffer);
+        }
+        TextureLoader.write(image, abgr);
+        texture.upload();
+        this.slot = next;
+        this.shown = this.frame;
+    }
+
+    public void close() {
+        for (int i = 0; i < RING_SIZE; i++) {
+            if (this.ring[i] == null) {
+                continue;
+            }
+            try {
+                Minecraft.getInstance().getTextureManager().release(this.identifiers[i]);
+            } catch (Throwable t) {
+                Guithium.logger.error("Could not close texture {}", this.identifiers[i], t);
+            }
+            this.ring[i] = null;
+        }
+        this.slot = -1;
+        this.shown = -1;
+        this.lastTick = -1;
+    }
+}
@@ -1,13 +1,11 @@
 package net.pl3x.guithium.fabric.gui.texture;
 
+import com.google.common.hash.Hashing;
 import com.mojang.blaze3d.platform.NativeImage;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.VertexConsumer;
-import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.net.URI;
-import java.util.Locale;
-import javax.imageio.ImageIO;
+import java.nio.charset.StandardCharsets;
+import net.minecraft.Util;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.renderer.RenderType;
@@ -16,41 +14,69 @@ import net.minecraft.resources.ResourceLocation;
 import net.pl3x.guithium.api.Guithium;
 import net.pl3x.guithium.api.gui.texture.Texture;
 import net.pl3x.guithium.api.key.Key;
-import net.pl3x.guithium.fabric.util.GifDecoder;
+import net.pl3x.guithium.fabric.GuithiumMod;
 import net.pl3x.guithium.fabric.util.RenderQueue;
-import org.apache.commons.io.IOUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.joml.Matrix4f;
 
 public class FabricTexture extends Texture {
+    // failed loads are tried again later, waiting twice as long after every failure in a row
+    private static final long RETRY_MILLIS = 5000L;
+    private static final long MAX_RETRY_MILLIS = 300000L;
+
     private final ResourceLocation identifier;
+    private final boolean remote;
+
+    private volatile boolean isLoaded;
+    private volatile int failures;
+    private volatile long retryAt;
+    private boolean isUnloaded;
+
+    // size of the decoded image, and when it was last loaded or let go of by an image, for the memory budget
+    private int width;
+    private int height;
+    private long lastUsed;
+
+    // images drawing it, plus one while the server has it registered
+    private int references;
 
-    private float time;
-    private int frame;
-    private float[] frames = new float[]{0F};
-    private boolean isLoaded;
+    // small textures live in a shared atlas, and only get their own texture if something tiles them
+    private TextureAtlas.Region region;
+    private boolean isRegistered;
+
+    // animated textures only keep the frame being shown on the gpu
+    private Animation animation;
 
     public FabricTexture(@NotNull Texture texture) {
-        this(texture.getKey(), texture.getUrl());
+        this(texture.getKey(), texture.getUrl(), texture.getHash());
     }
 
     public FabricTexture(@NotNull Key key, @NotNull String url) {
-        super(key, url);
+        this(key, url, null);
+    }
+
+    public FabricTexture(@NotNull Key key, @NotNull String url, @Nullable String hash) {
+        super(key, url, hash);
         if (url.startsWith("http")) {
-            // custom texture from internet
-            this.identifier = ResourceLocation.parse(key.toString());
-            if (url.toLowerCase(Locale.ROOT).endsWith(".gif")) {
-                loadGifFromInternet();
-            } else {
-                loadFromInternet();
-            }
+            // custom texture from internet, fetched and decoded in the background once asked for.
+            // instances are shared by url, so the identifier has to come from the url and not the key
+            this.identifier = ResourceLocation.fromNamespaceAndPath(Guithium.MOD_ID, "remote/" + Hashing.sha256().hashString(url, StandardCharsets.UTF_8));
+            this.remote = true;
         } else {
             // vanilla (or other mod) texture
             this.identifier = ResourceLocation.parse(url);
+            this.remote = false;
             this.isLoaded = true;
         }
     }
 
+    public void load(@NotNull TextureLoader.Priority priority) {
+        if (this.remote && !this.isLoaded && !isFailed()) {
+            getManager().getLoader().load(this, priority);
+        }
+    }
+
     @NotNull
     public ResourceLocation getIdentifier() {
         return this.identifier;
@@ -60,63 +86,97 @@ public class FabricTexture extends Texture {
         return this.isLoaded;
     }
 
-    private void loadGifFromInternet() {
-        try {
-            byte[] bytes = IOUtils.toByteArray(URI.create(getUrl()));
-            GifDecoder.GifImage gif = GifDecoder.read(bytes);
-            int frameCount = gif.getFrameCount();
-            BufferedImage image = new BufferedImage(
-                    gif.getWidth(),
-                    gif.getHeight() * frameCount,
-                    BufferedImage.TYPE_INT_ARGB
-            );
-            this.frames = new float[frameCount];
-            for (int i = 0; i < frameCount; i++) {
-                BufferedImage frame = gif.getFrame(i);
-                // delay is number of hundredths (1/100) of a second
-                // divide by 5 to align with minecraft ticks (1/20)
-                // e.g., 10 delay == 10/100 s == (10/5)/20 s
-                this.frames[i] = gif.getDelay(i) / 5F;
-                for (int x = 0; x < gif.getWidth(); x++) {
-                    for (int y = 0; y < gif.getHeight(); y++) {
-                        image.setRGB(x, gif.getHeight() * i + y, frame.getRGB(x, y));
-                    }
-                }
-            }
-            loadImage(image);
-        } catch (IOException e) {
-            System.out.println(getIdentifier() + " " + getUrl());
-            throw new RuntimeException(e);
-        }
+    public boolean isFailed() {
+        return this.failures > 0 && Util.getMillis() < this.retryAt;
     }
 
-    private void loadFromInternet() {
-        try {
-            loadImage(ImageIO.read(URI.create(getUrl()).toURL()));
-        } catch (IOException e) {
-            System.out.println(getIdentifier() + " " + getUrl());
-            throw new RuntimeException(e);
+    void fail() {
+        // only the loader writes this, and never for the same texture at once
+        int failures = ++this.failures;
+        this.retryAt = Util.getMillis() + Math.min(MAX_RETRY_MILLIS, RETRY_MILLIS << Math.min(failures - 1, 16));
+    }
+
+    void retain() {
+        this.references++;
+    }
+
+    int release() {
+        return --this.references;
+    }
+
+    public int getReferences() {
+        return this.references;
+    }
+
+    public long getLastUsed() {
+        return this.lastUsed;
+    }
+
+    void setLastUsed(long lastUsed) {
+        this.lastUsed = lastUsed;
+    }
+
+    public long getMemorySize() {
+        if (this.animation != null) {
+            return this.animation.getMemorySize();
         }
+        // sprites are counted with their atlas
+        return this.isRegistered ? (long) this.width * this.height * 4 : 0;
     }
 
-    private void loadImage(BufferedImage image) {
+    boolean isPacked() {
+        return this.region != null;
+    }
+
+    void upload(@NotNull NativeImage pixels) {
         if (!RenderSystem.isOnRenderThread()) {
-            RenderQueue.recordRenderCall(() -> loadImage(image));
+            RenderQueue.recordRenderCall(() -> upload(pixels));
             return;
         }
-        DynamicTexture texture = new DynamicTexture(getKey().toString(), image.getWidth(), image.getHeight(), true);
-        NativeImage nativeImage = texture.getPixels();
-        if (nativeImage == null) {
+        if (this.isUnloaded) {
+            pixels.close(); // removed while it was still loading
             return;
         }
-        for (int x = 0; x < image.getWidth(); x++) {
-            for (int y = 0; y < image.getHeight(); y++) {
-                nativeImage.setPixelABGR(x, y, rgb2bgr(image.getRGB(x, y)));
-            }
+        this.failures = 0;
+        this.width = pixels.getWidth();
+        this.height = pixels.getHeight();
+        this.lastUsed = Util.getMillis();
+        this.region = getManager().pack(pixels);
+        if (this.region == null) {
+            register(pixels);
+            this.isLoaded = true;
+            getManager().trim();
+            return;
         }
-        texture.upload();
-        Minecraft.getInstance().getTextureManager().register(getIdentifier(), texture);
+        pixels.close();
+        // the atlas is sent to the gpu at the end of this frame, do not draw from it before that
+        RenderQueue.recordRenderCall(() -> this.isLoaded = this.region != null);
+        getManager().trim();
+    }
+
+    void upload(@NotNull Animation animation) {
+        if (!RenderSystem.isOnRenderThread()) {
+            RenderQueue.recordRenderCall(() -> upload(animation));
+            return;
+        }
+        if (this.isUnloaded) {
+            return; // removed while it was still loading
+        }
+        this.failures = 0;
+        this.animation = animation;
+        // show the first frame right away instead of waiting for the next draw
+        animation.tick(this.identifier);
+        this.lastUsed = Util.getMillis();
         this.isLoaded = true;
+        getManager().trim();
+    }
+
+    private void register(@NotNull NativeImage pixels) {
+        // decoded off the render thread, so the texture takes the image as it is and sends it straight to the gpu.
+        // it owns the image from here on and closes it when released
+        DynamicTexture texture = new DynamicTexture(getKey()::toString, pixels);
+        Minecraft.getInstance().getTextureManager().register(getIdentifier(), texture);
+        this.isRegistered = true;
     }
 
     public void unload() {
@@ -124,43 +184,72 @@ public class FabricTexture extends Texture {
             RenderQueue.recordRenderCall(this::unload);
             return;
         }
+        this.isUnloaded = true;
+        free();
+    }
+
+    void evict() {
+        // loaded again, most likely from the disk cache, the next time it is drawn
+        free();
+        this.isLoaded = false;
+        getManager().getLoader().forget(this);
+    }
+
+    private void free() {
+        if (this.region != null) {
+            getManager().unpack(this.region);
+            this.region = null;
+        }
+        if (this.animation != null) {
+            this.animation.close();
+            this.animation = null;
+        }
+        if (!this.isRegistered) {
+            return;
+        }
+        this.isRegistered = false;
         try {
-            Minecraft.getInstance().getTextureManager().getTexture(getIdentifier()).close();
+            Minecraft.getInstance().getTextureManager().release(getIdentifier());
         } catch (Throwable t) {
             Guithium.logger.error("Could not close texture {}", getIdentifier(), t);
         }
     }
 
-    private static int rgb2bgr(int color) {
-        // Minecraft flips red and blue for some reason
-        // lets flip them back
-        int a = color >> 24 & 0xFF;
-        int r = color >> 16 & 0xFF;
-        int g = color >> 8 & 0xFF;
-        int b = color & 0xFF;
-        return (a << 24) | (b << 16) | (g << 8) | r;
-    }
-
     public void render(@NotNull GuiGraphics gfx, float x0, float y0, float x1, float y1, float u0, float v0, float u1, float v1, int color) {
-        if (this.frames.length > 0) {
-            this.time += Minecraft.getInstance().getDeltaTracker().getGameTimeDeltaTicks();
-            float delay = this.frames[this.frame];
-            if (this.time >= delay) {
-                this.time -= delay;
-                if (++this.frame >= this.frames.length) {
-                    this.frame = 0;
+        ResourceLocation texture = this.identifier;
+        if (this.animation != null) {
+            this.animation.tick(this.identifier);
+            texture = this.animation.getIdentifier();
+            if (texture == null) {
+                return;
+            }
+        } else if (this.region != null) {
+            if (u0 >= 0 && v0 >= 0 && u1 <= 1 && v1 <= 1) {
+                // draw from the atlas so every image on it shares the same batch
+                texture = this.region.atlas().getIdentifier();
+                u0 = this.region.u(u0);
+                v0 = this.region.v(v0);
+                u1 = this.region.u(u1);
+                v1 = this.region.v(v1);
+            } else if (!this.isRegistered) {
+                // tiling wraps around the edges of the whole texture, which the atlas cannot do
+                NativeImage sprite = this.region.atlas().read(this.region);
+                if (sprite != null) {
+                    register(sprite);
                 }
             }
-            float frameHeight = (v1 - v0) / this.frames.length;
-            v0 = frameHeight * this.frame;
-            v1 = v0 + frameHeight;
         }
 
         Matrix4f model = gfx.pose().last().pose();
-        VertexConsumer buf = gfx.bufferSource.getBuffer(RenderType.guiTextured(this.identifier));
+        VertexConsumer buf = gfx.bufferSource.getBuffer(RenderType.guiTextured(texture));
         buf.addVertex(model, x0, y0, 0).setUv(u0, v0).setColor(color);
         buf.addVertex(model, x0, y1, 0).setUv(u0, v1).setColor(color);
         buf.addVertex(model, x1, y1, 0).setUv(u1, v1).setColor(color);
         buf.addVertex(model, x1, y0, 0).setUv(u1, v0).setColor(color);
     }
+
+    @NotNull
+    private static FabricTextureManager getManager() {
+        return ((GuithiumMod) Guithium.api()).getTextureManager();
+    }
 }
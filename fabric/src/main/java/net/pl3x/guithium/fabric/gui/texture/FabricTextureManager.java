@@ -1,11 +1,14 @@
 package net.pl3x.guithium.fabric.gui.texture;
 
+import com.mojang.blaze3d.platform.NativeImage;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import net.pl3x.guithium.api.Unsafe;
+import net.minecraft.Util;
 import net.pl3x.guithium.api.gui.element.Image;
 import net.pl3x.guithium.api.gui.texture.Texture;
 import net.pl3x.guithium.api.gui.texture.TextureManager;
@@ -14,18 +17,163 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class FabricTextureManager extends TextureManager {
+    // enough atlases for a few thousand icons, anything past that gets its own texture
+    private static final int MAX_ATLASES = 4;
+
     protected final Map<Key, FabricTexture> textures = new HashMap<>();
 
+    // every texture in use by url, registered or only referenced by images
+    private final Map<String, FabricTexture> shared = new HashMap<>();
+
+    private final TextureCache cache = new TextureCache();
+    private final TextureLoader loader = new TextureLoader(this.cache);
+    private final List<TextureAtlas> atlases = new ArrayList<>();
+    private int nextAtlas;
+
+    // textures up to this size in both directions share atlases so they draw together
+    private int maxAtlasSpriteSize = Integer.getInteger("guithium.atlas.maxSpriteSize", 64);
+
+    // animations with more decoded frames than this are drawn from the compressed gif as they play
+    private long maxAnimationMemory = Long.getLong("guithium.animation.maxMemory", 16 * 1024 * 1024);
+
+    // textures no image uses are unloaded, least recently used first, when all of them together take more than this
+    private long maxMemory = Long.getLong("guithium.textures.maxMemory", 256 * 1024 * 1024);
+
+    @NotNull
+    public TextureCache getCache() {
+        return this.cache;
+    }
+
+    @NotNull
+    public TextureLoader getLoader() {
+        return this.loader;
+    }
+
+    public int getMaxAtlasSpriteSize() {
+        return this.maxAtlasSpriteSize;
+    }
+
+    public void setMaxAtlasSpriteSize(int size) {
+        this.maxAtlasSpriteSize = Math.min(size, TextureAtlas.SIZE);
+    }
+
+    public long getMaxAnimationMemory() {
+        return this.maxAnimationMemory;
+    }
+
+    public void setMaxAnimationMemory(long bytes) {
+        this.maxAnimationMemory = bytes;
+    }
+
+    public long getMaxMemory() {
+        return this.maxMemory;
+    }
+
+    public void setMaxMemory(long bytes) {
+        this.maxMemory = bytes;
+    }
+
+    public long getMemorySize() {
+        long size = 0;
+        for (FabricTexture texture : this.shared.values()) {
+            size += texture.getMemorySize();
+        }
+        for (TextureAtlas atlas : this.atlases) {
+            size += atlas.getMemorySize();
+        }
+        return size;
+    }
+
+    void trim() {
+        long size = getMemorySize();
+        if (size <= this.maxMemory) {
+            return;
+        }
+        Map<FabricTexture, Integer> registrations = getRegistrations();
+        List<FabricTexture> unused = this.shared.values().stream()
+                .filter(texture -> (texture.getMemorySize() > 0 || texture.isPacked()) && !isInUse(texture, registrations))
+                .sorted(Comparator.comparingLong(FabricTexture::getLastUsed))
+                .toList();
+        for (FabricTexture texture : unused) {
+            if (size <= this.maxMemory) {
+                break;
+            }
+            texture.evict();
+            // a sprite only gives memory back once its whole atlas is empty
+            size = getMemorySize();
+        }
+    }
+
     @NotNull
-    public FabricTexture getOrCreate(@NotNull Image image) {
-        Texture texture = image.getTexture();
-        FabricTexture fabricTexture = get(texture.getKey());
-        if (fabricTexture == null) {
-            return new FabricTexture(texture.getKey(), texture.getUrl());
+    private Map<FabricTexture, Integer> getRegistrations() {
+        Map<FabricTexture, Integer> registrations = new HashMap<>();
+        for (FabricTexture texture : this.textures.values()) {
+            registrations.merge(texture, 1, Integer::sum);
         }
+        return registrations;
+    }
+
+    private static boolean isInUse(@NotNull FabricTexture texture, @NotNull Map<FabricTexture, Integer> registrations) {
+        // every registration holds one reference, anything past those is an image using it
+        return texture.getReferences() > registrations.getOrDefault(texture, 0);
+    }
+
+    @Nullable
+    TextureAtlas.Region pack(@NotNull NativeImage pixels) {
+        if (pixels.getWidth() > this.maxAtlasSpriteSize || pixels.getHeight() > this.maxAtlasSpriteSize) {
+            return null;
+        }
+        for (TextureAtlas atlas : this.atlases) {
+            TextureAtlas.Region region = atlas.add(pixels);
+            if (region != null) {
+                return region;
+            }
+        }
+        if (this.atlases.size() >= MAX_ATLASES) {
+            return null;
+        }
+        TextureAtlas atlas = new TextureAtlas(this.nextAtlas++);
+        this.atlases.add(atlas);
+        return atlas.add(pixels);
+    }
+
+    void unpack(@NotNull TextureAtlas.Region region) {
+        TextureAtlas atlas = region.atlas();
+        atlas.release(region);
+        if (atlas.isEmpty()) {
+            // an empty atlas still holds its whole image, a new one is made again when needed
+            this.atlases.remove(atlas);
+            atlas.close();
+        }
+    }
+
+    @NotNull
+    public FabricTexture acquire(@NotNull Image image) {
+        FabricTexture fabricTexture = getOrCreate(image.getTexture());
+        fabricTexture.retain();
+        // images ask for their texture when they are put on screen, so it jumps the queue
+        fabricTexture.load(TextureLoader.Priority.VISIBLE);
         return fabricTexture;
     }
 
+    public void release(@NotNull FabricTexture texture) {
+        if (texture.release() > 0) {
+            // the longer nothing used it, the sooner it is evicted
+            texture.setLastUsed(Util.getMillis());
+            return;
+        }
+        // nothing draws it and the server does not have it registered anymore
+        this.shared.remove(texture.getUrl(), texture);
+        this.loader.forget(texture);
+        texture.unload();
+    }
+
+    public void prefetch(@NotNull Collection<Texture> textures) {
+        for (Texture texture : textures) {
+            register(texture).load(TextureLoader.Priority.PREFETCH);
+        }
+    }
+
     @Override
     public void add(@NotNull Collection<Texture> textures) {
         textures.forEach(this::add);
@@ -33,11 +181,28 @@ public class FabricTextureManager extends TextureManager {
 
     @Override
     public void add(@NotNull Texture texture) {
-        add(new FabricTexture(texture));
+        // nothing uses it yet, load it whenever there is nothing more important to do
+        register(texture).load(TextureLoader.Priority.BACKGROUND);
     }
 
-    public void add(@NotNull FabricTexture texture) {
-        this.textures.put(texture.getKey(), texture);
+    @NotNull
+    private FabricTexture register(@NotNull Texture texture) {
+        FabricTexture fabricTexture = getOrCreate(texture);
+        FabricTexture old = this.textures.put(texture.getKey(), fabricTexture);
+        if (old != fabricTexture) {
+            // registered textures stay around until the server removes them
+            fabricTexture.retain();
+            if (old != null) {
+                release(old);
+            }
+        }
+        return fabricTexture;
+    }
+
+    @NotNull
+    private FabricTexture getOrCreate(@NotNull Texture texture) {
+        // one instance per url, however many keys or images point at it
+        return this.shared.computeIfAbsent(texture.getUrl(), url -> new FabricTexture(texture));
     }
 
     @Override
@@ -61,9 +226,9 @@ public class FabricTextureManager extends TextureManager {
     @Override
     @Nullable
     public FabricTexture remove(@NotNull Key key) {
-        FabricTexture texture = Unsafe.cast(super.remove(key));
+        FabricTexture texture = this.textures.remove(key);
         if (texture != null) {
-            texture.unload();
+            release(texture);
         }
         return texture;
     }
@@ -75,6 +240,9 @@ public class FabricTextureManager extends TextureManager {
     }
 
     public void clear() {
-        new HashSet<>(this.textures.keySet()).forEach(super::remove);
+        this.loader.clear();
+        this.shared.values().forEach(FabricTexture::unload);
+        this.shared.clear();
+        this.textures.clear();
     }
 }
@@ -0,0 +1,185 @@
+package net.pl3x.guithium.fabric.gui.texture;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.texture.DynamicTexture;
+import net.minecraft.resources.ResourceLocation;
+import net.pl3x.guithium.api.Guithium;
+import net.pl3x.guithium.fabric.util.RenderQueue;
+import org.lwjgl.system.MemoryUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class TextureAtlas {
+    public static final int SIZE = 1024;
+
+    // keeps neighbouring sprites from bleeding into each other when scaled
+    private static final int PADDING = 1;
+
+    private final ResourceLocation identifier;
+    private final DynamicTexture texture;
+
+    // sprites are packed left to right into shelves as tall as their tallest sprite
+    private int shelfX;
+    private int shelfY;
+    private int shelfHeight;
+
+    // space given back by released sprites, filled again before the shelves grow any further
+    private final List<Slot> free = new ArrayList<>();
+
+    private int regions;
+    private boolean dirty;
+    private boolean closed;
+
+    public TextureAtlas(int index) {
+        this.identifier = ResourceLocation.fromNamespaceAndPath(Guithium.MOD_ID, "atlas/" + index);
+        this.texture = new DynamicTexture(this.identifier.toString(), SIZE, SIZE, true);
+        Minecraft.getInstance().getTextureManager().register(this.identifier, this.texture);
+    }
+
+    @NotNull
+    public ResourceLocation getIdentifier() {
+        return this.identifier;
+    }
+
+    public long getMemorySize() {
+        return (long) SIZE * SIZE * 4;
+    }
+
+    public boolean isEmpty() {
+        return this.regions == 0;
+    }
+
+    @Nullable
+    public Region add(@NotNull NativeImage pixels) {
+        int width = pixels.getWidth() + PADDING;
+        int height = pixels.getHeight() + PADDING;
+        if (width > SIZE || height > SIZE) {
+            return null;
+        }
+        NativeImage image = this.texture.getPixels();
+        if (image == null) {
+            return null;
+        }
+
+        int x;
+        int y;
+        Slot slot = takeFree(width, height);
+        if (slot != null) {
+            x = slot.x();
+            y = slot.y();
+        } else {
+            if (this.shelfX + width > SIZE) {
+                // start a new shelf on top of the current one
+                this.shelfY += this.shelfHeight;
+                this.shelfX = 0;
+                this.shelfHeight = 0;
+            }
+            if (this.shelfY + height > SIZE) {
+                return null;
+            }
+            x = this.shelfX;
+            y = this.shelfY;
+            this.shelfX += width;
+            this.shelfHeight = Math.max(this.shelfHeight, height);
+        }
+
+        TextureLoader.copy(pixels, image, x, y);
+        this.regions++;
+        markDirty();
+
+        return new Region(this, x, y, pixels.getWidth(), pixels.getHeight());
+    }
+
+    public void release(@NotNull Region region) {
+        if (--this.regions > 0) {
+            this.free.add(new Slot(region.x(), region.y(), region.width() + PADDING, region.height() + PADDING));
+            return;
+        }
+        // nothing left on it, new sprites can simply draw over the old ones
+        this.regions = 0;
+        this.shelfX = 0;
+        this.shelfY = 0;
+        this.shelfHeight = 0;
+        this.free.clear();
+    }
+
+    @Nullable
+    public NativeImage read(@NotNull Region region) {
+        NativeImage image = this.texture.getPixels();
+        if (image == null) {
+            return null;
+        }
+        NativeImage sprite = new NativeImage(region.width(), region.height(), false);
+        long rowSize = region.width() * 4L;
+        for (int row = 0; row < region.height(); row++) {
+            MemoryUtil.memCopy(
+                    image.getPointer() + ((long) (region.y() + row) * SIZE + region.x()) * 4,
+                    sprite.getPointer() + row * rowSize,
+                    rowSize
+            );
+        }
+        return sprite;
+    }
+
+    public void close() {
+        this.closed = true;
+        Minecraft.getInstance().getTextureManager().release(this.identifier);
+    }
+
+    @Nullable
+    private Slot takeFree(int width, int height) {
+        // the smallest slot it fits in wastes the least space
+        Slot best = null;
+        for (Slot slot : this.free) {
+            if (slot.width() >= width && slot.height() >= height
+                    && (best == null || slot.width() * slot.height() < best.width() * best.height())) {
+                best = slot;
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        this.free.remove(best);
+        // whatever is left of the slot to the right and below the sprite can still fit smaller ones
+        addFree(best.x() + width, best.y(), best.width() - width, height);
+        addFree(best.x(), best.y() + height, best.width(), best.height() - height);
+        return best;
+    }
+
+    private void addFree(int x, int y, int width, int height) {
+        // too small for even a single pixel sprite
+        if (width > PADDING && height > PADDING) {
+            this.free.add(new Slot(x, y, width, height));
+        }
+    }
+
+    private void markDirty() {
+        if (this.dirty) {
+            return;
+        }
+        this.dirty = true;
+        // many sprites can arrive in the same frame, only send the atlas to the gpu once for all of them
+        RenderQueue.recordRenderCall(() -> {
+            this.dirty = false;
+            if (!this.closed) {
+                this.texture.upload();
+            }
+        });
+    }
+
+    public record Region(@NotNull TextureAtlas atlas, int x, int y, int width, int height) {
+        public float u(float u) {
+            return (x() + width() * u) / SIZE;
+        }
+
+        public float v(float v) {
+            return (y() + height() * v) / SIZE;
+        }
+    }
+
+    private record Slot(int x, int y, int width, int height) {
+    }
+}
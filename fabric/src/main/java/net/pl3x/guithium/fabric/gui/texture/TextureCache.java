@@ -0,0 +1,301 @@
+package net.pl3x.guithium.fabric.gui.texture;
+
+import com.google.common.hash.Hashing;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import net.fabricmc.loader.api.FabricLoader;
+import net.pl3x.guithium.api.Guithium;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public class TextureCache {
+    private static final long MAX_DISK_SIZE = 64 * 1024 * 1024;
+    private static final long MAX_BODY_SIZE = 16 * 1024 * 1024;
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    // the timeout above only covers waiting for the headers, a slow body could take forever without this
+    private static final Duration DEADLINE = Duration.ofSeconds(30);
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+
+    private final Path dir = FabricLoader.getInstance().getGameDir().resolve(Guithium.MOD_ID).resolve("cache").resolve("textures");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(TIMEOUT)
+            .build();
+
+    // downloads still in progress, anyone else asking for the same url waits for the same one
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+    @NotNull
+    public byte[] get(@NotNull String url, @Nullable String hash) throws IOException {
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> running = this.inFlight.putIfAbsent(url, future);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw new IOException("Failed to load " + url, e.getCause());
+            }
+        }
+        try {
+            byte[] bytes = fetch(url, hash);
+            future.complete(bytes);
+            return bytes;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.inFlight.remove(url, future);
+        }
+    }
+
+    @NotNull
+    private byte[] fetch(@NotNull String url, @Nullable String hash) throws IOException {
+        // a hash from the server names the content itself, so a cached copy never needs revalidating
+        boolean verified = hash != null && HASH.matcher(hash).matches();
+        String name = verified ? hash : Hashing.sha256().hashString(url, StandardCharsets.UTF_8).toString();
+        Path data = this.dir.resolve(name + ".bin");
+        Path meta = this.dir.resolve(name + ".json");
+
+        JsonObject cached = null;
+        if (Files.isRegularFile(data)) {
+            if (verified) {
+                return read(data);
+            }
+            cached = readMeta(meta);
+            if (cached != null && cached.get("expires").getAsLong() > System.currentTimeMillis()) {
+                return read(data);
+            }
+        }
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(TIMEOUT)
+                .GET();
+        if (cached != null) {
+            if (cached.has("etag")) {
+                request.header("If-None-Match", cached.get("etag").getAsString());
+            }
+            if (cached.has("lastModified")) {
+                request.header("If-Modified-Since", cached.get("lastModified").getAsString());
+            }
+        }
+
+        HttpResponse<byte[]> response = send(request.build(), url);
+
+        if (response.statusCode() == 304 && cached != null) {
+            // still the same image, only remember how long it stays fresh
+            writeMeta(meta, url, response, cached);
+            return read(data);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Unexpected response " + response.statusCode() + " for " + url);
+        }
+
+        byte[] bytes = response.body();
+        if (verified && !Hashing.sha256().hashBytes(bytes).toString().equals(hash)) {
+            // not the image the server meant, never show it
+            throw new IOException("Texture " + url + " does not match its hash " + hash);
+        }
+        try {
+            Files.createDirectories(this.dir);
+            write(data, bytes);
+            if (!verified) {
+                writeMeta(meta, url, response, null);
+            }
+            prune();
+        } catch (IOException e) {
+            Guithium.logger.warn("Failed to cache texture {}", url, e);
+        }
+        return bytes;
+    }
+
+    @NotNull
+    private HttpResponse<byte[]> send(@NotNull HttpRequest request, @NotNull String url) throws IOException {
+        CompletableFuture<HttpResponse<byte[]>> future = this.client.sendAsync(request, info -> new LimitedBody(info.headers().firstValueAsLong("Content-Length").orElse(-1)));
+        try {
+            return future.get(DEADLINE.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IOException("Timed out downloading " + url, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to download " + url, e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading " + url, e);
+        }
+    }
+
+    @NotNull
+    private static byte[] read(@NotNull Path file) throws IOException {
+        // most recently used files are the last to be pruned
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        return Files.readAllBytes(file);
+    }
+
+    private void write(@NotNull Path file, byte[] bytes) throws IOException {
+        // several textures can load at once, never let anyone read a half written file
+        Path temp = Files.createTempFile(this.dir, file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, bytes);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Nullable
+    private static JsonObject readMeta(@NotNull Path file) {
+        try {
+            JsonObject json = JsonParser.parseString(Files.readString(file)).getAsJsonObject();
+            return json.has("expires") ? json : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void writeMeta(@NotNull Path file, @NotNull String url, @NotNull HttpResponse<byte[]> response, @Nullable JsonObject cached) throws IOException {
+        JsonObject json = new JsonObject();
+        json.addProperty("url", url);
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        if (etag == null && cached != null && cached.has("etag")) {
+            etag = cached.get("etag").getAsString();
+        }
+        if (lastModified == null && cached != null && cached.has("lastModified")) {
+            lastModified = cached.get("lastModified").getAsString();
+        }
+        if (etag != null) {
+            json.addProperty("etag", etag);
+        }
+        if (lastModified != null) {
+            json.addProperty("lastModified", lastModified);
+        }
+        long maxAge = 0;
+        String cacheControl = response.headers().firstValue("Cache-Control").orElse("");
+        Matcher matcher = MAX_AGE.matcher(cacheControl);
+        if (matcher.find() && !cacheControl.contains("no-cache")) {
+            maxAge = Long.parseLong(matcher.group(1));
+        }
+        json.addProperty("expires", System.currentTimeMillis() + maxAge * 1000L);
+        write(file, json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private synchronized void prune() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(this.dir)) {
+            files = stream.filter(file -> file.getFileName().toString().endsWith(".bin"))
+                    .sorted(Comparator.comparing(TextureCache::lastModified))
+                    .toList();
+        }
+        long size = 0;
+        for (Path file : files) {
+            size += Files.size(file);
+        }
+        for (Path file : files) {
+            if (size <= MAX_DISK_SIZE) {
+                break;
+            }
+            size -= Files.size(file);
+            String name = file.getFileName().toString();
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(this.dir.resolve(name.substring(0, name.length() - 4) + ".json"));
+        }
+    }
+
+    private static long lastModified(@NotNull Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static class LimitedBody implements HttpResponse.BodySubscriber<byte[]> {
+        private final CompletableFuture<byte[]> body = new CompletableFuture<>();
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final long length;
+        private Flow.Subscription subscription;
+
+        private LimitedBody(long length) {
+            this.length = length;
+        }
+
+        @Override
+        public void onSubscribe(@NotNull Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (this.length > MAX_BODY_SIZE) {
+                // the server already says it is too big, do not download any of it
+                tooLarge();
+                return;
+            }
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(@NotNull List<ByteBuffer> buffers) {
+            if (this.body.isDone()) {
+                return;
+            }
+            for (ByteBuffer buffer : buffers) {
+                // the length header can lie or be missing, so count what actually arrives
+                if (this.out.size() + buffer.remaining() > MAX_BODY_SIZE) {
+                    tooLarge();
+                    return;
+                }
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                this.out.writeBytes(bytes);
+            }
+        }
+
+        @Override
+        public void onError(@NotNull Throwable throwable) {
+            this.body.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            this.body.complete(this.out.toByteArray());
+        }
+
+        @Override
+        @NotNull
+        public CompletableFuture<byte[]> getBody() {
+            return this.body;
+        }
+
+        private void tooLarge() {
+            this.subscription.cancel();
+            this.body.completeExceptionally(new IOException("Texture is larger than " + MAX_BODY_SIZE + " bytes"));
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package net.pl3x.guithium.fabric.gui.texture;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.imageio.ImageIO;
+import net.pl3x.guithium.api.Guithium;
+import net.pl3x.guithium.fabric.GuithiumMod;
+import net.pl3x.guithium.fabric.util.GifDecoder;
+import org.jetbrains.annotations.NotNull;
+import org.lwjgl.stb.STBImage;
+import org.lwjgl.system.MemoryUtil;
+
+public class TextureLoader {
+    // enough to hide latency without hammering a single web host
+    private static final int MAX_CONCURRENT = 8;
+
+    // frames of one animation are decoded on this many cores at once
+    private static final int DECODE_PARALLELISM = Integer.getInteger("guithium.gif.parallelism", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+    private final PriorityBlockingQueue<Queued> queue = new PriorityBlockingQueue<>();
+    private final Map<FabricTexture, Task> tasks = new IdentityHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ForkJoinPool decodePool = new ForkJoinPool(DECODE_PARALLELISM);
+    private final TextureCache cache;
+
+    public TextureLoader(@NotNull TextureCache cache) {
+        this.cache = cache;
+        ThreadFactory factory = Thread.ofVirtual().name("Guithium Texture Loader #", 0).factory();
+        for (int i = 0; i < MAX_CONCURRENT; i++) {
+            factory.newThread(this::work).start();
+        }
+    }
+
+    public synchronized void load(@NotNull FabricTexture texture, @NotNull Priority priority) {
+        Task task = this.tasks.computeIfAbsent(texture, Task::new);
+        if (task.started || (task.priority != null && task.priority.compareTo(priority) <= 0)) {
+            return; // already loading, or queued at least as urgently
+        }
+        // the old entry stays in the queue and is skipped once it is taken
+        task.priority = priority;
+        this.queue.add(new Queued(task, priority, this.sequence.getAndIncrement()));
+    }
+
+    public synchronized void forget(@NotNull FabricTexture texture) {
+        this.tasks.remove(texture);
+    }
+
+    public synchronized void clear() {
+        this.tasks.clear();
+        this.queue.clear();
+    }
+
+    private void work() {
+        while (true) {
+            Queued queued;
+            try {
+                queued = this.queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            synchronized (this) {
+                Task task = queued.task();
+                if (task.started || task.priority != queued.priority() || this.tasks.get(task.texture) != task) {
+                    continue; // moved to a higher priority, or cleared
+                }
+                task.started = true;
+            }
+            FabricTexture texture = queued.task().texture;
+            try {
+                load(texture);
+            } catch (Throwable t) {
+                // even running out of memory on one huge image must not stop this worker for good
+                Guithium.logger.warn("Failed to load texture {} from {}", texture.getKey(), texture.getUrl(), t);
+                texture.fail();
+                forget(texture);
+            }
+        }
+    }
+
+    private void load(@NotNull FabricTexture texture) throws IOException {
+        long start = System.nanoTime();
+        byte[] bytes = this.cache.get(texture.getUrl(), texture.getHash());
+        long fetched = System.nanoTime();
+        Animation animation = null;
+        NativeImage image = null;
+        if (isGif(bytes)) {
+            GifDecoder.GifImage gif = GifDecoder.read(bytes);
+            if (gif.getFrameCount() > 1) {
+                long maxMemory = ((GuithiumMod) Guithium.api()).getTextureManager().getMaxAnimationMemory();
+                animation = Animation.of(gif, maxMemory, this.decodePool);
+            } else {
+                image = decodeGif(gif);
+            }
+        } else {
+            image = decodeImage(bytes);
+        }
+        long decoded = System.nanoTime();
+        if (animation != null) {
+            texture.upload(animation);
+        } else {
+            texture.upload(image);
+        }
+        Guithium.logger.debug("Loaded texture {} in {} ms (fetch {} ms, decode {} ms)",
+                texture.getKey(),
+                TimeUnit.NANOSECONDS.toMillis(decoded - start),
+                TimeUnit.NANOSECONDS.toMillis(fetched - start),
+                TimeUnit.NANOSECONDS.toMillis(decoded - fetched)
+        );
+    }
+
+    private static boolean isGif(byte[] bytes) {
+        // check the file itself, urls do not always end in the file extension
+        return bytes.length >= 3 && bytes[0] == 'G' && bytes[1] == 'I' && bytes[2] == 'F';
+    }
+
+    @NotNull
+    private static NativeImage decodeImage(byte[] bytes) throws IOException {
+        ByteBuffer buffer = MemoryUtil.memAlloc(bytes.length);
+        try {
+            buffer.put(bytes).flip();
+            int[] width = new int[1];
+            int[] height = new int[1];
+            int[] channels = new int[1];
+            // stb writes rgba bytes, which is exactly how a NativeImage keeps its pixels
+            ByteBuffer rgba = STBImage.stbi_load_from_memory(buffer, width, height, channels, 4);
+            if (rgba == null) {
+                // not something stb understands, let java have a go at it
+                return decodeBufferedImage(bytes);
+            }
+            try {
+                NativeImage image = new NativeImage(width[0], height[0], false);
+                MemoryUtil.memCopy(MemoryUtil.memAddress(rgba), image.getPointer(), (long) width[0] * height[0] * 4);
+                return image;
+            } finally {
+                STBImage.stbi_image_free(rgba);
+            }
+        } finally {
+            MemoryUtil.memFree(buffer);
+        }
+    }
+
+    @NotNull
+    private static NativeImage decodeBufferedImage(byte[] bytes) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+        if (image == null) {
+            throw new IOException("Unsupported image format");
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        return toNativeImage(width, height, image.getRGB(0, 0, width, height, null, 0, width));
+    }
+
+    @NotNull
+    private static NativeImage decodeGif(@NotNull GifDecoder.GifImage gif) {
+        int width = gif.getWidth();
+        int height = gif.getHeight();
+        int[] pixels = new int[width * height];
+        gif.getFrame(0, pixels);
+        return toNativeImage(width, height, pixels);
+    }
+
+    @NotNull
+    private static NativeImage toNativeImage(int width, int height, int[] argb) {
+        NativeImage image = new NativeImage(width, height, false);
+        write(image, argb2abgr(argb));
+        return image;
+    }
+
+    static void write(@NotNull NativeImage image, int[] abgr) {
+        // one bulk copy in row order instead of a call per pixel
+        MemoryUtil.memIntBuffer(image.getPointer(), image.getWidth() * image.getHeight()).put(abgr, 0, image.getWidth() * image.getHeight());
+    }
+
+    static void copy(@NotNull NativeImage src, @NotNull NativeImage dest, int x, int y) {
+        long rowSize = src.getWidth() * 4L;
+        for (int row = 0; row < src.getHeight(); row++) {
+            MemoryUtil.memCopy(
+                    src.getPointer() + row * rowSize,
+                    dest.getPointer() + ((long) (y + row) * dest.getWidth() + x) * 4,
+                    rowSize
+            );
+        }
+    }
+
+    static int[] argb2abgr(int[] pixels) {
+        // Minecraft flips red and blue for some reason
+        // lets flip them back
+        for (int i = 0; i < pixels.length; i++) {
+            int color = pixels[i];
+            pixels[i] = (color & 0xFF00FF00) | ((color & 0xFF) << 16) | ((color >> 16) & 0xFF);
+        }
+        return pixels;
+    }
+
+    public enum Priority {
+        // referenced by the open screen or a visible hud
+        VISIBLE,
+        // referenced by a screen the server expects to be opened next
+        PREFETCH,
+        // preloaded but not used by anything yet
+        BACKGROUND
+    }
+
+    private static final class Task {
+        private final FabricTexture texture;
+        private Priority priority;
+        private boolean started;
+
+        private Task(@NotNull FabricTexture texture) {
+            this.texture = texture;
+        }
+    }
+
+    private record Queued(@NotNull Task task, @NotNull Priority priority, long sequence) implements Comparable<Queued> {
+        @Override
+        public int compareTo(@NotNull Queued other) {
+            int compare = priority().compareTo(other.priority());
+            // same priority loads in the order it was asked for
+            return compare != 0 ? compare : Long.compare(sequence(), other.sequence());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package net.pl3x.guithium.fabric.network;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.packet.ElementChangedValuePacket;
+import org.jetbrains.annotations.NotNull;
+
+public class ChangedValueQueue {
+    private final FabricConnection connection;
+
+    private final Map<Key, Pending> pending = new LinkedHashMap<>();
+    private final Map<Key, Long> lastSent = new HashMap<>();
+
+    private long tick;
+
+    public ChangedValueQueue(@NotNull FabricConnection connection) {
+        this.connection = connection;
+    }
+
+    public void offer(@NotNull ElementChangedValuePacket<?> packet, int interval) {
+        Key element = packet.getElement();
+        Long lastSent = this.lastSent.get(element);
+        if (this.pending.containsKey(element) || (lastSent != null && this.tick - lastSent < interval)) {
+            // too soon, only keep the latest value until the interval passes
+            this.pending.put(element, new Pending(packet, interval));
+            return;
+        }
+        send(packet);
+    }
+
+    public void flush(@NotNull Key element) {
+        Pending pending = this.pending.remove(element);
+        if (pending != null) {
+            send(pending.packet());
+        }
+    }
+
+    public void flushAll() {
+        Iterator<Pending> iter = this.pending.values().iterator();
+        while (iter.hasNext()) {
+            Pending pending = iter.next();
+            iter.remove();
+            send(pending.packet());
+        }
+        this.lastSent.clear();
+    }
+
+    public void tick() {
+        this.tick++;
+        Iterator<Pending> iter = this.pending.values().iterator();
+        while (iter.hasNext()) {
+            Pending pending = iter.next();
+            Long lastSent = this.lastSent.get(pending.packet().getElement());
+            if (lastSent == null || this.tick - lastSent >= pending.interval()) {
+                iter.remove();
+                send(pending.packet());
+            }
+        }
+    }
+
+    public void clear() {
+        this.pending.clear();
+        this.lastSent.clear();
+    }
+
+    private void send(@NotNull ElementChangedValuePacket<?> packet) {
+        this.lastSent.put(packet.getElement(), this.tick);
+        this.connection.send(packet);
+    }
+
+    private record Pending(@NotNull ElementChangedValuePacket<?> packet, int interval) {
+    }
+}
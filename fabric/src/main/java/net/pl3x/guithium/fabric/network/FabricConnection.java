@@ -1,17 +1,19 @@
 package net.pl3x.guithium.fabric.network;
 
+import java.util.List;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.minecraft.client.Minecraft;
-import net.pl3x.guithium.api.network.Connection;
-import net.pl3x.guithium.api.network.packet.Packet;
+import net.pl3x.guithium.api.network.AbstractConnection;
 import net.pl3x.guithium.fabric.GuithiumMod;
 import org.jetbrains.annotations.NotNull;
 
-public class FabricConnection implements Connection {
+public class FabricConnection extends AbstractConnection {
     private final FabricPacketListener packetListener;
+    private final ChangedValueQueue changedValueQueue;
 
     public FabricConnection(@NotNull GuithiumMod mod) {
         this.packetListener = new FabricPacketListener(mod);
+        this.changedValueQueue = new ChangedValueQueue(this);
     }
 
     @Override
@@ -20,15 +22,26 @@ public class FabricConnection implements Connection {
         return this.packetListener;
     }
 
+    @NotNull
+    public ChangedValueQueue getChangedValueQueue() {
+        return this.changedValueQueue;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        this.changedValueQueue.clear();
+    }
+
     @Override
-    public void send(@NotNull Packet packet) {
-        send(packet, false);
+    protected boolean canSend() {
+        return Minecraft.getInstance().getConnection() != null;
     }
 
     @Override
-    public void send(@NotNull Packet packet, boolean force) {
-        if (force || Minecraft.getInstance().getConnection() != null) {
-            ClientPlayNetworking.send(new FabricNetworkHandler.Payload(packet));
+    protected void sendFrames(@NotNull List<byte[]> frames) {
+        for (byte[] frame : frames) {
+            ClientPlayNetworking.send(new FabricNetworkHandler.Payload(frame));
         }
     }
 }
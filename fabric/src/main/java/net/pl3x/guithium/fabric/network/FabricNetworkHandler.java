@@ -7,7 +7,6 @@ import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
 import net.minecraft.resources.ResourceLocation;
 import net.pl3x.guithium.api.network.NetworkHandler;
-import net.pl3x.guithium.api.network.packet.Packet;
 import net.pl3x.guithium.fabric.GuithiumMod;
 import org.jetbrains.annotations.NotNull;
 
@@ -39,11 +38,13 @@ public class FabricNetworkHandler extends NetworkHandler {
         private static final Type<Payload> TYPE = new Type<>(ResourceLocation.parse(NetworkHandler.CHANNEL));
         private static final StreamCodec<ByteBuf, Payload> CODEC = StreamCodec.ofMember(Payload::serialize, Payload::new);
 
-        Payload(@NotNull Packet packet) {
-            this(TYPE.id(), packet.write().toByteArray());
+        Payload(byte[] data) {
+            this(TYPE.id(), data);
         }
 
         private Payload(@NotNull ByteBuf buf) {
+            // netty releases the buffer before the payload is handled on the client thread, so this is
+            // the one copy that cannot be avoided. everything after reads this array in place
             this(TYPE.id(), new byte[buf.readableBytes()]);
             buf.readBytes(this.data);
         }
@@ -2,16 +2,22 @@ package net.pl3x.guithium.fabric.network;
 
 import net.minecraft.client.Minecraft;
 import net.pl3x.guithium.api.Guithium;
+import net.pl3x.guithium.api.gui.Screen;
 import net.pl3x.guithium.api.gui.element.ClickableElement;
 import net.pl3x.guithium.api.gui.element.Element;
 import net.pl3x.guithium.api.gui.element.ValueElement;
+import net.pl3x.guithium.api.network.Capabilities;
 import net.pl3x.guithium.api.network.PacketListener;
 import net.pl3x.guithium.api.network.packet.CloseScreenPacket;
 import net.pl3x.guithium.api.network.packet.ElementChangedValuePacket;
 import net.pl3x.guithium.api.network.packet.ElementClickedPacket;
 import net.pl3x.guithium.api.network.packet.ElementPacket;
+import net.pl3x.guithium.api.network.packet.ElementPatchPacket;
 import net.pl3x.guithium.api.network.packet.HelloPacket;
+import net.pl3x.guithium.api.network.packet.OpenCachedScreenPacket;
 import net.pl3x.guithium.api.network.packet.OpenScreenPacket;
+import net.pl3x.guithium.api.network.packet.PrefetchTexturesPacket;
+import net.pl3x.guithium.api.network.packet.ScreenCacheMissPacket;
 import net.pl3x.guithium.api.network.packet.TexturesPacket;
 import net.pl3x.guithium.fabric.GuithiumMod;
 import net.pl3x.guithium.fabric.gui.screen.AbstractScreen;
@@ -57,14 +63,31 @@ public class FabricPacketListener implements PacketListener {
         }
     }
 
+    @Override
+    public void handleElementPatch(@NotNull ElementPatchPacket packet) {
+        // check if element is on current screen
+        if (Minecraft.getInstance().screen instanceof AbstractScreen screen) {
+            if (screen.patchElement(packet)) {
+                return;
+            }
+        }
+
+        // check hud screens for the element
+        for (AbstractScreen screen : this.mod.getHudManager().getAllScreens().values()) {
+            if (screen.patchElement(packet)) {
+                return;
+            }
+        }
+    }
+
     @Override
     public void handleOpenScreen(@NotNull OpenScreenPacket packet) {
-        AbstractScreen renderableScreen = new RenderableScreen(this.mod, packet.getScreen());
-        if (renderableScreen.getScreen().isHud()) {
-            this.mod.getHudManager().add(renderableScreen);
-        } else {
-            renderableScreen.open();
+        // cache screens we asked for after a miss, before opening them changes anything
+        String hash = this.mod.getScreenCache().takeExpected(packet.getScreen().getKey());
+        if (hash != null) {
+            this.mod.getScreenCache().put(hash, packet.getScreen());
         }
+        open(packet.getScreen());
     }
 
     @Override
@@ -95,7 +118,7 @@ public class FabricPacketListener implements PacketListener {
     public void handleHello(@NotNull HelloPacket packet) {
         int protocol = packet.getProtocol();
 
-        if (protocol != Guithium.PROTOCOL) {
+        if (protocol < Guithium.MIN_PROTOCOL) {
             Guithium.logger.info("Server responded with a different protocol ({})", protocol);
             /*Minecraft.getInstance().getToasts().addToast(
                 new SystemToast(
@@ -107,6 +130,43 @@ public class FabricPacketListener implements PacketListener {
             return;
         }
 
-        Guithium.logger.info("Server responded with correct protocol ({})", protocol);
+        Guithium.logger.info("Server responded with compatible protocol ({})", protocol);
+
+        // use the best encoding the server understands from now on
+        this.mod.getNetworkHandler().getConnection().setCapabilities(Capabilities.LATEST.negotiate(packet.getCapabilities()));
+        this.mod.getNetworkHandler().getConnection().setPacketIds(packet.getPacketKeys());
+    }
+
+    @Override
+    public void handleOpenCachedScreen(@NotNull OpenCachedScreenPacket packet) {
+        Screen screen = this.mod.getScreenCache().get(packet.getHash());
+        if (screen == null) {
+            // not cached (or changed since), ask the server for the full screen
+            this.mod.getScreenCache().expect(packet.getScreenKey(), packet.getHash());
+            this.mod.getNetworkHandler().getConnection().send(new ScreenCacheMissPacket(packet.getScreenKey(), packet.getHash()));
+            return;
+        }
+        open(screen);
+    }
+
+    @Override
+    public void handleScreenCacheMiss(@NotNull ScreenCacheMissPacket packet) {
+        // client does not send this packet to the server
+        throw new UnsupportedOperationException("Not supported on client.");
+    }
+
+    @Override
+    public void handlePrefetchTextures(@NotNull PrefetchTexturesPacket packet) {
+        // load these ahead of other preloaded textures, the player is likely to need them next
+        this.mod.getTextureManager().prefetch(packet.getTextures());
+    }
+
+    private void open(@NotNull Screen screen) {
+        AbstractScreen renderableScreen = new RenderableScreen(this.mod, screen);
+        if (renderableScreen.getScreen().isHud()) {
+            this.mod.getHudManager().add(renderableScreen);
+        } else {
+            renderableScreen.open();
+        }
     }
 }
@@ -22,7 +22,12 @@ import java.awt.image.DataBufferInt;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import static java.lang.System.arraycopy;
 
 /**
@@ -74,7 +79,12 @@ public final class GifDecoder {
     }
 
     static final class CodeTable {
-        private final int[][] table; // Maps codes to lists of colors
+        // Every code is its prefix code followed by one more color, so the
+        // whole table fits in a few flat arrays instead of one per code
+        private final short[] prefix = new short[4096]; // Code minus last color
+        private final int[] suffix = new int[4096]; // Last color of a code
+        private final int[] first = new int[4096]; // First color of a code
+        private final short[] length = new short[4096]; // Colors in a code
         private int initTableSize; // Number of colors +2 for CLEAR + EOI
         private int initCodeSize; // Initial code size
         private int initCodeLimit; // First code limit
@@ -83,18 +93,18 @@ public final class GifDecoder {
         private int nextCodeLimit; // Increase codeSize when nextCode == limit
         private BitReader bitReader; // Notify when code sizes increases
 
-        public CodeTable() {
-            table = new int[4096][1];
-        }
-
-        private int add(final int[] indices) {
+        private int add(final int prevCode, final int k) {
             if (nextCode < 4096) {
                 if (nextCode == nextCodeLimit && codeSize < 12) {
                     codeSize++; // Max code size is 12
                     bitReader.setNumberOfBitsToRead(codeSize);
                     nextCodeLimit = (1 << codeSize) - 1; // 2^codeSize - 1
                 }
-                table[nextCode++] = indices;
+                prefix[nextCode] = (short) prevCode;
+                suffix[nextCode] = k;
+                first[nextCode] = first[prevCode];
+                length[nextCode] = (short) (length[prevCode] + 1);
+                nextCode++;
             }
             return codeSize;
         }
@@ -114,16 +124,31 @@ public final class GifDecoder {
             initCodeLimit = (1 << initCodeSize) - 1; // 2^initCodeSize - 1
             initTableSize = fr.endOfInfoCode + 1;
             nextCode = initTableSize;
-            for (int c = numColors - 1; c >= 0; c--) {
-                table[c][0] = activeColTbl[c]; // Translated color
-            } // A gap may follow with no colors assigned if numCols < CLEAR
-            table[fr.clearCode] = new int[]{fr.clearCode}; // CLEAR
-            table[fr.endOfInfoCode] = new int[]{fr.endOfInfoCode}; // EOI
+            for (int c = initTableSize - 1; c >= 0; c--) {
+                // A gap may follow with no colors assigned if numCols < CLEAR
+                final int color = c < numColors ? activeColTbl[c] : 0;
+                prefix[c] = -1;
+                suffix[c] = color; // Translated color
+                first[c] = color;
+                length[c] = 1;
+            }
             // Locate transparent color in code table and set to 0
             if (fr.transpColFlag && fr.transpColIndex < numColors) {
-                table[fr.transpColIndex][0] = 0;
+                suffix[fr.transpColIndex] = 0;
+                first[fr.transpColIndex] = 0;
             }
         }
+
+        private int write(final int code, final int[] out, final int outPos) {
+            // Walk back from the last color to the first, straight into the output
+            final int len = length[code];
+            int c = code;
+            for (int i = outPos + len - 1; i >= outPos; i--) {
+                out[i] = suffix[c];
+                c = prefix[c];
+            }
+            return outPos + len;
+        }
     }
 
     final class GifFrame {
@@ -173,57 +198,78 @@ public final class GifDecoder {
         private final BitReader bits = new BitReader();
         private final CodeTable codes = new CodeTable();
         private Graphics2D g;
+        private int[] canvas = null; // Working pixels of getFrame(int, int[])
+        private int[] restore = null; // Canvas before a RESTORE_PREV frame
+        private GifFrame pending = null; // Last drawn frame, not disposed yet
+        private int drawn = -1; // Index of the last drawn frame
+        private int[] framePixels = null; // Reused LZW output of one frame
+        private int[] interlaced = null; // Reused deinterlaced frame
 
         private int[] decode(final GifFrame fr, final int[] activeColTbl) {
+            final int[] out = new int[fr.wh];
+            decode(fr, activeColTbl, out);
+            return out;
+        }
+
+        /**
+         * Decodes the frame area into the caller's pixel array without
+         * allocating anything.
+         *
+         * @param fr           Frame to decode
+         * @param activeColTbl Color table of the frame
+         * @param out          Target array of at least frame width * height pixels
+         */
+        private void decode(final GifFrame fr, final int[] activeColTbl, final int[] out) {
+            decode(fr, activeColTbl, out, codes, bits);
+        }
+
+        private void decode(final GifFrame fr, final int[] activeColTbl, final int[] out, final CodeTable codes, final BitReader bits) {
             codes.init(fr, activeColTbl, bits);
             bits.init(fr.data); // Incoming codes
             final int clearCode = fr.clearCode, endCode = fr.endOfInfoCode;
-            final int[] out = new int[wh]; // Target image pixel array
-            final int[][] tbl = codes.table; // Code table
+            final int end = fr.wh;
             int outPos = 0; // Next pixel position in the output image array
-            codes.clear(); // Init code table
-            bits.read(); // Skip leading clear code
-            int code = bits.read(); // Read first code
-            int[] pixels = tbl[code]; // Output pixel for first code
-            arraycopy(pixels, 0, out, outPos, pixels.length);
-            outPos += pixels.length;
             try {
-                while (true) {
+                codes.clear(); // Init code table
+                bits.read(); // Skip leading clear code
+                int code = bits.read(); // Read first code
+                outPos = codes.write(code, out, outPos); // Output pixel for first code
+                while (outPos < end) {
                     final int prevCode = code;
                     code = bits.read(); // Get next code in stream
                     if (code == clearCode) { // After a CLEAR table, there is
                         codes.clear(); // no previous code, we need to read
                         code = bits.read(); // a new one
-                        pixels = tbl[code]; // Output pixels
-                        arraycopy(pixels, 0, out, outPos, pixels.length);
-                        outPos += pixels.length;
+                        outPos = codes.write(code, out, outPos); // Output pixels
                         continue; // Back to the loop with a valid previous code
                     } else if (code == endCode) {
                         break;
                     }
-                    final int[] prevVals = tbl[prevCode];
-                    final int[] prevValsAndK = new int[prevVals.length + 1];
-                    arraycopy(prevVals, 0, prevValsAndK, 0, prevVals.length);
+                    final int k; // First color of the current code
                     if (code < codes.nextCode) { // Code table contains code
-                        pixels = tbl[code]; // Output pixels
-                        arraycopy(pixels, 0, out, outPos, pixels.length);
-                        outPos += pixels.length;
-                        prevValsAndK[prevVals.length] = tbl[code][0]; // K
+                        outPos = codes.write(code, out, outPos); // Output pixels
+                        k = codes.first[code];
                     } else {
-                        prevValsAndK[prevVals.length] = prevVals[0]; // K
-                        arraycopy(prevValsAndK, 0, out, outPos, prevValsAndK.length);
-                        outPos += prevValsAndK.length;
+                        k = codes.first[prevCode];
+                        outPos = codes.write(prevCode, out, outPos);
+                        out[outPos++] = k;
                     }
-                    codes.add(prevValsAndK); // Previous indices + K
+                    codes.add(prevCode, k); // Previous indices + K
                 }
             } catch (final ArrayIndexOutOfBoundsException ignored) {
+                // Truncated data or a broken code, keep what we have
+            }
+            if (outPos < end) {
+                Arrays.fill(out, outPos, end, 0);
             }
-            return out;
         }
 
         private int[] deinterlace(final int[] src, final GifFrame fr) {
+            return deinterlace(src, fr, new int[src.length]);
+        }
+
+        private int[] deinterlace(final int[] src, final GifFrame fr, final int[] dest) {
             final int w = fr.w, h = fr.h, wh = fr.wh;
-            final int[] dest = new int[src.length];
             // Interlaced images are organized in 4 sets of pixel lines
             final int set2Y = (h + 7) >>> 3; // Line no. = ceil(h/8.0)
             final int set3Y = set2Y + ((h + 3) >>> 3); // ceil(h-4/8.0)
@@ -291,6 +337,141 @@ public final class GifDecoder {
             }
         }
 
+        /**
+         * Draws a frame into the caller's pixel array without keeping any
+         * images around, so only the compressed frames stay in memory. For
+         * incremental calls such as [0, 1, 2, ...] only one frame is drawn per
+         * call. Going backwards, e.g. looping back to 0, starts over from the
+         * first frame.
+         *
+         * @param index Index of the frame to draw, starting from 0.
+         * @param out   Target array of at least width * height ARGB pixels.
+         */
+        public void getFrame(final int index, final int[] out) {
+            if (canvas == null || index < drawn) {
+                rewind();
+            }
+            while (drawn < index) {
+                composite(frames.get(++drawn));
+            }
+            arraycopy(canvas, 0, out, 0, wh);
+        }
+
+        /**
+         * Draws every frame into the caller's pixel arrays. The LZW data of
+         * each frame does not depend on the others, so it is decoded on the
+         * pool as many frames at a time as the pool is parallel. Only
+         * compositing the decoded frames on top of each other runs in order.
+         *
+         * @param out  Target arrays, one per frame, of at least width * height ARGB pixels.
+         * @param pool Pool to decode frames on.
+         */
+        public void getFrames(final int[][] out, final ForkJoinPool pool) {
+            final int count = frames.size();
+            final int batch = Math.max(1, Math.min(pool.getParallelism(), count));
+            final int[][] pixels = new int[batch][];
+            final int[][] interlaced = new int[batch][];
+            final int[][] prepared = new int[batch][];
+            final CodeTable[] tables = new CodeTable[batch];
+            final BitReader[] readers = new BitReader[batch];
+            final List<Callable<Void>> tasks = new ArrayList<>(batch);
+            rewind();
+            for (int start = 0; start < count; start += batch) {
+                tasks.clear();
+                for (int j = 0; j < batch && start + j < count; j++) {
+                    final int slot = j;
+                    final GifFrame fr = frames.get(start + j);
+                    tasks.add(() -> {
+                        if (pixels[slot] == null || pixels[slot].length < fr.wh) {
+                            pixels[slot] = new int[fr.wh];
+                            interlaced[slot] = new int[fr.wh];
+                        }
+                        if (tables[slot] == null) {
+                            tables[slot] = new CodeTable();
+                            readers[slot] = new BitReader();
+                        }
+                        prepared[slot] = prepare(fr, pixels[slot], interlaced[slot], tables[slot], readers[slot]);
+                        return null;
+                    });
+                }
+                for (final Future<Void> future : pool.invokeAll(tasks)) {
+                    try {
+                        future.get();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted while decoding frames", e);
+                    } catch (final ExecutionException e) {
+                        throw new IllegalStateException("Could not decode frame", e.getCause());
+                    }
+                }
+                for (int j = 0; j < tasks.size(); j++) {
+                    composite(frames.get(++drawn), prepared[j]);
+                    arraycopy(canvas, 0, out[drawn], 0, wh);
+                }
+            }
+        }
+
+        private void rewind() {
+            if (canvas == null) {
+                canvas = new int[wh];
+            } else {
+                Arrays.fill(canvas, 0);
+            }
+            pending = null;
+            drawn = -1;
+        }
+
+        private void composite(final GifFrame fr) {
+            if (framePixels == null || framePixels.length < fr.wh) {
+                framePixels = new int[fr.wh];
+                interlaced = new int[fr.wh];
+            }
+            composite(fr, prepare(fr, framePixels, interlaced, codes, bits));
+        }
+
+        private int[] prepare(final GifFrame fr, final int[] pixels, final int[] interlaced, final CodeTable codes, final BitReader bits) {
+            final int[] activeColTbl = fr.hasLocColTbl ? fr.localColTbl : globalColTbl;
+            decode(fr, activeColTbl, pixels, codes, bits);
+            return fr.interlaceFlag ? deinterlace(pixels, fr, interlaced) : pixels;
+        }
+
+        private void composite(final GifFrame fr, final int[] pixels) {
+            // Disposal happens after the frame was shown, so it is applied
+            // before drawing the next one
+            if (pending != null) {
+                if (pending.disposalMethod == 2) {
+                    fill(pending, 0);
+                } else if (pending.disposalMethod == 3 && restore != null) {
+                    arraycopy(restore, 0, canvas, 0, wh);
+                }
+            }
+            if (fr.disposalMethod == 3) {
+                if (restore == null) {
+                    restore = new int[wh];
+                }
+                arraycopy(canvas, 0, restore, 0, wh);
+            }
+            // Clip frame area to the canvas, transparent pixels keep what is below
+            final int right = Math.min(fr.x + fr.w, w), bottom = Math.min(fr.y + fr.h, h);
+            for (int y = fr.y; y < bottom; y++) {
+                int src = (y - fr.y) * fr.w, dest = y * w + fr.x;
+                for (int x = fr.x; x < right; x++, src++, dest++) {
+                    final int px = pixels[src];
+                    if (px != 0) {
+                        canvas[dest] = px;
+                    }
+                }
+            }
+            pending = fr;
+        }
+
+        private void fill(final GifFrame fr, final int color) {
+            final int right = Math.min(fr.x + fr.w, w), bottom = Math.min(fr.y + fr.h, h);
+            for (int y = fr.y; y < bottom; y++) {
+                Arrays.fill(canvas, y * w + fr.x, y * w + right, color);
+            }
+        }
+
         /**
          * Returns the background color of the first frame in this GIF image. If
          * the frame has a local color table, the returned color will be from
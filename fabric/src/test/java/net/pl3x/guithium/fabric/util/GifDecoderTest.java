@@ -0,0 +1,171 @@
+package net.pl3x.guithium.fabric.util;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The current decoder has to draw every frame exactly like the one before its code table was flattened
+
+public class GifDecoderTest {
+    private static final int WIDTH = 97;
+    private static final int HEIGHT = 61;
+    private static final int FRAMES = 6;
+    private static final int TRANSPARENT = 7;
+
+    @Test
+    public void testPlain() throws IOException {
+        assertSameFrames(gif(false, false));
+    }
+
+    @Test
+    public void testInterlaced() throws IOException {
+        assertSameFrames(gif(true, false));
+    }
+
+    @Test
+    public void testTransparent() throws IOException {
+        assertSameFrames(gif(false, true));
+    }
+
+    @Test
+    public void testInterlacedTransparent() throws IOException {
+        assertSameFrames(gif(true, true));
+    }
+
+    @Test
+    public void testTruncated() throws IOException {
+        byte[] gif = gif(true, true);
+        // cut into the image data of the last frame, then end its data and the file where the rest should have been
+        for (int cut = gif.length - 2; cut > gif.length - 400; cut -= 37) {
+            byte[] truncated = Arrays.copyOf(gif, cut + 2);
+            truncated[cut] = 0x00; // block terminator
+            truncated[cut + 1] = 0x3B; // trailer
+            assertSameFrames(truncated);
+        }
+    }
+
+    @Test
+    public void testFirstFrame() throws IOException {
+        // make sure the gifs under test decode like any other decoder reads them, not just the same garbage twice
+        byte[] gif = gif(true, false);
+        int[] pixels = new int[WIDTH * HEIGHT];
+        GifDecoder.read(gif).getFrame(0, pixels);
+        BufferedImage expected = ImageIO.read(new ByteArrayInputStream(gif));
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals(expected.getRGB(x, y), pixels[y * WIDTH + x], "pixel " + x + "," + y);
+            }
+        }
+    }
+
+    private static void assertSameFrames(byte[] gif) throws IOException {
+        LegacyGifDecoder.GifImage legacy = LegacyGifDecoder.read(gif);
+        GifDecoder.GifImage image = GifDecoder.read(gif);
+        assertEquals(legacy.getFrameCount(), image.getFrameCount());
+
+        int count = image.getFrameCount();
+        int[] expected = new int[WIDTH * HEIGHT];
+        int[] actual = new int[WIDTH * HEIGHT];
+        for (int i = 0; i < count; i++) {
+            legacy.getFrame(i, expected);
+            image.getFrame(i, actual);
+            assertArrayEquals(expected, actual, "frame " + i);
+        }
+
+        // decoding frames in parallel has to give the same result as one at a time
+        int[][] frames = new int[count][WIDTH * HEIGHT];
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            GifDecoder.read(gif).getFrames(frames, pool);
+        } finally {
+            pool.shutdown();
+        }
+        for (int i = 0; i < count; i++) {
+            legacy.getFrame(i, expected);
+            assertArrayEquals(expected, frames[i], "frame " + i);
+        }
+    }
+
+    private static byte[] gif(boolean interlaced, boolean transparent) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            writer.prepareWriteSequence(null);
+            for (int i = 0; i < FRAMES; i++) {
+                BufferedImage image = frame(i, transparent);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setProgressiveMode(interlaced ? ImageWriteParam.MODE_DEFAULT : ImageWriteParam.MODE_DISABLED);
+                IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), param);
+                String format = metadata.getNativeMetadataFormatName();
+                IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+                IIOMetadataNode control = child(root, "GraphicControlExtension");
+                // cycle through every disposal method, so the canvas is restored and cleared too
+                control.setAttribute("disposalMethod", new String[]{"none", "doNotDispose", "restoreToBackgroundColor", "restoreToPrevious"}[i % 4]);
+                control.setAttribute("delayTime", "5");
+                control.setAttribute("transparentColorFlag", transparent ? "TRUE" : "FALSE");
+                control.setAttribute("transparentColorIndex", Integer.toString(TRANSPARENT));
+                metadata.setFromTree(format, root);
+                writer.writeToSequence(new IIOImage(image, null, metadata), param);
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    @NotNull
+    private static BufferedImage frame(int index, boolean transparent) {
+        byte[] r = new byte[256];
+        byte[] g = new byte[256];
+        byte[] b = new byte[256];
+        for (int i = 0; i < 256; i++) {
+            r[i] = (byte) i;
+            g[i] = (byte) (i * 7);
+            b[i] = (byte) (255 - i);
+        }
+        IndexColorModel colors = transparent
+                ? new IndexColorModel(8, 256, r, g, b, TRANSPARENT)
+                : new IndexColorModel(8, 256, r, g, b);
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_INDEXED, colors);
+        // runs of repeated colors mixed with noise fill the code table and make it clear itself
+        Random random = new Random(index);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                int color = (x / 8 + y / 4 + index) % 3 == 0 ? random.nextInt(256) : (x + y * index) % 16;
+                image.getRaster().setSample(x, y, 0, color);
+            }
+        }
+        return image;
+    }
+
+    @NotNull
+    private static IIOMetadataNode child(@NotNull IIOMetadataNode root, @NotNull String name) {
+        for (int i = 0; i < root.getLength(); i++) {
+            if (root.item(i) instanceof IIOMetadataNode node && node.getNodeName().equals(name)) {
+                return node;
+            }
+        }
+        IIOMetadataNode node = new IIOMetadataNode(name);
+        root.appendChild(node);
+        return node;
+    }
+}
@@ -4,6 +4,8 @@ import java.lang.reflect.Field;
 import net.pl3x.guithium.api.Guithium;
 import net.pl3x.guithium.api.action.ActionRegistry;
 import net.pl3x.guithium.api.gui.texture.TextureManager;
+import net.pl3x.guithium.api.network.metrics.JmxMetrics;
+import net.pl3x.guithium.api.player.WrappedPlayer;
 import net.pl3x.guithium.plugin.listener.PaperListener;
 import net.pl3x.guithium.plugin.network.PaperNetworkHandler;
 import net.pl3x.guithium.plugin.player.PaperPlayerManager;
@@ -16,6 +18,7 @@ public class GuithiumPlugin extends JavaPlugin implements Guithium {
     private final PaperNetworkHandler networkHandler = new PaperNetworkHandler();
     private final PaperPlayerManager playerManager = new PaperPlayerManager();
     private final TextureManager textureManager = new TextureManager();
+    private final JmxMetrics networkMetrics = new JmxMetrics();
 
     private final String version;
 
@@ -37,12 +40,31 @@ public class GuithiumPlugin extends JavaPlugin implements Guithium {
     public void onEnable() {
         getNetworkHandler().registerListeners();
 
+        // expose network metrics to jmx clients for capacity planning
+        getNetworkHandler().getMetrics().addSink(this.networkMetrics);
+        this.networkMetrics.register();
+
         getServer().getPluginManager().registerEvents(new PaperListener(), this);
 
+        getServer().getScheduler().runTaskTimer(this, () -> {
+            // handle packets that were decoded off the main thread since last tick
+            getNetworkHandler().tick();
+
+            // send everything queued up during the tick as one batch per player
+            for (WrappedPlayer player : getPlayerManager().getPlayers()) {
+                player.getConnection().flush();
+            }
+        }, 1L, 1L);
+
         this.metrics = new Metrics(this, BSTATS_ID);
     }
 
     public void onDisable() {
+        getNetworkHandler().shutdown();
+
+        getNetworkHandler().getMetrics().removeSink(this.networkMetrics);
+        this.networkMetrics.unregister();
+
         if (this.metrics != null) {
             this.metrics.shutdown();
             this.metrics = null;
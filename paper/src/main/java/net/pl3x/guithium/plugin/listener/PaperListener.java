@@ -1,6 +1,7 @@
 package net.pl3x.guithium.plugin.listener;
 
 import net.pl3x.guithium.api.Guithium;
+import net.pl3x.guithium.plugin.GuithiumPlugin;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -19,5 +20,7 @@ public class PaperListener implements Listener {
     @EventHandler
     public void onQuit(@NotNull PlayerQuitEvent event) {
         Guithium.api().getPlayerManager().remove(event.getPlayer());
+        Guithium.api().getNetworkHandler().getMetrics().forget(event.getPlayer().getUniqueId());
+        ((GuithiumPlugin) Guithium.api()).getNetworkHandler().forget(event.getPlayer().getUniqueId());
     }
 }
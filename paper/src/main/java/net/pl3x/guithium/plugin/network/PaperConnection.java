@@ -1,15 +1,16 @@
 package net.pl3x.guithium.plugin.network;
 
+import java.util.List;
+import java.util.UUID;
 import net.pl3x.guithium.api.Guithium;
-import net.pl3x.guithium.api.network.Connection;
+import net.pl3x.guithium.api.network.AbstractConnection;
 import net.pl3x.guithium.api.network.NetworkHandler;
-import net.pl3x.guithium.api.network.packet.Packet;
 import net.pl3x.guithium.plugin.GuithiumPlugin;
 import net.pl3x.guithium.plugin.player.PaperPlayer;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
-public class PaperConnection implements Connection {
+public class PaperConnection extends AbstractConnection {
     private final PaperPlayer player;
     private final PaperPacketListener packetListener;
 
@@ -25,17 +26,23 @@ public class PaperConnection implements Connection {
     }
 
     @Override
-    public void send(@NotNull Packet packet) {
-        send(packet, false);
+    @NotNull
+    public UUID getPlayerUUID() {
+        return this.player.getUUID();
+    }
+
+    @Override
+    protected boolean canSend() {
+        return this.player.hasGuithium();
     }
 
     @Override
-    public void send(@NotNull Packet packet, boolean force) {
-        if (force || this.player.hasGuithium()) {
+    protected void sendFrames(@NotNull List<byte[]> frames) {
+        for (byte[] frame : frames) {
             this.player.<Player>unwrap().sendPluginMessage(
                     (GuithiumPlugin) Guithium.api(),
                     NetworkHandler.CHANNEL,
-                    packet.write().toByteArray()
+                    frame
             );
         }
     }
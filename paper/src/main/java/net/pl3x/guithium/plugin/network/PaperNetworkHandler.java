@@ -1,15 +1,77 @@
 package net.pl3x.guithium.plugin.network;
 
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import net.pl3x.guithium.api.Guithium;
+import net.pl3x.guithium.api.gui.Screen;
+import net.pl3x.guithium.api.gui.element.ClickableElement;
+import net.pl3x.guithium.api.gui.element.Element;
+import net.pl3x.guithium.api.gui.element.ValueElement;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.Connection;
 import net.pl3x.guithium.api.network.NetworkHandler;
+import net.pl3x.guithium.api.network.RateLimits;
+import net.pl3x.guithium.api.network.TokenBucket;
+import net.pl3x.guithium.api.network.metrics.DropReason;
+import net.pl3x.guithium.api.network.packet.CloseScreenPacket;
+import net.pl3x.guithium.api.network.packet.ElementChangedValuePacket;
+import net.pl3x.guithium.api.network.packet.ElementClickedPacket;
+import net.pl3x.guithium.api.network.packet.HelloPacket;
+import net.pl3x.guithium.api.network.packet.Packet;
+import net.pl3x.guithium.api.network.packet.ScreenCacheMissPacket;
 import net.pl3x.guithium.api.player.WrappedPlayer;
 import net.pl3x.guithium.plugin.GuithiumPlugin;
 import org.bukkit.plugin.messaging.Messenger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class PaperNetworkHandler extends NetworkHandler {
+    // the only packets a client is allowed to send us
+    private static final Set<Key> SERVERBOUND = Set.of(
+            ElementClickedPacket.KEY,
+            ElementChangedValuePacket.KEY,
+            CloseScreenPacket.KEY,
+            HelloPacket.KEY,
+            ScreenCacheMissPacket.KEY
+    );
+
+    // most plugin messages a single player may have waiting for the decoder
+    private static final int MAX_QUEUED = 256;
+
+    // a single thread keeps every player's packets in the order they were sent
+    private final ExecutorService decoder = Executors.newSingleThreadExecutor(threads("Guithium Decoder"));
+
+    // plugin messages each player has waiting for the decoder, so one player cannot flood it for everyone
+    private final Map<UUID, AtomicInteger> queued = new ConcurrentHashMap<>();
+
+    // async action handlers run here, so slow plugins cannot hold up decoding
+    private final ExecutorService worker = Executors.newFixedThreadPool(2, threads("Guithium Worker"));
+
+    private final Queue<Runnable> decoded = new ConcurrentLinkedQueue<>();
+
+    // token buckets per player, only touched from the decoder thread
+    private final Map<UUID, Buckets> buckets = new HashMap<>();
+
+    // value changes still waiting for the main thread, so newer ones can replace them
+    private final Map<Pending, AtomicReference<ElementChangedValuePacket<?>>> pending = new ConcurrentHashMap<>();
+
     @Override
     public void registerListeners() {
         GuithiumPlugin plugin = (GuithiumPlugin) Guithium.api();
+        plugin.getActionRegistry().setAsyncExecutor(this.worker);
         Messenger messenger = plugin.getServer().getMessenger();
         messenger.registerOutgoingPluginChannel(plugin, CHANNEL);
         messenger.registerIncomingPluginChannel(plugin, CHANNEL,
@@ -21,9 +83,222 @@ public class PaperNetworkHandler extends NetworkHandler {
                         return;
                     }
 
-                    // receive data from player
-                    receive(player.getConnection(), bytes);
+                    // shed messages once the player is too far ahead of the decoder
+                    AtomicInteger queued = this.queued.computeIfAbsent(player.getUUID(), uuid -> new AtomicInteger());
+                    if (queued.incrementAndGet() > MAX_QUEUED) {
+                        queued.decrementAndGet();
+                        getMetrics().dropped(player.getUUID(), null, DropReason.OVERLOADED);
+                        return;
+                    }
+
+                    // decode data from player off the main thread
+                    try {
+                        this.decoder.execute(() -> {
+                            try {
+                                receive(player.getConnection(), bytes);
+                            } catch (Throwable t) {
+                                // never let one player's message take the decoder down for everyone
+                                Guithium.logger.warn("Failed to decode packet from {}", player.getName(), t);
+                                getMetrics().dropped(player.getUUID(), null, DropReason.MALFORMED);
+                            } finally {
+                                queued.decrementAndGet();
+                            }
+                        });
+                    } catch (RejectedExecutionException ignore) {
+                        // shutting down
+                    }
                 }
         );
     }
+
+    @Override
+    public void receive(@NotNull Connection connection, @NotNull ByteBuffer data) {
+        // charge every plugin message before it is copied, reassembled or inflated
+        Buckets buckets = buckets(connection);
+        if (!buckets.messages.tryAcquire(getRateLimits().getMessageLimit())) {
+            getMetrics().dropped(connection.getPlayerUUID(), null, DropReason.RATE_LIMITED);
+            return;
+        }
+
+        // plain packets can be charged to their packet type right away, without unpacking anything
+        if (isPlain(data)) {
+            if (tryAcquire(connection, data)) {
+                super.dispatch(connection, data);
+            }
+            return;
+        }
+        super.receive(connection, data);
+    }
+
+    @Override
+    protected void dispatch(@NotNull Connection connection, @NotNull ByteBuffer data) {
+        // packets unpacked from a fragmented, compressed or batched message
+        if (tryAcquire(connection, data)) {
+            super.dispatch(connection, data);
+        }
+    }
+
+    private boolean tryAcquire(@NotNull Connection connection, @NotNull ByteBuffer data) {
+        // shed packets over the packet type budget before spending any time decoding them
+        Key key = peekKey(data);
+        if (key == null) {
+            return true;
+        }
+        RateLimits.Limit limit = getRateLimits().getPacketLimit(key);
+        if (limit != null && !buckets(connection).packets.computeIfAbsent(key, k -> new TokenBucket(limit)).tryAcquire(limit)) {
+            getMetrics().dropped(connection.getPlayerUUID(), key, DropReason.RATE_LIMITED);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected void handle(@NotNull Connection connection, @NotNull Packet packet) {
+        // drop anything only the server is supposed to send before it reaches the main thread
+        if (!SERVERBOUND.contains(packet.getKey())) {
+            Guithium.logger.warn("Received unexpected packet ({}) from player", packet.getKey());
+            getMetrics().dropped(connection.getPlayerUUID(), packet.getKey(), DropReason.UNEXPECTED);
+            return;
+        }
+
+        // element packets are only handled on the main thread if they are about the screen the player has open
+        Key element = getElement(packet);
+        if (element == null) {
+            // everything else is handled on the main thread at the next tick
+            this.decoded.add(() -> super.handle(connection, packet));
+            return;
+        }
+
+        // shed packets over the element budget
+        RateLimits.Limit limit = getRateLimits().getElementLimit(element);
+        if (limit != null && !buckets(connection).elements.computeIfAbsent(element, k -> new TokenBucket(limit)).tryAcquire(limit)) {
+            getMetrics().dropped(connection.getPlayerUUID(), packet.getKey(), DropReason.RATE_LIMITED);
+            return;
+        }
+
+        // plugins change screens on the main thread, so the screen and element are only looked up there
+        PaperPacketListener listener = (PaperPacketListener) connection.getPacketListener();
+        if (packet instanceof ElementClickedPacket<?> clicked) {
+            this.decoded.add(() -> {
+                Screen screen = listener.getScreen(clicked.getScreen());
+                Element found = screen == null ? null : screen.getElement(element);
+                if (!(found instanceof ClickableElement<?> target)) {
+                    getMetrics().dropped(connection.getPlayerUUID(), packet.getKey(), DropReason.STALE);
+                    return;
+                }
+                listener.handleElementClick(screen, target);
+            });
+            return;
+        }
+
+        // a value change only matters if it is the newest one, so replace one still waiting in the queue
+        ElementChangedValuePacket<?> changed = (ElementChangedValuePacket<?>) packet;
+        Pending key = new Pending(connection, changed.getScreen(), element);
+        AtomicReference<ElementChangedValuePacket<?>> waiting = this.pending.get(key);
+        if (waiting != null && waiting.getAndUpdate(old -> old == null ? null : changed) != null) {
+            getMetrics().dropped(connection.getPlayerUUID(), packet.getKey(), DropReason.COALESCED);
+            return;
+        }
+        AtomicReference<ElementChangedValuePacket<?>> latest = new AtomicReference<>(changed);
+        this.pending.put(key, latest);
+        this.decoded.add(() -> {
+            this.pending.remove(key, latest);
+            ElementChangedValuePacket<?> newest = latest.getAndSet(null);
+            Screen screen = listener.getScreen(newest.getScreen());
+            Element found = screen == null ? null : screen.getElement(element);
+            if (!(found instanceof ValueElement<?, ?> target)) {
+                getMetrics().dropped(connection.getPlayerUUID(), packet.getKey(), DropReason.STALE);
+                return;
+            }
+            listener.handleElementChangedValue(screen, target, newest.getValue());
+        });
+    }
+
+    public void forget(@NotNull UUID uuid) {
+        // queued behind the player's last packets so their buckets are not created again
+        try {
+            this.decoder.execute(() -> {
+                this.buckets.remove(uuid);
+                this.queued.remove(uuid);
+            });
+        } catch (RejectedExecutionException ignore) {
+            // shutting down
+        }
+    }
+
+    public void tick() {
+        // only handle what was queued before this tick started, so a flood cannot stall it forever
+        for (int i = this.decoded.size(); i > 0; i--) {
+            Runnable task = this.decoded.poll();
+            if (task == null) {
+                break;
+            }
+            try {
+                task.run();
+            } catch (Throwable t) {
+                Guithium.logger.error("Failed to handle packet", t);
+            }
+        }
+    }
+
+    public void shutdown() {
+        this.decoder.shutdown();
+        this.worker.shutdown();
+        try {
+            if (!this.decoder.awaitTermination(1, TimeUnit.SECONDS)) {
+                this.decoder.shutdownNow();
+            }
+            if (!this.worker.awaitTermination(1, TimeUnit.SECONDS)) {
+                this.worker.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.decoded.clear();
+        this.pending.clear();
+        this.queued.clear();
+    }
+
+    @NotNull
+    private Buckets buckets(@NotNull Connection connection) {
+        return this.buckets.computeIfAbsent(connection.getPlayerUUID(), uuid -> new Buckets(new TokenBucket(getRateLimits().getMessageLimit())));
+    }
+
+    private static boolean isPlain(@NotNull ByteBuffer data) {
+        // plain packets start with their protocol number or numeric id, anything else has to be unpacked first
+        if (!data.hasRemaining()) {
+            return false;
+        }
+        byte marker = data.get(data.position());
+        return marker == 0 || marker == ID_MARKER;
+    }
+
+    @Nullable
+    private static Key getElement(@NotNull Packet packet) {
+        if (packet instanceof ElementClickedPacket<?> clicked) {
+            return clicked.getElement();
+        } else if (packet instanceof ElementChangedValuePacket<?> changed) {
+            return changed.getElement();
+        }
+        return null;
+    }
+
+    @NotNull
+    private static ThreadFactory threads(@NotNull String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + " #" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Buckets(@NotNull TokenBucket messages, @NotNull Map<Key, TokenBucket> packets, @NotNull Map<Key, TokenBucket> elements) {
+        private Buckets(@NotNull TokenBucket messages) {
+            this(messages, new HashMap<>(), new HashMap<>());
+        }
+    }
+
+    private record Pending(@NotNull Connection connection, @NotNull Key screen, @NotNull Key element) {
+    }
 }
@@ -11,16 +11,23 @@ import net.pl3x.guithium.api.gui.Screen;
 import net.pl3x.guithium.api.gui.element.ClickableElement;
 import net.pl3x.guithium.api.gui.element.ValueElement;
 import net.pl3x.guithium.api.gui.texture.Texture;
+import net.pl3x.guithium.api.key.Key;
+import net.pl3x.guithium.api.network.Capabilities;
 import net.pl3x.guithium.api.network.PacketListener;
 import net.pl3x.guithium.api.network.packet.CloseScreenPacket;
 import net.pl3x.guithium.api.network.packet.ElementChangedValuePacket;
 import net.pl3x.guithium.api.network.packet.ElementClickedPacket;
 import net.pl3x.guithium.api.network.packet.ElementPacket;
+import net.pl3x.guithium.api.network.packet.ElementPatchPacket;
 import net.pl3x.guithium.api.network.packet.HelloPacket;
+import net.pl3x.guithium.api.network.packet.OpenCachedScreenPacket;
 import net.pl3x.guithium.api.network.packet.OpenScreenPacket;
+import net.pl3x.guithium.api.network.packet.PrefetchTexturesPacket;
+import net.pl3x.guithium.api.network.packet.ScreenCacheMissPacket;
 import net.pl3x.guithium.api.network.packet.TexturesPacket;
 import net.pl3x.guithium.plugin.player.PaperPlayer;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class PaperPacketListener implements PacketListener {
     private final PaperPlayer player;
@@ -32,17 +39,22 @@ public class PaperPacketListener implements PacketListener {
     @Override
     public <T extends ClickableElement<T>> void handleElementClick(@NotNull ElementClickedPacket<T> packet) {
         // make sure it's the same screen
-        Screen screen = this.player.getCurrentScreen();
-        if (screen == null || !screen.getKey().equals(packet.getScreen())) {
+        Screen screen = getScreen(packet.getScreen());
+        if (screen == null) {
             return;
         }
 
         // make sure the screen has the element
-        T element = Unsafe.cast(screen.getElement(packet.getElement()));
-        if (element == null) {
+        if (!(screen.getElement(packet.getElement()) instanceof ClickableElement<?> element)) {
             return;
         }
 
+        handleElementClick(screen, element);
+    }
+
+    public <T extends ClickableElement<T>> void handleElementClick(@NotNull Screen screen, @NotNull ClickableElement<?> clicked) {
+        T element = Unsafe.cast(clicked);
+
         // inform other plugins the element was clicked
         ElementClickedAction<T> action = new ElementClickedAction<>(this.player, screen, element);
         Guithium.api().getActionRegistry().callAction(action);
@@ -62,19 +74,25 @@ public class PaperPacketListener implements PacketListener {
     @Override
     public <T extends ValueElement<T, V>, V> void handleElementChangedValue(@NotNull ElementChangedValuePacket<V> packet) {
         // make sure it's the same screen
-        Screen screen = this.player.getCurrentScreen();
-        if (screen == null || !screen.getKey().equals(packet.getScreen())) {
+        Screen screen = getScreen(packet.getScreen());
+        if (screen == null) {
             return;
         }
 
         // make sure the screen has the element
-        T element = Unsafe.cast(screen.getElement(packet.getElement()));
-        if (element == null) {
+        if (!(screen.getElement(packet.getElement()) instanceof ValueElement<?, ?> element)) {
             return;
         }
 
+        handleElementChangedValue(screen, element, packet.getValue());
+    }
+
+    public <T extends ValueElement<T, V>, V> void handleElementChangedValue(@NotNull Screen screen, @NotNull ValueElement<?, ?> changed, @Nullable Object newValue) {
+        T element = Unsafe.cast(changed);
+        V value = Unsafe.cast(newValue);
+
         // inform other plugins the element's value was changed
-        ElementValueChangedAction<T, V> action = new ElementValueChangedAction<>(this.player, screen, element, packet.getValue());
+        ElementValueChangedAction<T, V> action = new ElementValueChangedAction<>(this.player, screen, element, value);
         Guithium.api().getActionRegistry().callAction(action);
 
         // some other plugin says to ignore it
@@ -86,7 +104,7 @@ public class PaperPacketListener implements PacketListener {
         element.setValue(action.getValue());
 
         // if the action changed the value, tell the client
-        if (packet.getValue() != action.getValue()) {
+        if (value != action.getValue()) {
             element.send(this.player);
         }
 
@@ -97,12 +115,24 @@ public class PaperPacketListener implements PacketListener {
         }
     }
 
+    @Nullable
+    public Screen getScreen(@NotNull Key key) {
+        Screen screen = this.player.getCurrentScreen();
+        return screen == null || !screen.getKey().equals(key) ? null : screen;
+    }
+
     @Override
     public void handleElement(@NotNull ElementPacket packet) {
         // client does not send this packet to the server
         throw new UnsupportedOperationException("Not supported on server.");
     }
 
+    @Override
+    public void handleElementPatch(@NotNull ElementPatchPacket packet) {
+        // client does not send this packet to the server
+        throw new UnsupportedOperationException("Not supported on server.");
+    }
+
     @Override
     public void handleOpenScreen(@NotNull OpenScreenPacket packet) {
         // client does not send this packet to the server
@@ -135,8 +165,13 @@ public class PaperPacketListener implements PacketListener {
         // set the player's client protocol
         this.player.setProtocol(protocol);
 
+        // use the best encoding the client understands from now on. this has to happen before
+        // replying, the client starts using it as soon as it reads the reply
+        this.player.getConnection().setCapabilities(Capabilities.LATEST.negotiate(packet.getCapabilities()));
+        this.player.getConnection().setPacketIds(packet.getPacketKeys());
+
         // reply to the player with server's protocol
-        this.player.getConnection().send(new HelloPacket(), true);
+        this.player.getConnection().sendPlain(new HelloPacket());
 
         // ensure the player has the correct guithium installed
         if (!this.player.hasGuithium()) {
@@ -153,4 +188,26 @@ public class PaperPacketListener implements PacketListener {
         PlayerJoinedAction action = new PlayerJoinedAction(this.player);
         Guithium.api().getActionRegistry().callAction(action);
     }
+
+    @Override
+    public void handleOpenCachedScreen(@NotNull OpenCachedScreenPacket packet) {
+        // client does not send this packet to the server
+        throw new UnsupportedOperationException("Not supported on server.");
+    }
+
+    @Override
+    public void handleScreenCacheMiss(@NotNull ScreenCacheMissPacket packet) {
+        // only resend screens we actually opened by hash and have not closed since
+        Screen screen = this.player.getConnection().getElementTracker().getScreen(packet.getScreenKey());
+        if (screen == null) {
+            return;
+        }
+        this.player.getConnection().send(new OpenScreenPacket(screen));
+    }
+
+    @Override
+    public void handlePrefetchTextures(@NotNull PrefetchTexturesPacket packet) {
+        // client does not send this packet to the server
+        throw new UnsupportedOperationException("Not supported on server.");
+    }
 }
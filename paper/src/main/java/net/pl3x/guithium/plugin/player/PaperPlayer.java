@@ -14,7 +14,8 @@ public class PaperPlayer implements WrappedPlayer {
     private final Player player;
     private final PaperConnection connection;
 
-    private Screen currentScreen;
+    // also read by the decoder thread to validate packets before they reach the main thread
+    private volatile Screen currentScreen;
     private int protocol = -1;
 
     protected PaperPlayer(@NotNull Player player) {
@@ -58,7 +59,8 @@ public class PaperPlayer implements WrappedPlayer {
 
     @Override
     public boolean hasGuithium() {
-        return getProtocol() == Guithium.PROTOCOL;
+        // anything at least as new as the oldest compatible protocol, features are negotiated separately
+        return getProtocol() >= Guithium.MIN_PROTOCOL;
     }
 
     public int getProtocol() {